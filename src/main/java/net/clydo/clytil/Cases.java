@@ -20,84 +20,279 @@
 
 package net.clydo.clytil;
 
-import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.regex.Pattern;
+import java.util.EnumSet;
 
 /**
- * Enum representing various string naming conventions (cases) and their corresponding patterns.
+ * Enum representing various string naming conventions (cases).
  * <p>
- * Provides a method to check if a given string conforms to a specific case.
+ * Provides methods to check which cases a given string conforms to and to convert between
+ * the word-based cases. Checks run a single pass over the chars without regexes or allocation.
  */
-@RequiredArgsConstructor
 public enum Cases {
 
     /**
      * Lowercase words separated by underscores, e.g., "my_variable_name".
      */
-    SNAKE("^[a-z][a-z0-9]*(?:_[a-z][a-z0-9]*)*$"),
+    SNAKE,
 
     /**
      * Uppercase words separated by underscores, e.g., "MY_VARIABLE_NAME".
      */
-    SCREAMING_SNAKE("^[A-Z][A-Z0-9]*(?:_[A-Z][A-Z0-9]*)*$"),
+    SCREAMING_SNAKE,
 
     /**
      * Lowercase words separated by hyphens, e.g., "my-variable-name".
      */
-    KEBAB("^[a-z][a-z0-9]*(?:-[a-z][a-z0-9]*)*$"),
+    KEBAB,
 
     /**
      * camelCase: first word lowercase, subsequent words capitalized, e.g., "myVariableName".
      */
-    CAMEL("^[a-z][a-z0-9]*(?:[A-Z][a-z0-9]*)*$"),
+    CAMEL,
 
     /**
      * PascalCase: all words capitalized, e.g., "MyVariableName".
      */
-    PASCAL("^[A-Z][a-z0-9]*(?:[A-Z][a-z0-9]*)*$"),
+    PASCAL,
 
     /**
      * All lowercase letters, e.g., "variable".
      */
-    LOWER("^[a-z]+$"),
+    LOWER,
 
     /**
      * All uppercase letters, e.g., "CONSTANT".
      */
-    UPPER("^[A-Z]+$"),
+    UPPER,
 
     /**
      * Alphanumeric string with letters and/or digits, e.g., "Var123".
      */
-    ALPHANUMERIC("^[A-Za-z0-9]+$");
+    ALPHANUMERIC;
+
+    private static final Cases[] VALUES = values();
+
+    private static final int LOWER_CHAR = 0;
+    private static final int UPPER_CHAR = 1;
+    private static final int DIGIT_CHAR = 2;
+    private static final int UNDERSCORE_CHAR = 3;
+    private static final int HYPHEN_CHAR = 4;
+    private static final int OTHER_CHAR = 5;
+
+    private static final byte[] CHAR_CLASSES = new byte[128];
 
     /**
-     * The regex pattern string defining this case.
+     * The cases a word may start with a char of each class; words start the string and follow
+     * separators.
      */
-    private final String regex;
+    private static final int[] WORD_START = new int[6];
 
     /**
-     * Compiled Pattern object, initialized lazily.
+     * The cases a char of each class may continue a word with.
      */
-    private Pattern pattern;
+    private static final int[] WORD_PART = new int[6];
+
+    static {
+        for (int ch = 0; ch < CHAR_CLASSES.length; ch++) {
+            CHAR_CLASSES[ch] = (byte) OTHER_CHAR;
+        }
+        for (char ch = 'a'; ch <= 'z'; ch++) {
+            CHAR_CLASSES[ch] = (byte) LOWER_CHAR;
+        }
+        for (char ch = 'A'; ch <= 'Z'; ch++) {
+            CHAR_CLASSES[ch] = (byte) UPPER_CHAR;
+        }
+        for (char ch = '0'; ch <= '9'; ch++) {
+            CHAR_CLASSES[ch] = (byte) DIGIT_CHAR;
+        }
+        CHAR_CLASSES['_'] = (byte) UNDERSCORE_CHAR;
+        CHAR_CLASSES['-'] = (byte) HYPHEN_CHAR;
+
+        WORD_START[LOWER_CHAR] = mask(SNAKE, KEBAB, CAMEL, LOWER, ALPHANUMERIC);
+        WORD_START[UPPER_CHAR] = mask(SCREAMING_SNAKE, PASCAL, UPPER, ALPHANUMERIC);
+        WORD_START[DIGIT_CHAR] = mask(ALPHANUMERIC);
+
+        WORD_PART[LOWER_CHAR] = mask(SNAKE, KEBAB, CAMEL, PASCAL, LOWER, ALPHANUMERIC);
+        WORD_PART[UPPER_CHAR] = mask(SCREAMING_SNAKE, CAMEL, PASCAL, UPPER, ALPHANUMERIC);
+        WORD_PART[DIGIT_CHAR] = mask(SNAKE, SCREAMING_SNAKE, KEBAB, CAMEL, PASCAL, ALPHANUMERIC);
+        WORD_PART[UNDERSCORE_CHAR] = mask(SNAKE, SCREAMING_SNAKE);
+        WORD_PART[HYPHEN_CHAR] = mask(KEBAB);
+    }
 
     /**
      * Checks if the given string matches this case type.
-     * <p>
-     * The regex is compiled lazily on first use for efficiency.
      *
      * @param str the string to check
      * @return true if the string matches this case type, false otherwise
      */
     public boolean matches(
-            @NotNull final String str
+            @NotNull final CharSequence str
     ) {
         Validates.require(str, "str");
-        if (pattern == null) {
-            pattern = Pattern.compile(regex);
+        return (detectMask(str) & this.bit()) != 0;
+    }
+
+    /**
+     * Returns every case the given string matches.
+     *
+     * @param str the string to check
+     * @return the matching cases, empty if there are none
+     */
+    @Contract("_ -> new")
+    public static @NotNull EnumSet<Cases> detect(
+            @NotNull final CharSequence str
+    ) {
+        Validates.require(str, "str");
+
+        val mask = detectMask(str);
+        val result = EnumSet.noneOf(Cases.class);
+        for (val value : VALUES) {
+            if ((mask & value.bit()) != 0) {
+                result.add(value);
+            }
         }
-        return pattern.matcher(str).matches();
+        return result;
     }
+
+    /**
+     * Converts a string from one word-based case to another, see {@link #convert(CharSequence, Cases, Cases, StringBuilder)}.
+     *
+     * @param str  the string in the {@code from} case
+     * @param from the case of the string
+     * @param to   the case to convert to
+     * @return the converted string
+     */
+    public static @NotNull String convert(
+            @NotNull final CharSequence str,
+            @NotNull final Cases from,
+            @NotNull final Cases to
+    ) {
+        return convert(str, from, to, new StringBuilder(str.length() + 8)).toString();
+    }
+
+    /**
+     * Converts a string from one word-based case to another and appends it to {@code out}.
+     * <p>
+     * Only {@link #SNAKE}, {@link #SCREAMING_SNAKE}, {@link #KEBAB}, {@link #CAMEL} and
+     * {@link #PASCAL} are word-based. Words of camel and pascal case start at every uppercase
+     * letter, so {@code "myURL"} converts to {@code "my_u_r_l"}.
+     *
+     * @param str  the string in the {@code from} case
+     * @param from the case of the string
+     * @param to   the case to convert to
+     * @param out  the builder to append to
+     * @return {@code out}
+     * @throws IllegalArgumentException if a case is not word-based or the string does not match {@code from}
+     */
+    public static @NotNull StringBuilder convert(
+            @NotNull final CharSequence str,
+            @NotNull final Cases from,
+            @NotNull final Cases to,
+            @NotNull final StringBuilder out
+    ) {
+        Validates.require(str, "str");
+        Validates.require(out, "out");
+        requireWordBased(from, "from");
+        requireWordBased(to, "to");
+        if (!from.matches(str)) {
+            throw new IllegalArgumentException(String.format("'%s' is not in %s case!", str, from));
+        }
+
+        if (from == to) {
+            return out.append(str);
+        }
+
+        val separator = to == KEBAB ? '-' : '_';
+        val separated = to == SNAKE || to == SCREAMING_SNAKE || to == KEBAB;
+        val capitalized = from == CAMEL || from == PASCAL;
+
+        out.ensureCapacity(out.length() + str.length() + 8);
+        val length = str.length();
+        var wordStart = true;
+        var words = 0;
+        for (int i = 0; i < length; i++) {
+            val ch = str.charAt(i);
+            if (ch == '_' || ch == '-') {
+                wordStart = true;
+                continue;
+            }
+            if (capitalized && AsciiChars.isUpperCase(ch)) {
+                wordStart = true;
+            }
+
+            if (wordStart && words++ > 0 && separated) {
+                out.append(separator);
+            }
+
+            final boolean upper;
+            if (to == SCREAMING_SNAKE) {
+                upper = true;
+            } else if (to == PASCAL) {
+                upper = wordStart;
+            } else if (to == CAMEL) {
+                upper = wordStart && words > 1;
+            } else {
+                upper = false;
+            }
+            out.append(upper ? AsciiChars.toUpperCase(ch) : AsciiChars.toLowerCase(ch));
+            wordStart = false;
+        }
+        return out;
+    }
+
+    private int bit() {
+        return 1 << this.ordinal();
+    }
+
+    private static int mask(@NotNull final Cases @NotNull ... cases) {
+        var mask = 0;
+        for (val value : cases) {
+            mask |= value.bit();
+        }
+        return mask;
+    }
+
+    private static void requireWordBased(
+            @NotNull final Cases cases,
+            @NotNull final String name
+    ) {
+        Validates.require(cases, name);
+        if (cases.ordinal() > PASCAL.ordinal()) {
+            throw new IllegalArgumentException(String.format("%s case %s is not word-based!", name, cases));
+        }
+    }
+
+    /**
+     * Runs the char class state machine of all cases at once and returns the bits of the
+     * cases that accept the string.
+     */
+    private static int detectMask(@NotNull final CharSequence str) {
+        val length = str.length();
+        // The string starts like a word after a separator.
+        var alive = -1;
+        var previous = UNDERSCORE_CHAR;
+        for (int i = 0; i < length; i++) {
+            val ch = str.charAt(i);
+            val charClass = ch < CHAR_CLASSES.length ? CHAR_CLASSES[ch] : OTHER_CHAR;
+
+            if (previous == UNDERSCORE_CHAR || previous == HYPHEN_CHAR) {
+                alive &= WORD_START[charClass];
+            } else {
+                alive &= WORD_PART[charClass];
+            }
+
+            if (alive == 0) {
+                return 0;
+            }
+            previous = charClass;
+        }
+
+        // A trailing separator ends without a word.
+        return previous == UNDERSCORE_CHAR || previous == HYPHEN_CHAR ? 0 : alive;
+    }
+
 }
@@ -0,0 +1,648 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.cache;
+
+import lombok.val;
+import net.clydo.clytil.Validates;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A compiled glob as cached by {@link FastGlob}.
+ * <p>
+ * Supported syntax:
+ * <ul>
+ *     <li>{@code *} matches any run of chars within one path segment</li>
+ *     <li>{@code ?} matches one char other than {@code /}</li>
+ *     <li>{@code [abc]}, {@code [a-c]}, {@code [!a-c]} and {@code [^a-c]} match one char other than {@code /}</li>
+ *     <li>{@code **} as a whole segment matches any number of segments; as the last segment at least one</li>
+ *     <li>{@code {a,b}} matches one of the alternatives</li>
+ *     <li>{@code \} escapes the next char</li>
+ * </ul>
+ * Globs are compiled into tables of segments, each split into pieces around its stars. Matching
+ * anchors the first and last piece, finds the pieces in between leftmost-first and does the same
+ * for segment runs around {@code **}, which never needs to backtrack. Matching allocates nothing.
+ */
+public final class CompiledGlob {
+
+    private static final int MAX_ALTERNATIVES = 256;
+
+    private final String glob;
+    private final GlobPattern[] alternatives;
+
+    private CompiledGlob(
+            @NotNull final String glob,
+            @NotNull final GlobPattern @NotNull [] alternatives
+    ) {
+        this.glob = glob;
+        this.alternatives = alternatives;
+    }
+
+    /**
+     * Compiles the glob.
+     *
+     * @param glob the glob
+     * @return the compiled glob
+     * @throws IllegalArgumentException if the glob is malformed
+     */
+    @Contract("_ -> new")
+    public static @NotNull CompiledGlob compile(
+            @NotNull final String glob
+    ) {
+        Validates.require(glob, "glob");
+
+        val expanded = new ArrayList<String>();
+        expandBraces(glob, expanded);
+
+        val alternatives = new GlobPattern[expanded.size()];
+        for (int i = 0; i < alternatives.length; i++) {
+            alternatives[i] = GlobPattern.compile(expanded.get(i), glob);
+        }
+        return new CompiledGlob(glob, alternatives);
+    }
+
+    /**
+     * Returns whether the whole path matches the glob. Path segments are separated by {@code /}.
+     *
+     * @param path the path
+     * @return whether the path matches
+     */
+    public boolean matches(
+            @NotNull final CharSequence path
+    ) {
+        for (val alternative : this.alternatives) {
+            if (alternative.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public @NotNull String glob() {
+        return this.glob;
+    }
+
+    @Override
+    public String toString() {
+        return this.glob;
+    }
+
+    private static void expandBraces(
+            @NotNull final String glob,
+            @NotNull final List<String> out
+    ) {
+        val open = findUnescaped(glob, '{', 0);
+        if (open < 0) {
+            if (findUnescaped(glob, '}', 0) >= 0) {
+                throw new IllegalArgumentException(String.format("Unbalanced '}' in glob %s!", glob));
+            }
+            if (out.size() >= MAX_ALTERNATIVES) {
+                throw new IllegalArgumentException(String.format("Glob %s expands to too many alternatives!", glob));
+            }
+            out.add(glob);
+            return;
+        }
+
+        // Split the outermost group at its top-level commas.
+        val options = new ArrayList<String>();
+        var depth = 0;
+        var optionStart = open + 1;
+        var close = -1;
+        for (int i = open + 1; i < glob.length() && close < 0; i++) {
+            val ch = glob.charAt(i);
+            if (ch == '\\') {
+                i++;
+            } else if (ch == '[') {
+                i = classEnd(glob, i);
+            } else if (ch == '{') {
+                depth++;
+            } else if (ch == '}') {
+                if (depth == 0) {
+                    options.add(glob.substring(optionStart, i));
+                    close = i;
+                } else {
+                    depth--;
+                }
+            } else if (ch == ',' && depth == 0) {
+                options.add(glob.substring(optionStart, i));
+                optionStart = i + 1;
+            }
+        }
+        if (close < 0) {
+            throw new IllegalArgumentException(String.format("Unbalanced '{' in glob %s!", glob));
+        }
+
+        val prefix = glob.substring(0, open);
+        val suffix = glob.substring(close + 1);
+        for (val option : options) {
+            expandBraces(prefix + option + suffix, out);
+        }
+    }
+
+    private static int findUnescaped(
+            @NotNull final String glob,
+            final char target,
+            final int from
+    ) {
+        for (int i = from; i < glob.length(); i++) {
+            val ch = glob.charAt(i);
+            if (ch == '\\') {
+                i++;
+            } else if (ch == '[') {
+                i = classEnd(glob, i);
+            } else if (ch == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the {@code ]} closing the class opened at {@code open}.
+     */
+    private static int classEnd(
+            @NotNull final String glob,
+            final int open
+    ) {
+        var i = open + 1;
+        if (i < glob.length() && (glob.charAt(i) == '!' || glob.charAt(i) == '^')) {
+            i++;
+        }
+        // A ']' right after the opening bracket is a member.
+        if (i < glob.length() && glob.charAt(i) == ']') {
+            i++;
+        }
+        for (; i < glob.length(); i++) {
+            val ch = glob.charAt(i);
+            if (ch == '\\') {
+                i++;
+            } else if (ch == ']') {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Unterminated '[' in glob %s!", glob));
+    }
+
+    /**
+     * One brace-free alternative: a sequence of segments, some of them {@code **}.
+     */
+    private static final class GlobPattern {
+
+        private final Segment[] head;
+        private final Segment[][] middles;
+        private final Segment[] tail;
+        private final boolean globstar;
+
+        private GlobPattern(
+                final Segment @NotNull [] head,
+                final Segment @NotNull [] @NotNull [] middles,
+                final Segment @NotNull [] tail,
+                final boolean globstar
+        ) {
+            this.head = head;
+            this.middles = middles;
+            this.tail = tail;
+            this.globstar = globstar;
+        }
+
+        static @NotNull GlobPattern compile(
+                @NotNull final String pattern,
+                @NotNull final String glob
+        ) {
+            val runs = new ArrayList<List<Segment>>();
+            var run = new ArrayList<Segment>();
+            runs.add(run);
+
+            var segmentStart = 0;
+            for (int i = 0; i <= pattern.length(); i++) {
+                if (i < pattern.length()) {
+                    val ch = pattern.charAt(i);
+                    if (ch == '\\') {
+                        i++;
+                        continue;
+                    }
+                    if (ch == '[') {
+                        i = classEnd(pattern, i);
+                        continue;
+                    }
+                    if (ch != '/') {
+                        continue;
+                    }
+                }
+
+                val segment = pattern.substring(segmentStart, Math.min(i, pattern.length()));
+                if (segment.equals("**")) {
+                    run = new ArrayList<>();
+                    runs.add(run);
+                } else {
+                    run.add(Segment.compile(segment, glob));
+                }
+                segmentStart = i + 1;
+            }
+
+            val head = runs.get(0).toArray(new Segment[0]);
+            if (runs.size() == 1) {
+                return new GlobPattern(head, new Segment[0][], new Segment[0], false);
+            }
+
+            val middles = new Segment[runs.size() - 2][];
+            for (int i = 1; i < runs.size() - 1; i++) {
+                middles[i - 1] = runs.get(i).toArray(new Segment[0]);
+            }
+            val tail = runs.get(runs.size() - 1).toArray(new Segment[0]);
+            return new GlobPattern(head, middles, tail, true);
+        }
+
+        boolean matches(@NotNull final CharSequence path) {
+            val length = path.length();
+            if (!this.globstar) {
+                return matchRun(path, 0, this.head) == length;
+            }
+
+            // Start of the next unmatched segment, length + 1 once all are consumed.
+            var next = 0;
+            if (this.head.length > 0) {
+                val end = matchRun(path, 0, this.head);
+                if (end < 0) {
+                    return false;
+                }
+                next = end + 1;
+            }
+
+            for (val middle : this.middles) {
+                if (middle.length == 0) {
+                    continue;
+                }
+
+                var start = next;
+                while (true) {
+                    if (start > length) {
+                        return false;
+                    }
+                    val end = matchRun(path, start, middle);
+                    if (end >= 0) {
+                        next = end + 1;
+                        break;
+                    }
+                    val slash = indexOf(path, '/', start);
+                    if (slash < 0) {
+                        return false;
+                    }
+                    start = slash + 1;
+                }
+            }
+
+            if (this.tail.length == 0) {
+                // A trailing ** needs at least one segment.
+                return next <= length;
+            }
+
+            // The tail matches the last segments.
+            var start = length;
+            var segments = 0;
+            while (true) {
+                val slash = lastIndexOf(path, '/', start - 1);
+                start = slash + 1;
+                if (++segments == this.tail.length) {
+                    break;
+                }
+                if (slash < 0) {
+                    return false;
+                }
+                start = slash;
+            }
+            return start >= next && matchRun(path, start, this.tail) == length;
+        }
+
+        /**
+         * Matches consecutive segments starting at {@code start} and returns the end of the last
+         * one, or {@code -1}.
+         */
+        private static int matchRun(
+                @NotNull final CharSequence path,
+                final int start,
+                final Segment @NotNull [] run
+        ) {
+            val length = path.length();
+            var segmentStart = start;
+            for (int i = 0; i < run.length; i++) {
+                var segmentEnd = indexOf(path, '/', segmentStart);
+                if (segmentEnd < 0) {
+                    segmentEnd = length;
+                }
+                if (!run[i].matches(path, segmentStart, segmentEnd)) {
+                    return -1;
+                }
+                if (i == run.length - 1) {
+                    return segmentEnd;
+                }
+                if (segmentEnd == length) {
+                    return -1;
+                }
+                segmentStart = segmentEnd + 1;
+            }
+            return -1;
+        }
+
+        private static int indexOf(
+                @NotNull final CharSequence path,
+                final char ch,
+                final int from
+        ) {
+            if (path instanceof String string) {
+                return string.indexOf(ch, from);
+            }
+            for (int i = from; i < path.length(); i++) {
+                if (path.charAt(i) == ch) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static int lastIndexOf(
+                @NotNull final CharSequence path,
+                final char ch,
+                final int from
+        ) {
+            if (path instanceof String string) {
+                return string.lastIndexOf(ch, from);
+            }
+            for (int i = Math.min(from, path.length() - 1); i >= 0; i--) {
+                if (path.charAt(i) == ch) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+    }
+
+    /**
+     * One path segment: literal chars, {@code ?} and classes, split into pieces around stars.
+     */
+    private static final class Segment {
+
+        private static final byte LITERAL = 0;
+        private static final byte ANY = 1;
+        private static final byte CLASS = 2;
+
+        private final byte[] kinds;
+        private final char[] chars;
+        private final RegexNfa.CharSet[] classes;
+
+        /**
+         * Unit offsets of the pieces, piece {@code i} spans {@code [pieceStarts[i], pieceStarts[i + 1])}.
+         */
+        private final int[] pieceStarts;
+        private final boolean leadingStar;
+        private final boolean trailingStar;
+
+        private Segment(
+                final byte @NotNull [] kinds,
+                final char @NotNull [] chars,
+                final RegexNfa.CharSet @NotNull [] classes,
+                final int @NotNull [] pieceStarts,
+                final boolean leadingStar,
+                final boolean trailingStar
+        ) {
+            this.kinds = kinds;
+            this.chars = chars;
+            this.classes = classes;
+            this.pieceStarts = pieceStarts;
+            this.leadingStar = leadingStar;
+            this.trailingStar = trailingStar;
+        }
+
+        static @NotNull Segment compile(
+                @NotNull final String segment,
+                @NotNull final String glob
+        ) {
+            val length = segment.length();
+            val kinds = new byte[length];
+            val chars = new char[length];
+            val classes = new RegexNfa.CharSet[length];
+            val pieceStarts = new int[length + 2];
+            var units = 0;
+            var pieces = 0;
+            var leadingStar = false;
+            var trailingStar = false;
+            var pieceOpen = false;
+
+            for (int i = 0; i < length; i++) {
+                val ch = segment.charAt(i);
+                if (ch == '*') {
+                    if (units == 0 && !pieceOpen) {
+                        leadingStar = true;
+                    }
+                    if (pieceOpen) {
+                        pieceOpen = false;
+                    }
+                    trailingStar = true;
+                    continue;
+                }
+
+                if (!pieceOpen) {
+                    pieceStarts[pieces++] = units;
+                    pieceOpen = true;
+                }
+                trailingStar = false;
+
+                if (ch == '\\') {
+                    if (++i >= length) {
+                        throw new IllegalArgumentException(String.format("Dangling '\\' in glob %s!", glob));
+                    }
+                    kinds[units] = LITERAL;
+                    chars[units++] = segment.charAt(i);
+                } else if (ch == '?') {
+                    kinds[units++] = ANY;
+                } else if (ch == '[') {
+                    val close = classEnd(segment, i);
+                    kinds[units] = CLASS;
+                    classes[units++] = parseClass(segment, i + 1, close);
+                    i = close;
+                } else {
+                    kinds[units] = LITERAL;
+                    chars[units++] = ch;
+                }
+            }
+            pieceStarts[pieces] = units;
+
+            return new Segment(
+                    Arrays.copyOf(kinds, units),
+                    Arrays.copyOf(chars, units),
+                    Arrays.copyOf(classes, units),
+                    Arrays.copyOf(pieceStarts, pieces + 1),
+                    leadingStar,
+                    trailingStar
+            );
+        }
+
+        private static @NotNull RegexNfa.CharSet parseClass(
+                @NotNull final String segment,
+                final int from,
+                final int to
+        ) {
+            var i = from;
+            var negated = false;
+            if (segment.charAt(i) == '!' || segment.charAt(i) == '^') {
+                negated = true;
+                i++;
+            }
+
+            var set = RegexNfa.CharSet.EMPTY;
+            var first = true;
+            while (i < to) {
+                var lower = segment.charAt(i++);
+                if (lower == '\\') {
+                    lower = segment.charAt(i++);
+                } else if (lower == ']' && !first) {
+                    break;
+                }
+                first = false;
+
+                if (i + 1 < to && segment.charAt(i) == '-') {
+                    var upper = segment.charAt(i + 1);
+                    i += 2;
+                    if (upper == '\\') {
+                        upper = segment.charAt(i++);
+                    }
+                    if (upper >= lower) {
+                        set = set.union(RegexNfa.CharSet.range(lower, upper));
+                    }
+                } else {
+                    set = set.union(RegexNfa.CharSet.of(lower));
+                }
+            }
+
+            // Classes never match the separator.
+            set = negated ? set.complement() : set;
+            return set.contains('/') ? set.complement().union(RegexNfa.CharSet.of('/')).complement() : set;
+        }
+
+        private int pieces() {
+            return this.pieceStarts.length - 1;
+        }
+
+        boolean matches(
+                @NotNull final CharSequence path,
+                final int from,
+                final int to
+        ) {
+            val pieces = this.pieces();
+            if (pieces == 0) {
+                return this.leadingStar || from == to;
+            }
+
+            var piece = 0;
+            var pos = from;
+            if (!this.leadingStar) {
+                if (!this.matchesAt(0, path, pos, to)) {
+                    return false;
+                }
+                pos += this.pieceLength(0);
+                piece = 1;
+
+                if (pieces == 1 && !this.trailingStar) {
+                    return pos == to;
+                }
+            }
+
+            var last = pieces;
+            var limit = to;
+            if (!this.trailingStar) {
+                last = pieces - 1;
+                val tailStart = to - this.pieceLength(last);
+                if (tailStart < pos || !this.matchesAt(last, path, tailStart, to)) {
+                    return false;
+                }
+                limit = tailStart;
+            }
+
+            for (; piece < last; piece++) {
+                val found = this.find(piece, path, pos, limit);
+                if (found < 0) {
+                    return false;
+                }
+                pos = found + this.pieceLength(piece);
+            }
+            return true;
+        }
+
+        private int pieceLength(final int piece) {
+            return this.pieceStarts[piece + 1] - this.pieceStarts[piece];
+        }
+
+        private int find(
+                final int piece,
+                @NotNull final CharSequence path,
+                final int from,
+                final int to
+        ) {
+            val last = to - this.pieceLength(piece);
+            for (int pos = from; pos <= last; pos++) {
+                if (this.matchesAt(piece, path, pos, to)) {
+                    return pos;
+                }
+            }
+            return -1;
+        }
+
+        private boolean matchesAt(
+                final int piece,
+                @NotNull final CharSequence path,
+                final int pos,
+                final int to
+        ) {
+            val start = this.pieceStarts[piece];
+            val end = this.pieceStarts[piece + 1];
+            if (pos + (end - start) > to) {
+                return false;
+            }
+
+            for (int unit = start, i = pos; unit < end; unit++, i++) {
+                val ch = path.charAt(i);
+                switch (this.kinds[unit]) {
+                    case LITERAL -> {
+                        if (ch != this.chars[unit]) {
+                            return false;
+                        }
+                    }
+                    case CLASS -> {
+                        if (!this.classes[unit].contains(ch)) {
+                            return false;
+                        }
+                    }
+                    default -> {
+                        // ANY, segments never contain the separator.
+                    }
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,401 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.cache;
+
+import lombok.val;
+import net.clydo.clytil.Validates;
+import net.clydo.clytil.str.Substring;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A compiled regex as cached by {@link FastRegex}.
+ * <p>
+ * Simple shapes such as literals, {@code prefix.*}, {@code .*suffix}, {@code .*infix.*} and
+ * character class runs are matched without creating a {@link java.util.regex.Matcher};
+ * everything else falls back to the {@link Pattern}.
+ * <p>
+ * Before the regex engine runs, the input is checked for the literals every match must contain,
+ * e.g. {@code ERROR} and {@code code=} for {@code .*ERROR.*code=\d+}, which rejects most
+ * non-matching inputs with a vectorized {@link String#indexOf(String)}.
+ * <p>
+ * Each thread reuses one {@link Matcher} per compiled regex through {@link Matcher#reset(CharSequence)},
+ * so apart from their results the operations do not allocate. The matcher is released after every
+ * call and does not keep the input reachable.
+ */
+public final class CompiledRegex {
+
+    private final String regex;
+    private final Pattern pattern;
+    private final @Nullable SimpleRegex simple;
+    private final String[] requiredLiterals;
+    private final ThreadLocal<MatcherHolder> matchers;
+
+    private CompiledRegex(
+            @NotNull final String regex,
+            @NotNull final Pattern pattern,
+            @Nullable final SimpleRegex simple,
+            @NotNull final String @NotNull [] requiredLiterals
+    ) {
+        this.regex = regex;
+        this.pattern = pattern;
+        this.simple = simple;
+        this.requiredLiterals = requiredLiterals;
+        this.matchers = ThreadLocal.withInitial(() -> new MatcherHolder(pattern.matcher("")));
+    }
+
+    /**
+     * Compiles the regex.
+     *
+     * @param regex the regex
+     * @return the compiled regex
+     * @throws PatternSyntaxException if the regex is invalid
+     */
+    @Contract("_ -> new")
+    public static @NotNull CompiledRegex compile(
+            @NotNull final String regex
+    ) {
+        Validates.require(regex, "regex");
+
+        val pattern = Pattern.compile(regex);
+        return new CompiledRegex(regex, pattern, SimpleRegex.parse(regex), RegexNfa.requiredLiterals(regex));
+    }
+
+    public boolean matches(
+            @NotNull final CharSequence input
+    ) {
+        val simple = this.simple;
+        if (simple != null) {
+            return simple.matches(input);
+        }
+        if (!this.mayMatch(input)) {
+            return false;
+        }
+
+        val matcher = this.acquire(input);
+        try {
+            return matcher.matches();
+        } finally {
+            this.release(matcher);
+        }
+    }
+
+    /**
+     * Returns whether the whole input matches, aborting once the budget is spent.
+     *
+     * @param input  the input
+     * @param budget the budget of the regex engine
+     * @return whether the whole input matches
+     * @throws RegexBudgetExceededException if the budget is spent
+     */
+    public boolean matches(
+            @NotNull final CharSequence input,
+            @NotNull final MatchBudget budget
+    ) {
+        Validates.require(input, "input");
+        Validates.require(budget, "budget");
+
+        val simple = this.simple;
+        if (simple != null) {
+            // Linear in the input length, no budget needed.
+            return simple.matches(input);
+        }
+        if (!this.mayMatch(input)) {
+            return false;
+        }
+
+        val matcher = this.acquire(budget.wrap(input, this.regex));
+        try {
+            return matcher.matches();
+        } finally {
+            this.release(matcher);
+        }
+    }
+
+    /**
+     * Returns the range of the first match in the input, aborting once the budget is spent.
+     *
+     * @param input  the input
+     * @param budget the budget of the regex engine
+     * @return the range, or {@code null} if there is no match
+     * @throws RegexBudgetExceededException if the budget is spent
+     */
+    public @Nullable Substring find(
+            @NotNull final CharSequence input,
+            @NotNull final MatchBudget budget
+    ) {
+        Validates.require(input, "input");
+        Validates.require(budget, "budget");
+        if (!this.mayMatch(input)) {
+            return null;
+        }
+
+        val matcher = this.acquire(budget.wrap(input, this.regex));
+        try {
+            return matcher.find() ? Substring.of(matcher.start(), matcher.end()) : null;
+        } finally {
+            this.release(matcher);
+        }
+    }
+
+    /**
+     * Returns the range of the first match in the input.
+     *
+     * @param input the input
+     * @return the range, or {@code null} if there is no match
+     */
+    public @Nullable Substring find(
+            @NotNull final CharSequence input
+    ) {
+        Validates.require(input, "input");
+        if (!this.mayMatch(input)) {
+            return null;
+        }
+
+        val matcher = this.acquire(input);
+        try {
+            return matcher.find() ? Substring.of(matcher.start(), matcher.end()) : null;
+        } finally {
+            this.release(matcher);
+        }
+    }
+
+    /**
+     * Returns the ranges of all matches in the input.
+     *
+     * @param input the input
+     * @return the ranges
+     */
+    public @NotNull List<Substring> findAll(
+            @NotNull final CharSequence input
+    ) {
+        Validates.require(input, "input");
+        if (!this.mayMatch(input)) {
+            return List.of();
+        }
+
+        val matcher = this.acquire(input);
+        try {
+            if (!matcher.find()) {
+                return List.of();
+            }
+
+            val result = new ArrayList<Substring>();
+            do {
+                result.add(Substring.of(matcher.start(), matcher.end()));
+            } while (matcher.find());
+            return result;
+        } finally {
+            this.release(matcher);
+        }
+    }
+
+    /**
+     * Replaces every match, see {@link Matcher#replaceAll(String)}.
+     *
+     * @param input       the input
+     * @param replacement the replacement, may refer to groups
+     * @return the replaced input
+     */
+    public @NotNull String replaceAll(
+            @NotNull final CharSequence input,
+            @NotNull final String replacement
+    ) {
+        Validates.require(input, "input");
+        Validates.require(replacement, "replacement");
+        if (!this.mayMatch(input)) {
+            return input.toString();
+        }
+
+        val matcher = this.acquire(input);
+        try {
+            return matcher.replaceAll(replacement);
+        } finally {
+            this.release(matcher);
+        }
+    }
+
+    /**
+     * Splits the input around matches, with the same result as {@link Pattern#split(CharSequence)}.
+     *
+     * @param input the input
+     * @return the parts
+     */
+    public @NotNull String @NotNull [] split(
+            @NotNull final CharSequence input
+    ) {
+        Validates.require(input, "input");
+        if (!this.mayMatch(input)) {
+            return new String[]{input.toString()};
+        }
+
+        val matcher = this.acquire(input);
+        try {
+            val parts = new ArrayList<String>();
+            var index = 0;
+            while (matcher.find()) {
+                // A zero-width match at the beginning never yields a leading empty part.
+                if (matcher.end() == 0) {
+                    continue;
+                }
+                parts.add(input.subSequence(index, matcher.start()).toString());
+                index = matcher.end();
+            }
+
+            if (index == 0) {
+                return new String[]{input.toString()};
+            }
+            parts.add(input.subSequence(index, input.length()).toString());
+
+            var size = parts.size();
+            while (size > 0 && parts.get(size - 1).isEmpty()) {
+                size--;
+            }
+            return parts.subList(0, size).toArray(new String[0]);
+        } finally {
+            this.release(matcher);
+        }
+    }
+
+    /**
+     * Returns a group of the first match in the input.
+     *
+     * @param input the input
+     * @param group the group index, {@code 0} for the whole match
+     * @return the group, or {@code null} if there is no match or the group did not participate
+     */
+    public @Nullable String group(
+            @NotNull final CharSequence input,
+            final int group
+    ) {
+        Validates.require(input, "input");
+        if (!this.mayMatch(input)) {
+            return null;
+        }
+
+        val matcher = this.acquire(input);
+        try {
+            return matcher.find() ? matcher.group(group) : null;
+        } finally {
+            this.release(matcher);
+        }
+    }
+
+    /**
+     * Returns a named group of the first match in the input.
+     *
+     * @param input the input
+     * @param group the group name
+     * @return the group, or {@code null} if there is no match or the group did not participate
+     */
+    public @Nullable String group(
+            @NotNull final CharSequence input,
+            @NotNull final String group
+    ) {
+        Validates.require(input, "input");
+        Validates.require(group, "group");
+        if (!this.mayMatch(input)) {
+            return null;
+        }
+
+        val matcher = this.acquire(input);
+        try {
+            return matcher.find() ? matcher.group(group) : null;
+        } finally {
+            this.release(matcher);
+        }
+    }
+
+    public @NotNull String regex() {
+        return this.regex;
+    }
+
+    public @NotNull Pattern pattern() {
+        return this.pattern;
+    }
+
+    /**
+     * Returns the literals every match contains, checked before the regex engine runs.
+     */
+    public @NotNull @Unmodifiable List<String> requiredLiterals() {
+        return List.of(this.requiredLiterals);
+    }
+
+    /**
+     * Returns whether whole-input matches are answered without the regex engine.
+     */
+    public boolean isFastPath() {
+        return this.simple != null;
+    }
+
+    @Override
+    public String toString() {
+        return this.regex;
+    }
+
+    boolean mayMatch(@NotNull final CharSequence input) {
+        for (val literal : this.requiredLiterals) {
+            if (SimpleRegex.indexOf(input, literal, 0) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private @NotNull Matcher acquire(@NotNull final CharSequence input) {
+        val holder = this.matchers.get();
+        if (holder.inUse) {
+            // Reentrant use on the same thread, e.g. from a callback.
+            return this.pattern.matcher(input);
+        }
+
+        holder.inUse = true;
+        return holder.matcher.reset(input);
+    }
+
+    private void release(@NotNull final Matcher matcher) {
+        val holder = this.matchers.get();
+        if (holder.matcher == matcher) {
+            matcher.reset("");
+            holder.inUse = false;
+        }
+    }
+
+    private static final class MatcherHolder {
+
+        final Matcher matcher;
+        boolean inUse;
+
+        MatcherHolder(@NotNull final Matcher matcher) {
+            this.matcher = matcher;
+        }
+
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.cache;
+
+import lombok.val;
+import net.clydo.clytil.Validates;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+
+/**
+ * A thread-safe, bounded cache of compiled globs, the wildcard counterpart of {@link FastRegex}.
+ * <p>
+ * Globs such as {@code *.log} or {@code src/**}{@code /*.java} are compiled into a
+ * {@link CompiledGlob}, which matches without backtracking and without allocating. Compiled
+ * globs are kept in a {@link TinyLfuCache}; malformed globs are remembered in a separate bounded
+ * set and never compiled again.
+ */
+public class FastGlob {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    private final TinyLfuCache<String, CompiledGlob> cache;
+    private final TinyLfuCache<String, Boolean> invalidGlobs;
+
+    public FastGlob() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public FastGlob(final int maximumSize) {
+        Validates.requirePositive(maximumSize, "maximumSize");
+
+        this.cache = new TinyLfuCache<>(maximumSize);
+        this.invalidGlobs = new TinyLfuCache<>(maximumSize);
+    }
+
+    @Nullable
+    private CompiledGlob compileGlob(final String glob) {
+        try {
+            return CompiledGlob.compile(glob);
+        } catch (Exception e) {
+            this.invalidGlobs.put(glob, Boolean.TRUE);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the cached compiled form of the glob, compiling it if needed.
+     *
+     * @param glob the glob
+     * @return the compiled glob, or {@code null} if the glob is malformed
+     */
+    public @Nullable CompiledGlob compile(@NotNull final String glob) {
+        Objects.requireNonNull(glob, "glob must not be null");
+
+        if (this.invalidGlobs.getIfPresent(glob) != null) {
+            return null;
+        }
+        return this.cache.get(glob, this::compileGlob);
+    }
+
+    /**
+     * Returns whether the whole path matches the glob.
+     *
+     * @param path the path, segments separated by {@code /}
+     * @param glob the glob
+     * @return whether the path matches, {@code false} if the glob is malformed
+     */
+    public boolean matches(@NotNull final CharSequence path, @NotNull final String glob) {
+        Objects.requireNonNull(path, "path must not be null");
+
+        val compiled = this.compile(glob);
+        return compiled != null && compiled.matches(path);
+    }
+
+    public void clear() {
+        this.cache.invalidateAll();
+        this.invalidGlobs.invalidateAll();
+    }
+
+}
@@ -21,48 +21,421 @@
 package net.clydo.clytil.cache;
 
 import lombok.val;
+import net.clydo.clytil.Validates;
+import net.clydo.clytil.str.Substring;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.*;
-import java.util.regex.Pattern;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * A thread-safe, bounded cache of compiled regular expressions.
+ * <p>
+ * Regexes are compiled into {@link CompiledRegex}, which answers simple shapes such as literals
+ * without the regex engine and reuses one {@link java.util.regex.Matcher} per thread otherwise.
+ * They are kept in a {@link TinyLfuCache}, so patterns that are matched often stay compiled
+ * while one-off patterns cannot flush them. Regexes that fail to compile are remembered in a
+ * separate bounded set and never compiled again.
+ * <p>
+ * Matches of untrusted regexes can be bounded with a {@link MatchBudget}. Regexes that keep
+ * exceeding their budget are quarantined into the invalid set and reported to the
+ * {@link BudgetListener}.
+ * <p>
+ * Statistics are only recorded when enabled at construction; see {@link #stats()}.
+ */
 public class FastRegex {
 
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
     //private static final Pattern NEVER_REGEX = Pattern.compile("$.");
 
-    private final Map<String, Pattern> cache;
-    private final Set<String> invalidRegexes;
+    private final TinyLfuCache<String, CompiledRegex> cache;
+    private final TinyLfuCache<String, Boolean> invalidRegexes;
+    private final TinyLfuCache<String, AtomicInteger> budgetViolations;
+    private final @Nullable RegexStatsCounter stats;
+    private volatile @Nullable BudgetListener budgetListener;
 
     public FastRegex() {
-        this.cache = new HashMap<>();
-        this.invalidRegexes = new HashSet<>();
+        this(DEFAULT_MAXIMUM_SIZE, false);
+    }
+
+    public FastRegex(final int maximumSize) {
+        this(maximumSize, false);
+    }
+
+    public FastRegex(final int maximumSize, final boolean recordStats) {
+        Validates.requirePositive(maximumSize, "maximumSize");
+
+        this.stats = recordStats ? new RegexStatsCounter() : null;
+        this.cache = new TinyLfuCache<>(
+                maximumSize,
+                this.stats != null ? (regex, compiled) -> this.stats.recordEviction() : null
+        );
+        this.invalidRegexes = new TinyLfuCache<>(maximumSize);
+        this.budgetViolations = new TinyLfuCache<>(maximumSize);
+    }
+
+    @Nullable
+    private CompiledRegex compileRegex(final String regex) {
+        val stats = this.stats;
+        if (stats == null) {
+            return this.compileRegex0(regex);
+        }
+
+        stats.recordMiss();
+        val start = System.nanoTime();
+        val compiled = this.compileRegex0(regex);
+        if (compiled != null) {
+            stats.recordCompile(regex, System.nanoTime() - start);
+        }
+        return compiled;
     }
 
     @Nullable
-    private Pattern compilePattern(final String regex) {
+    private CompiledRegex compileRegex0(final String regex) {
         try {
-            return Pattern.compile(regex);
+            return CompiledRegex.compile(regex);
         } catch (Exception e) {
-            this.invalidRegexes.add(regex);
+            this.invalidRegexes.put(regex, Boolean.TRUE);
+            if (this.stats != null) {
+                this.stats.recordInvalid();
+            }
             //return NEVER_REGEX;
             return null;
         }
     }
 
+    /**
+     * Returns the cached compiled form of the regex, compiling it if needed.
+     *
+     * @param regex the regex
+     * @return the compiled regex, or {@code null} if the regex is invalid
+     */
+    public @Nullable CompiledRegex compile(@NotNull final String regex) {
+        Objects.requireNonNull(regex, "regex must not be null");
+
+        val stats = this.stats;
+        if (this.invalidRegexes.getIfPresent(regex) != null) {
+            if (stats != null) {
+                stats.recordInvalid();
+            }
+            return null;
+        }
+
+        if (stats != null) {
+            stats.recordRequest();
+        }
+        return this.cache.get(regex, this::compileRegex);
+    }
+
     public boolean matches(CharSequence input, String regex) {
         Objects.requireNonNull(input, "input must not be null");
         Objects.requireNonNull(regex, "regex must not be null");
 
-        if (this.invalidRegexes.contains(regex)) {
+        val compiled = this.compile(regex);
+        if (compiled == null) {
+            return false;
+        }
+
+        val stats = this.stats;
+        if (stats == null) {
+            return compiled.matches(input);
+        }
+
+        val start = System.nanoTime();
+        val matches = compiled.matches(input);
+        stats.recordMatch(System.nanoTime() - start);
+        return matches;
+    }
+
+    /**
+     * Returns whether the whole input matches the regex, giving up once the budget is spent.
+     * <p>
+     * A match exceeding the budget counts as not matching and is reported to the
+     * {@link BudgetListener}; after {@link MatchBudget#withQuarantineAfter(int) quarantineAfter}
+     * such matches the regex is quarantined.
+     *
+     * @param input  the input
+     * @param regex  the regex
+     * @param budget the budget of the regex engine
+     * @return whether the whole input matches within the budget
+     */
+    public boolean matches(
+            @NotNull final CharSequence input,
+            @NotNull final String regex,
+            @NotNull final MatchBudget budget
+    ) {
+        Objects.requireNonNull(input, "input must not be null");
+        Objects.requireNonNull(budget, "budget must not be null");
+
+        val compiled = this.compile(regex);
+        if (compiled == null) {
             return false;
         }
 
-        val pattern = this.cache.computeIfAbsent(regex, this::compilePattern);
-        return pattern != null && pattern.matcher(input).matches();
+        val stats = this.stats;
+        val start = stats != null ? System.nanoTime() : 0L;
+        try {
+            return compiled.matches(input, budget);
+        } catch (RegexBudgetExceededException e) {
+            this.budgetExceeded(e, budget);
+            return false;
+        } finally {
+            if (stats != null) {
+                stats.recordMatch(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Returns the range of the first match of the regex in the input, giving up once the budget
+     * is spent. Exceeding the budget is handled like in {@link #matches(CharSequence, String, MatchBudget)}.
+     *
+     * @param input  the input
+     * @param regex  the regex
+     * @param budget the budget of the regex engine
+     * @return the range of the first match, or {@code null} if there is none within the budget
+     */
+    public @Nullable Substring find(
+            @NotNull final CharSequence input,
+            @NotNull final String regex,
+            @NotNull final MatchBudget budget
+    ) {
+        Objects.requireNonNull(input, "input must not be null");
+        Objects.requireNonNull(budget, "budget must not be null");
+
+        val compiled = this.compile(regex);
+        if (compiled == null) {
+            return null;
+        }
+
+        try {
+            return compiled.find(input, budget);
+        } catch (RegexBudgetExceededException e) {
+            this.budgetExceeded(e, budget);
+            return null;
+        }
+    }
+
+    /**
+     * Streams the matches of the regex in a memory-mapped UTF-8 file, see
+     * {@link MappedFileScanner#scan(CompiledRegex, MappedFileScanner.Mode, MappedFileScanner.MatchConsumer)}.
+     *
+     * @param file     the file
+     * @param regex    the regex
+     * @param mode     whether to match lines or the whole file
+     * @param consumer receives the matches as byte ranges in file order
+     * @return the number of matches passed to the consumer, {@code 0} if the regex is invalid
+     * @throws IOException if the file cannot be opened
+     */
+    public long scan(
+            @NotNull final Path file,
+            @NotNull final String regex,
+            @NotNull final MappedFileScanner.Mode mode,
+            @NotNull final MappedFileScanner.MatchConsumer consumer
+    ) throws IOException {
+        Objects.requireNonNull(file, "file must not be null");
+
+        val compiled = this.compile(regex);
+        if (compiled == null) {
+            return 0;
+        }
+
+        try (val scanner = MappedFileScanner.open(file)) {
+            return scanner.scan(compiled, mode, consumer);
+        }
+    }
+
+    /**
+     * Treats the regex as invalid from now on.
+     *
+     * @param regex the regex
+     */
+    public void quarantine(@NotNull final String regex) {
+        Objects.requireNonNull(regex, "regex must not be null");
+
+        this.invalidRegexes.put(regex, Boolean.TRUE);
+        this.cache.invalidate(regex);
+        this.budgetViolations.invalidate(regex);
+
+        if (this.stats != null) {
+            this.stats.recordQuarantine();
+        }
+    }
+
+    public void setBudgetListener(@Nullable final BudgetListener budgetListener) {
+        this.budgetListener = budgetListener;
+    }
+
+    private void budgetExceeded(
+            @NotNull final RegexBudgetExceededException exception,
+            @NotNull final MatchBudget budget
+    ) {
+        if (this.stats != null) {
+            this.stats.recordBudgetExceeded();
+        }
+
+        val regex = exception.regex();
+        var quarantined = false;
+        if (budget.quarantineAfter() > 0) {
+            val violations = this.budgetViolations.get(regex, key -> new AtomicInteger());
+            if (violations != null && violations.incrementAndGet() >= budget.quarantineAfter()) {
+                this.quarantine(regex);
+                quarantined = true;
+            }
+        }
+
+        val listener = this.budgetListener;
+        if (listener != null) {
+            listener.budgetExceeded(exception, quarantined);
+        }
+    }
+
+    /**
+     * Returns the range of the first match of the regex in the input.
+     *
+     * @param input the input
+     * @param regex the regex
+     * @return the range of the first match, or {@code null} if there is none or the regex is invalid
+     */
+    public @Nullable Substring find(
+            @NotNull final CharSequence input,
+            @NotNull final String regex
+    ) {
+        Objects.requireNonNull(input, "input must not be null");
+
+        val compiled = this.compile(regex);
+        return compiled != null ? compiled.find(input) : null;
+    }
+
+    /**
+     * Returns the ranges of all matches of the regex in the input.
+     *
+     * @param input the input
+     * @param regex the regex
+     * @return the ranges of all matches, empty if the regex is invalid
+     */
+    public @NotNull List<Substring> findAll(
+            @NotNull final CharSequence input,
+            @NotNull final String regex
+    ) {
+        Objects.requireNonNull(input, "input must not be null");
+
+        val compiled = this.compile(regex);
+        return compiled != null ? compiled.findAll(input) : List.of();
+    }
+
+    /**
+     * Replaces every match of the regex, see {@link java.util.regex.Matcher#replaceAll(String)}.
+     *
+     * @param input       the input
+     * @param regex       the regex
+     * @param replacement the replacement, may refer to groups
+     * @return the replaced input, or the input unchanged if the regex is invalid
+     */
+    public @NotNull String replaceAll(
+            @NotNull final CharSequence input,
+            @NotNull final String regex,
+            @NotNull final String replacement
+    ) {
+        Objects.requireNonNull(input, "input must not be null");
+        Objects.requireNonNull(replacement, "replacement must not be null");
+
+        val compiled = this.compile(regex);
+        return compiled != null ? compiled.replaceAll(input, replacement) : input.toString();
+    }
+
+    /**
+     * Splits the input around matches of the regex, see {@link java.util.regex.Pattern#split(CharSequence)}.
+     *
+     * @param input the input
+     * @param regex the regex
+     * @return the parts, or the whole input if the regex is invalid
+     */
+    public @NotNull String @NotNull [] split(
+            @NotNull final CharSequence input,
+            @NotNull final String regex
+    ) {
+        Objects.requireNonNull(input, "input must not be null");
+
+        val compiled = this.compile(regex);
+        return compiled != null ? compiled.split(input) : new String[]{input.toString()};
+    }
+
+    /**
+     * Returns a group of the first match of the regex in the input.
+     *
+     * @param input the input
+     * @param regex the regex
+     * @param group the group index, {@code 0} for the whole match
+     * @return the group, or {@code null} if there is no match, the group did not participate
+     * or the regex is invalid
+     */
+    public @Nullable String group(
+            @NotNull final CharSequence input,
+            @NotNull final String regex,
+            final int group
+    ) {
+        Objects.requireNonNull(input, "input must not be null");
+
+        val compiled = this.compile(regex);
+        return compiled != null ? compiled.group(input, group) : null;
+    }
+
+    /**
+     * Returns a named group of the first match of the regex in the input.
+     *
+     * @param input the input
+     * @param regex the regex
+     * @param group the group name
+     * @return the group, or {@code null} if there is no match, the group did not participate
+     * or the regex is invalid
+     */
+    public @Nullable String group(
+            @NotNull final CharSequence input,
+            @NotNull final String regex,
+            @NotNull final String group
+    ) {
+        Objects.requireNonNull(input, "input must not be null");
+        Objects.requireNonNull(group, "group must not be null");
+
+        val compiled = this.compile(regex);
+        return compiled != null ? compiled.group(input, group) : null;
+    }
+
+    /**
+     * Returns a snapshot of the recorded statistics, or {@link FastRegexStats#EMPTY} if this
+     * instance was created without stats.
+     *
+     * @return the statistics snapshot
+     */
+    public @NotNull FastRegexStats stats() {
+        return this.stats != null ? this.stats.snapshot() : FastRegexStats.EMPTY;
+    }
+
+    public boolean isRecordingStats() {
+        return this.stats != null;
     }
 
     public void clear() {
-        this.cache.clear();
+        this.cache.invalidateAll();
+    }
+
+    /**
+     * Notified whenever a budgeted match runs out of its {@link MatchBudget}.
+     */
+    @FunctionalInterface
+    public interface BudgetListener {
+
+        void budgetExceeded(
+                @NotNull final RegexBudgetExceededException exception,
+                final boolean quarantined
+        );
+
     }
 
 }
@@ -0,0 +1,119 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.cache;
+
+import lombok.Value;
+import lombok.experimental.Accessors;
+import lombok.val;
+import net.clydo.clytil.stats.NanosHistogram;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An immutable snapshot of the statistics recorded by a {@link FastRegex}.
+ * <p>
+ * Match times are bucketed by powers of two, see {@link NanosHistogram}.
+ */
+@Accessors(fluent = true)
+@Value
+public class FastRegexStats {
+
+    public static final int HISTOGRAM_BUCKETS = NanosHistogram.BUCKETS;
+
+    public static final FastRegexStats EMPTY = new FastRegexStats(
+            0L, 0L, 0L, 0L, 0L, null, 0L, 0L, 0L, 0L, new long[HISTOGRAM_BUCKETS]
+    );
+
+    long hitCount;
+    long missCount;
+    long compileCount;
+    long totalCompileNanos;
+    long maxCompileNanos;
+    @Nullable String slowestCompileRegex;
+    long invalidCount;
+    long evictionCount;
+    long budgetExceededCount;
+    long quarantineCount;
+    long[] matchNanosHistogram;
+
+    public FastRegexStats(
+            final long hitCount,
+            final long missCount,
+            final long compileCount,
+            final long totalCompileNanos,
+            final long maxCompileNanos,
+            @Nullable final String slowestCompileRegex,
+            final long invalidCount,
+            final long evictionCount,
+            final long budgetExceededCount,
+            final long quarantineCount,
+            final long @NotNull [] matchNanosHistogram
+    ) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.compileCount = compileCount;
+        this.totalCompileNanos = totalCompileNanos;
+        this.maxCompileNanos = maxCompileNanos;
+        this.slowestCompileRegex = slowestCompileRegex;
+        this.invalidCount = invalidCount;
+        this.evictionCount = evictionCount;
+        this.budgetExceededCount = budgetExceededCount;
+        this.quarantineCount = quarantineCount;
+        this.matchNanosHistogram = matchNanosHistogram.clone();
+    }
+
+    /**
+     * Returns the match time histogram; the returned array is a copy.
+     */
+    @Contract(pure = true)
+    public long @NotNull [] matchNanosHistogram() {
+        return this.matchNanosHistogram.clone();
+    }
+
+    public long requestCount() {
+        return this.hitCount + this.missCount;
+    }
+
+    public double hitRate() {
+        val requestCount = this.requestCount();
+        return requestCount == 0L ? 1.0d : (double) this.hitCount / requestCount;
+    }
+
+    public double averageCompileNanos() {
+        return this.compileCount == 0L ? 0.0d : (double) this.totalCompileNanos / this.compileCount;
+    }
+
+    public long matchCount() {
+        return NanosHistogram.count(this.matchNanosHistogram);
+    }
+
+    /**
+     * Returns the histogram bucket counting a match that took the given time.
+     *
+     * @param nanos the match time in nanoseconds
+     * @return the bucket index
+     */
+    public static int bucketOf(final long nanos) {
+        return NanosHistogram.bucketOf(nanos);
+    }
+
+}
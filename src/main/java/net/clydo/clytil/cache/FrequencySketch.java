@@ -0,0 +1,143 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.cache;
+
+import lombok.val;
+
+import java.util.Arrays;
+
+/**
+ * A 4-bit Count-Min sketch estimating how often a key was seen recently.
+ * <p>
+ * The counters are periodically halved so the estimate follows the recent popularity of a key
+ * rather than its all-time popularity. The sketch is not thread-safe; callers guard it with their
+ * own lock.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L,
+            0xb492b66fbe98f273L,
+            0x9ae16a3b2f90404fL,
+            0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    private static final int MAX_FREQUENCY = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    /**
+     * Creates a sketch sized for a cache holding up to {@code maximumSize} entries.
+     *
+     * @param maximumSize the maximum number of entries of the owning cache
+     */
+    FrequencySketch(final int maximumSize) {
+        val capacity = ceilingPowerOfTwo(Math.min(Math.max(maximumSize, 8), 1 << 30));
+        this.table = new long[capacity];
+        this.tableMask = capacity - 1;
+        this.sampleSize = (int) Math.min(10L * Math.max(maximumSize, 1), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the estimated number of recent occurrences of the key, at most {@code 15}.
+     *
+     * @param key the key
+     * @return the estimated frequency
+     */
+    int frequency(final Object key) {
+        val hash = spread(key.hashCode());
+        val start = (hash & 3) << 2;
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < 4; i++) {
+            val index = indexOf(hash, i);
+            val count = (int) ((this.table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments the popularity of the key, aging all counters once the sample size is reached.
+     *
+     * @param key the key
+     */
+    void increment(final Object key) {
+        val hash = spread(key.hashCode());
+        val start = (hash & 3) << 2;
+
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+
+        if (added && (++this.size == this.sampleSize)) {
+            reset();
+        }
+    }
+
+    /**
+     * Clears all counters.
+     */
+    void clear() {
+        Arrays.fill(this.table, 0L);
+        this.size = 0;
+    }
+
+    private boolean incrementAt(final int index, final int counter) {
+        val offset = counter << 2;
+        val mask = 0xfL << offset;
+        if ((this.table[index] & mask) != mask) {
+            this.table[index] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    private void reset() {
+        int odd = 0;
+        for (int i = 0; i < this.table.length; i++) {
+            odd += Long.bitCount(this.table[i] & ONE_MASK);
+            this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+        }
+        this.size = (this.size - (odd >>> 2)) >>> 1;
+    }
+
+    private int indexOf(final int item, final int i) {
+        long hash = (item + SEEDS[i]) * SEEDS[i];
+        hash += hash >>> 32;
+        return ((int) hash) & this.tableMask;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+
+    private static int ceilingPowerOfTwo(final int x) {
+        return 1 << -Integer.numberOfLeadingZeros(x - 1);
+    }
+
+}
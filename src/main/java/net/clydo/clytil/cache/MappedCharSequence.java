@@ -0,0 +1,272 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.cache;
+
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A {@link CharSequence} window over a byte range of a {@link MappedFileScanner}, decoded on
+ * access.
+ * <p>
+ * Single-byte charsets and pure ASCII UTF-8 ranges map each byte to one char directly. Other
+ * UTF-8 ranges are indexed once into blocks of {@value #BLOCK_SIZE} chars, of which only the
+ * block being read is kept decoded. The window is reset for every range and is not thread-safe.
+ */
+final class MappedCharSequence implements CharSequence {
+
+    private static final int BLOCK_BITS = 12;
+    private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+    private static final char REPLACEMENT = '\uFFFD';
+
+    private final MappedFileScanner file;
+    private final boolean utf8;
+    private final boolean ascii;
+
+    private long start;
+    private long end;
+    private int length;
+    private boolean direct;
+
+    /**
+     * Byte position and pending low surrogate at the start of each block.
+     */
+    private long[] checkpoints = new long[16];
+    private boolean[] pendingLows = new boolean[16];
+
+    private final char[] block = new char[BLOCK_SIZE];
+    private final int[] blockOffsets = new int[BLOCK_SIZE];
+    private int decodedBlock = -1;
+
+    private long decodeNext;
+    private boolean decodePendingLow;
+
+    MappedCharSequence(
+            @NotNull final MappedFileScanner file,
+            final boolean utf8,
+            final boolean ascii
+    ) {
+        this.file = file;
+        this.utf8 = utf8;
+        this.ascii = ascii;
+    }
+
+    /**
+     * Moves the window to the bytes {@code [start, end)}.
+     *
+     * @throws IllegalArgumentException if the range decodes to more than {@link Integer#MAX_VALUE} chars
+     */
+    void reset(final long start, final long end) {
+        this.start = start;
+        this.end = end;
+        this.decodedBlock = -1;
+        this.direct = !this.utf8 || this.isAscii(start, end);
+
+        if (this.direct) {
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(String.format("Range of %d bytes is too large for a window!", end - start));
+            }
+            this.length = (int) (end - start);
+            return;
+        }
+
+        // Count the chars and remember where each block starts.
+        var length = 0L;
+        var position = start;
+        var pendingLow = false;
+        var blockIndex = 0;
+        while (position < end || pendingLow) {
+            if (blockIndex == this.checkpoints.length) {
+                this.checkpoints = Arrays.copyOf(this.checkpoints, blockIndex * 2);
+                this.pendingLows = Arrays.copyOf(this.pendingLows, blockIndex * 2);
+            }
+            this.checkpoints[blockIndex] = position;
+            this.pendingLows[blockIndex] = pendingLow;
+
+            length += this.decode(position, pendingLow);
+            this.decodedBlock = blockIndex++;
+            position = this.decodeNext;
+            pendingLow = this.decodePendingLow;
+
+            if (length > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(String.format("Range of %d bytes is too large for a window!", end - start));
+            }
+        }
+        this.length = (int) length;
+    }
+
+    /**
+     * Returns the file position of the char at the index, or the end of the window for
+     * {@code index == length()}.
+     */
+    long position(final int index) {
+        if (this.direct) {
+            return this.start + index;
+        }
+        if (index == this.length) {
+            return this.end;
+        }
+
+        val blockIndex = this.ensureBlock(index);
+        return this.checkpoints[blockIndex] + this.blockOffsets[index & BLOCK_MASK];
+    }
+
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        Objects.checkIndex(index, this.length);
+
+        if (this.direct) {
+            val b = this.file.byteAt(this.start + index);
+            return b < 0 && this.ascii ? REPLACEMENT : (char) (b & 0xFF);
+        }
+
+        this.ensureBlock(index);
+        return this.block[index & BLOCK_MASK];
+    }
+
+    @Override
+    public @NotNull CharSequence subSequence(final int start, final int end) {
+        Objects.checkFromToIndex(start, end, this.length);
+
+        val builder = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            builder.append(this.charAt(i));
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return this.subSequence(0, this.length).toString();
+    }
+
+    private boolean isAscii(final long start, final long end) {
+        for (long position = start; position < end; position++) {
+            if (this.file.byteAt(position) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int ensureBlock(final int index) {
+        val blockIndex = index >>> BLOCK_BITS;
+        if (blockIndex != this.decodedBlock) {
+            this.decode(this.checkpoints[blockIndex], this.pendingLows[blockIndex]);
+            this.decodedBlock = blockIndex;
+        }
+        return blockIndex;
+    }
+
+    /**
+     * Decodes up to one block of UTF-8 starting at the position into {@link #block}. Malformed
+     * sequences decode to U+FFFD. A supplementary char split by the block end is finished by
+     * the next block, which starts with {@code pendingLow} set.
+     *
+     * @return the number of decoded chars
+     */
+    private int decode(final long position, final boolean pendingLow) {
+        val file = this.file;
+        val end = this.end;
+        var p = position;
+        var count = 0;
+        var skipHigh = pendingLow;
+
+        while (p < end && count < BLOCK_SIZE) {
+            val b0 = file.byteAt(p) & 0xFF;
+            int codePoint = REPLACEMENT;
+            var size = 1;
+
+            if (b0 < 0x80) {
+                codePoint = (char) b0;
+            } else if (b0 >= 0xC2 && b0 <= 0xF4) {
+                final int expected;
+                final int lower;
+                final int upper;
+                if (b0 < 0xE0) {
+                    expected = 1;
+                    lower = 0x80;
+                    upper = 0xBF;
+                } else if (b0 < 0xF0) {
+                    expected = 2;
+                    lower = b0 == 0xE0 ? 0xA0 : 0x80;
+                    upper = b0 == 0xED ? 0x9F : 0xBF;
+                } else {
+                    expected = 3;
+                    lower = b0 == 0xF0 ? 0x90 : 0x80;
+                    upper = b0 == 0xF4 ? 0x8F : 0xBF;
+                }
+
+                var value = b0 & (0x3F >> expected);
+                var valid = 0;
+                while (valid < expected && p + 1 + valid < end) {
+                    val b = file.byteAt(p + 1 + valid) & 0xFF;
+                    if (b < (valid == 0 ? lower : 0x80) || b > (valid == 0 ? upper : 0xBF)) {
+                        break;
+                    }
+                    value = value << 6 | b & 0x3F;
+                    valid++;
+                }
+
+                if (valid == expected) {
+                    size = expected + 1;
+                    codePoint = value;
+                } else {
+                    size = 1 + valid;
+                }
+            }
+
+            if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                val offset = (int) (p - position);
+                if (!skipHigh) {
+                    this.block[count] = Character.highSurrogate(codePoint);
+                    this.blockOffsets[count++] = offset;
+                    if (count == BLOCK_SIZE) {
+                        this.decodeNext = p;
+                        this.decodePendingLow = true;
+                        return count;
+                    }
+                }
+                this.block[count] = Character.lowSurrogate(codePoint);
+                this.blockOffsets[count++] = offset;
+            } else {
+                this.block[count] = (char) codePoint;
+                this.blockOffsets[count++] = (int) (p - position);
+            }
+            skipHigh = false;
+            p += size;
+        }
+
+        this.decodeNext = p;
+        this.decodePendingLow = false;
+        return count;
+    }
+
+}
@@ -0,0 +1,272 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.cache;
+
+import lombok.val;
+import net.clydo.clytil.Validates;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+
+/**
+ * Runs compiled regexes over a memory-mapped file without reading it into Strings.
+ * <p>
+ * The file is mapped lazily in chunks of up to 1 GiB and exposed to the regex engine as a
+ * {@link CharSequence} window that decodes bytes on access. UTF-8, ISO-8859-1 and US-ASCII are
+ * supported; ASCII content is read without decoding at all. Matches are streamed to a
+ * {@link MatchConsumer} as byte offset and byte length in the file, either per line or over the
+ * whole file.
+ * <p>
+ * A scanner is not thread-safe. Closing it closes the channel; mapped chunks are released once
+ * they become unreachable.
+ */
+public final class MappedFileScanner implements Closeable {
+
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+    private final FileChannel channel;
+    private final long size;
+    private final MappedByteBuffer[] chunks;
+    private final MappedCharSequence window;
+
+    private MappedFileScanner(
+            @NotNull final FileChannel channel,
+            @NotNull final Charset charset
+    ) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.chunks = new MappedByteBuffer[(int) ((this.size + CHUNK_MASK) >>> CHUNK_BITS)];
+        this.window = new MappedCharSequence(
+                this,
+                charset.equals(StandardCharsets.UTF_8),
+                charset.equals(StandardCharsets.US_ASCII)
+        );
+    }
+
+    /**
+     * Opens a UTF-8 file.
+     *
+     * @param file the file
+     * @return the scanner
+     * @throws IOException if the file cannot be opened
+     */
+    @Contract("_ -> new")
+    public static @NotNull MappedFileScanner open(
+            @NotNull final Path file
+    ) throws IOException {
+        return open(file, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Opens a file.
+     *
+     * @param file    the file
+     * @param charset the charset, one of UTF-8, ISO-8859-1 and US-ASCII
+     * @return the scanner
+     * @throws IOException if the file cannot be opened
+     */
+    @Contract("_, _ -> new")
+    public static @NotNull MappedFileScanner open(
+            @NotNull final Path file,
+            @NotNull final Charset charset
+    ) throws IOException {
+        Validates.require(file, "file");
+        Validates.require(charset, "charset");
+        if (!charset.equals(StandardCharsets.UTF_8)
+                && !charset.equals(StandardCharsets.ISO_8859_1)
+                && !charset.equals(StandardCharsets.US_ASCII)) {
+            throw new IllegalArgumentException(String.format("Unsupported charset %s!", charset));
+        }
+
+        val channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new MappedFileScanner(channel, charset);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Streams the matches of the regex to the consumer.
+     * <p>
+     * In {@link Mode#LINES} the regex is matched against each line separately, without its
+     * {@code \n} or {@code \r\n} terminator, so {@code ^} and {@code $} anchor to lines. In
+     * {@link Mode#WHOLE_FILE} it is matched against the whole file, which must decode to at most
+     * {@link Integer#MAX_VALUE} chars.
+     *
+     * @param regex    the regex
+     * @param mode     whether to match lines or the whole file
+     * @param consumer receives the matches in file order
+     * @return the number of matches passed to the consumer
+     * @throws UncheckedIOException if the file cannot be mapped
+     */
+    public long scan(
+            @NotNull final CompiledRegex regex,
+            @NotNull final Mode mode,
+            @NotNull final MatchConsumer consumer
+    ) {
+        Validates.require(regex, "regex");
+        Validates.require(mode, "mode");
+        Validates.require(consumer, "consumer");
+
+        val matcher = regex.pattern().matcher("");
+        val window = this.window;
+        val counter = new long[1];
+
+        if (mode == Mode.WHOLE_FILE) {
+            window.reset(0, this.size);
+            this.scan(regex, matcher, counter, consumer);
+            return counter[0];
+        }
+
+        var lineStart = 0L;
+        while (lineStart < this.size) {
+            var lineEnd = this.indexOfNewline(lineStart);
+            val next = lineEnd + 1;
+            if (lineEnd > lineStart && this.byteAt(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+
+            window.reset(lineStart, lineEnd);
+            if (!this.scan(regex, matcher, counter, consumer)) {
+                break;
+            }
+            lineStart = next;
+        }
+        return counter[0];
+    }
+
+    private boolean scan(
+            @NotNull final CompiledRegex regex,
+            @NotNull final Matcher matcher,
+            final long @NotNull [] counter,
+            @NotNull final MatchConsumer consumer
+    ) {
+        val window = this.window;
+        if (!regex.mayMatch(window)) {
+            return true;
+        }
+
+        matcher.reset(window);
+        try {
+            while (matcher.find()) {
+                val start = window.position(matcher.start());
+                val end = window.position(matcher.end());
+                counter[0]++;
+                if (!consumer.accept(start, end - start)) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            matcher.reset("");
+        }
+    }
+
+    /**
+     * Returns the position of the next {@code \n} at or after the position, or the file size.
+     */
+    private long indexOfNewline(final long from) {
+        var position = from;
+        while (position < this.size) {
+            val chunk = this.chunk(position);
+            val limit = chunk.limit();
+            for (int i = (int) (position & CHUNK_MASK); i < limit; i++) {
+                if (chunk.get(i) == '\n') {
+                    return (position & ~CHUNK_MASK) + i;
+                }
+            }
+            position = (position & ~CHUNK_MASK) + limit;
+        }
+        return this.size;
+    }
+
+    byte byteAt(final long position) {
+        return this.chunk(position).get((int) (position & CHUNK_MASK));
+    }
+
+    private @NotNull MappedByteBuffer chunk(final long position) {
+        val index = (int) (position >>> CHUNK_BITS);
+        var chunk = this.chunks[index];
+        if (chunk == null) {
+            val chunkStart = (long) index << CHUNK_BITS;
+            try {
+                chunk = this.channel.map(
+                        FileChannel.MapMode.READ_ONLY,
+                        chunkStart,
+                        Math.min(CHUNK_MASK + 1, this.size - chunkStart)
+                );
+            } catch (IOException e) {
+                throw new UncheckedIOException(String.format("Could not map chunk %d!", index), e);
+            }
+            this.chunks[index] = chunk;
+        }
+        return chunk;
+    }
+
+    public long size() {
+        return this.size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    public enum Mode {
+        /**
+         * Matches every line on its own.
+         */
+        LINES,
+        /**
+         * Matches the whole file at once.
+         */
+        WHOLE_FILE
+    }
+
+    /**
+     * Receives matches as byte ranges of the file.
+     */
+    @FunctionalInterface
+    public interface MatchConsumer {
+
+        /**
+         * @param offset the byte offset of the match in the file
+         * @param length the byte length of the match
+         * @return whether to continue scanning
+         */
+        boolean accept(final long offset, final long length);
+
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.cache;
+
+import lombok.Value;
+import lombok.experimental.Accessors;
+import lombok.val;
+import net.clydo.clytil.Validates;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Limits how much work a single regex match may do before it is aborted.
+ * <p>
+ * The budget counts character reads of the regex engine, which grow with the amount of
+ * backtracking, and optionally the elapsed time. A regex exceeding the budget
+ * {@link #withQuarantineAfter(int) quarantineAfter} times is treated as invalid by the
+ * {@link FastRegex} that ran it; {@code 0} disables quarantining.
+ */
+@Accessors(fluent = true)
+@Value
+public class MatchBudget {
+
+    public static final long UNLIMITED = Long.MAX_VALUE;
+    public static final int DEFAULT_QUARANTINE_AFTER = 3;
+
+    long maxCharAccesses;
+    long maxNanos;
+    int quarantineAfter;
+
+    private MatchBudget(
+            final long maxCharAccesses,
+            final long maxNanos,
+            final int quarantineAfter
+    ) {
+        this.maxCharAccesses = Validates.requirePositive(maxCharAccesses, "maxCharAccesses");
+        this.maxNanos = Validates.requirePositive(maxNanos, "maxNanos");
+        this.quarantineAfter = Validates.requireNonNegative(quarantineAfter, "quarantineAfter");
+    }
+
+    @Contract("_ -> new")
+    public static @NotNull MatchBudget ofCharAccesses(final long maxCharAccesses) {
+        return new MatchBudget(maxCharAccesses, UNLIMITED, DEFAULT_QUARANTINE_AFTER);
+    }
+
+    @Contract("_ -> new")
+    public static @NotNull MatchBudget ofNanos(final long maxNanos) {
+        return new MatchBudget(UNLIMITED, maxNanos, DEFAULT_QUARANTINE_AFTER);
+    }
+
+    @Contract("_, _ -> new")
+    public static @NotNull MatchBudget of(
+            final long maxCharAccesses,
+            final long maxNanos
+    ) {
+        return new MatchBudget(maxCharAccesses, maxNanos, DEFAULT_QUARANTINE_AFTER);
+    }
+
+    @Contract("_ -> new")
+    public @NotNull MatchBudget withQuarantineAfter(final int quarantineAfter) {
+        return new MatchBudget(this.maxCharAccesses, this.maxNanos, quarantineAfter);
+    }
+
+    @NotNull CharSequence wrap(
+            @NotNull final CharSequence input,
+            @NotNull final String regex
+    ) {
+        return new BudgetedCharSequence(input, regex, this);
+    }
+
+    /**
+     * Reads through to the input and aborts the match once the budget is spent.
+     */
+    private static final class BudgetedCharSequence implements CharSequence {
+
+        /**
+         * Reads between two clock checks, {@link System#nanoTime()} is too slow for every read.
+         */
+        private static final int CLOCK_CHECK_INTERVAL = 1024;
+
+        private final CharSequence input;
+        private final String regex;
+        private final long maxCharAccesses;
+        private final long deadline;
+        private final boolean timed;
+        private long charAccesses;
+
+        BudgetedCharSequence(
+                @NotNull final CharSequence input,
+                @NotNull final String regex,
+                @NotNull final MatchBudget budget
+        ) {
+            this.input = input;
+            this.regex = regex;
+            this.maxCharAccesses = budget.maxCharAccesses;
+            this.timed = budget.maxNanos != UNLIMITED;
+            this.deadline = this.timed ? System.nanoTime() + budget.maxNanos : 0L;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            val charAccesses = ++this.charAccesses;
+            if (charAccesses > this.maxCharAccesses) {
+                throw new RegexBudgetExceededException(this.regex, charAccesses);
+            }
+            if (this.timed && charAccesses % CLOCK_CHECK_INTERVAL == 0 && System.nanoTime() - this.deadline > 0) {
+                throw new RegexBudgetExceededException(this.regex, charAccesses);
+            }
+            return this.input.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return this.input.length();
+        }
+
+        @Override
+        public @NotNull CharSequence subSequence(final int start, final int end) {
+            return this.input.subSequence(start, end);
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return this.input.toString();
+        }
+
+    }
+
+}
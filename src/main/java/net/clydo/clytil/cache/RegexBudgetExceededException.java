@@ -0,0 +1,57 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.cache;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Serial;
+
+/**
+ * Thrown when a regex match runs out of its {@link MatchBudget}.
+ * <p>
+ * The exception is used for control flow and carries no stack trace.
+ */
+public class RegexBudgetExceededException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String regex;
+    private final long charAccesses;
+
+    public RegexBudgetExceededException(
+            @NotNull final String regex,
+            final long charAccesses
+    ) {
+        super(String.format("Regex %s exceeded its match budget after %d char accesses!", regex, charAccesses), null, false, false);
+        this.regex = regex;
+        this.charAccesses = charAccesses;
+    }
+
+    public @NotNull String regex() {
+        return this.regex;
+    }
+
+    public long charAccesses() {
+        return this.charAccesses;
+    }
+
+}
@@ -0,0 +1,870 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.cache;
+
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serial;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A Thompson NFA built from a subset of the {@link java.util.regex.Pattern} syntax, used by
+ * {@link RegexSet} to match many regexes in a single pass.
+ * <p>
+ * Supported are literals, escapes, {@code .}, character classes without unions or intersections,
+ * the {@code \d \w \s} shorthands and their negations, groups (capturing, non-capturing and named),
+ * alternation and greedy or lazy quantifiers, plus a leading {@code ^} and a trailing {@code $}.
+ * Anything else, e.g. flags, back references, lookaround, boundaries or possessive quantifiers,
+ * makes {@link #parse(String)} return {@code null}. Since a match is only accepted when the whole
+ * input is consumed, greedy and lazy quantifiers are equivalent here.
+ * <p>
+ * The syntax tree is also used by {@link CompiledRegex} to find literals every match must contain.
+ */
+final class RegexNfa {
+
+    static final byte CHAR = 0;
+    static final byte SPLIT = 1;
+    static final byte MATCH = 2;
+
+    private static final int MAX_STATES_PER_REGEX = 10_000;
+    private static final int MAX_REQUIRED_LITERALS = 3;
+
+    private static final CharSet DOT = CharSet.of('\n', '\r', '\u0085', '\u2028', '\u2029').complement();
+    private static final CharSet DIGIT = CharSet.range('0', '9');
+    private static final CharSet WORD = CharSet.range('a', 'z')
+            .union(CharSet.range('A', 'Z'))
+            .union(DIGIT)
+            .union(CharSet.of('_'));
+    private static final CharSet SPACE = CharSet.range('\t', '\r').union(CharSet.of(' '));
+
+    private byte[] types = new byte[64];
+    private CharSet[] sets = new CharSet[64];
+    private int[] outs = new int[64];
+    private int[][] splits = new int[64][];
+    private int[] matchIndices = new int[64];
+    private int size;
+
+    private final List<Integer> starts = new ArrayList<>();
+
+    /**
+     * Parses a regex into a syntax tree, or returns {@code null} if it uses unsupported syntax.
+     *
+     * @param regex a regex accepted by {@link java.util.regex.Pattern#compile(String)}
+     * @return the syntax tree, or {@code null}
+     */
+    static @Nullable Node parse(@NotNull final String regex) {
+        var start = 0;
+        var end = regex.length();
+        if (start < end && regex.charAt(start) == '^') {
+            start++;
+        }
+        if (end > start && regex.charAt(end - 1) == '$' && !SimpleRegex.isEscaped(regex, end - 1)) {
+            end--;
+        }
+
+        val parser = new Parser(regex, start, end);
+        try {
+            val node = parser.parseAlternation();
+            if (parser.pos != end) {
+                return null;
+            }
+            return node.weight() <= MAX_STATES_PER_REGEX ? node : null;
+        } catch (Unsupported e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the longest literals that every match of the regex contains, longest first.
+     * <p>
+     * Only literals of at least two chars are reported, and none at all if the regex uses syntax
+     * the parser does not support.
+     *
+     * @param regex a regex accepted by {@link java.util.regex.Pattern#compile(String)}
+     * @return the required literals, possibly empty
+     */
+    static @NotNull String @NotNull [] requiredLiterals(@NotNull final String regex) {
+        val node = parse(regex);
+        if (node == null) {
+            return new String[0];
+        }
+
+        val literals = new ArrayList<String>();
+        node.collectLiterals(literals);
+        return literals.stream()
+                .filter(literal -> literal.length() >= 2)
+                .distinct()
+                .sorted((a, b) -> Integer.compare(b.length(), a.length()))
+                .limit(MAX_REQUIRED_LITERALS)
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Adds a parsed regex whose acceptance is reported as {@code matchIndex}.
+     *
+     * @param node       the syntax tree
+     * @param matchIndex the index reported on a match
+     */
+    void add(
+            @NotNull final Node node,
+            final int matchIndex
+    ) {
+        val match = this.newState(MATCH);
+        this.matchIndices[match] = matchIndex;
+        this.starts.add(node.compile(this, match));
+    }
+
+    /**
+     * Returns the start state, a split into every added regex.
+     */
+    int start() {
+        val start = this.newState(SPLIT);
+        this.splits[start] = this.starts.stream().mapToInt(Integer::intValue).toArray();
+        return start;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    byte type(final int state) {
+        return this.types[state];
+    }
+
+    CharSet set(final int state) {
+        return this.sets[state];
+    }
+
+    int out(final int state) {
+        return this.outs[state];
+    }
+
+    int matchIndex(final int state) {
+        return this.matchIndices[state];
+    }
+
+    /**
+     * Returns the sorted character and match states reachable from the given states through splits.
+     *
+     * @param states the states
+     * @param count  the number of states to use
+     * @return the closure
+     */
+    int @NotNull [] closure(
+            final int @NotNull [] states,
+            final int count
+    ) {
+        val visited = new boolean[this.size];
+        val stack = new int[this.size];
+        var top = 0;
+        val result = new int[this.size];
+        var resultSize = 0;
+
+        for (int i = 0; i < count; i++) {
+            stack[top++] = states[i];
+        }
+
+        while (top > 0) {
+            val state = stack[--top];
+            if (visited[state]) {
+                continue;
+            }
+            visited[state] = true;
+
+            if (this.types[state] == SPLIT) {
+                val targets = this.splits[state];
+                for (int i = targets.length - 1; i >= 0; i--) {
+                    if (!visited[targets[i]]) {
+                        stack[top++] = targets[i];
+                    }
+                }
+            } else {
+                result[resultSize++] = state;
+            }
+        }
+
+        val closure = Arrays.copyOf(result, resultSize);
+        Arrays.sort(closure);
+        return closure;
+    }
+
+    /**
+     * Returns all ranges used by character states, so the alphabet can be split into classes
+     * of characters that behave identically.
+     */
+    @NotNull List<CharSet> charSets() {
+        val charSets = new ArrayList<CharSet>();
+        for (int i = 0; i < this.size; i++) {
+            if (this.types[i] == CHAR) {
+                charSets.add(this.sets[i]);
+            }
+        }
+        return charSets;
+    }
+
+    private int newState(final byte type) {
+        if (this.size == this.types.length) {
+            val capacity = this.size * 2;
+            this.types = Arrays.copyOf(this.types, capacity);
+            this.sets = Arrays.copyOf(this.sets, capacity);
+            this.outs = Arrays.copyOf(this.outs, capacity);
+            this.splits = Arrays.copyOf(this.splits, capacity);
+            this.matchIndices = Arrays.copyOf(this.matchIndices, capacity);
+        }
+
+        this.types[this.size] = type;
+        return this.size++;
+    }
+
+    private int charState(
+            @NotNull final CharSet set,
+            final int next
+    ) {
+        val state = this.newState(CHAR);
+        this.sets[state] = set;
+        this.outs[state] = next;
+        return state;
+    }
+
+    private int splitState(final int @NotNull ... targets) {
+        val state = this.newState(SPLIT);
+        this.splits[state] = targets;
+        return state;
+    }
+
+    /**
+     * A regex syntax tree node, compiled back to front so every node knows its continuation.
+     */
+    abstract static class Node {
+
+        abstract int compile(@NotNull final RegexNfa nfa, final int next);
+
+        /**
+         * Returns an upper bound of the number of states this node compiles into.
+         */
+        abstract long weight();
+
+        /**
+         * Adds the literals every match of this node contains.
+         */
+        void collectLiterals(@NotNull final List<String> literals) {
+        }
+
+    }
+
+    private static final class CharNode extends Node {
+
+        private final CharSet set;
+
+        CharNode(@NotNull final CharSet set) {
+            this.set = set;
+        }
+
+        @Override
+        int compile(@NotNull final RegexNfa nfa, final int next) {
+            return nfa.charState(this.set, next);
+        }
+
+        @Override
+        long weight() {
+            return 1;
+        }
+
+        @Override
+        void collectLiterals(@NotNull final List<String> literals) {
+            val single = this.set.single();
+            if (single >= 0) {
+                literals.add(String.valueOf((char) single));
+            }
+        }
+
+    }
+
+    private static final class ConcatNode extends Node {
+
+        private final List<Node> children;
+
+        ConcatNode(@NotNull final List<Node> children) {
+            this.children = children;
+        }
+
+        @Override
+        int compile(@NotNull final RegexNfa nfa, final int next) {
+            var state = next;
+            for (int i = this.children.size() - 1; i >= 0; i--) {
+                state = this.children.get(i).compile(nfa, state);
+            }
+            return state;
+        }
+
+        @Override
+        long weight() {
+            var weight = 0L;
+            for (val child : this.children) {
+                weight += child.weight();
+            }
+            return weight;
+        }
+
+        @Override
+        void collectLiterals(@NotNull final List<String> literals) {
+            val run = new StringBuilder();
+            for (val child : this.children) {
+                val single = child instanceof CharNode charNode ? charNode.set.single() : -1;
+                if (single >= 0) {
+                    run.append((char) single);
+                    continue;
+                }
+
+                if (run.length() > 0) {
+                    literals.add(run.toString());
+                    run.setLength(0);
+                }
+                child.collectLiterals(literals);
+            }
+            if (run.length() > 0) {
+                literals.add(run.toString());
+            }
+        }
+
+    }
+
+    private static final class AlternationNode extends Node {
+
+        private final List<Node> branches;
+
+        AlternationNode(@NotNull final List<Node> branches) {
+            this.branches = branches;
+        }
+
+        @Override
+        int compile(@NotNull final RegexNfa nfa, final int next) {
+            val targets = new int[this.branches.size()];
+            for (int i = 0; i < targets.length; i++) {
+                targets[i] = this.branches.get(i).compile(nfa, next);
+            }
+            return nfa.splitState(targets);
+        }
+
+        @Override
+        long weight() {
+            var weight = 1L;
+            for (val branch : this.branches) {
+                weight += branch.weight();
+            }
+            return weight;
+        }
+
+    }
+
+    private static final class RepeatNode extends Node {
+
+        private final Node node;
+        private final int min;
+        private final int max;
+
+        RepeatNode(@NotNull final Node node, final int min, final int max) {
+            this.node = node;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        int compile(@NotNull final RegexNfa nfa, final int next) {
+            var state = next;
+            if (this.max == Integer.MAX_VALUE) {
+                val loop = nfa.splitState();
+                val body = this.node.compile(nfa, loop);
+                nfa.splits[loop] = new int[]{body, next};
+                state = loop;
+            } else {
+                for (int i = this.min; i < this.max; i++) {
+                    state = nfa.splitState(this.node.compile(nfa, state), next);
+                }
+            }
+
+            for (int i = 0; i < this.min; i++) {
+                state = this.node.compile(nfa, state);
+            }
+            return state;
+        }
+
+        @Override
+        void collectLiterals(@NotNull final List<String> literals) {
+            if (this.min > 0) {
+                this.node.collectLiterals(literals);
+            }
+        }
+
+        @Override
+        long weight() {
+            val copies = this.max == Integer.MAX_VALUE ? this.min + 1L : (long) this.max;
+            return Math.max(copies, 1L) * (this.node.weight() + 1L);
+        }
+
+    }
+
+    private static final class EmptyNode extends Node {
+
+        static final EmptyNode INSTANCE = new EmptyNode();
+
+        @Override
+        int compile(@NotNull final RegexNfa nfa, final int next) {
+            return next;
+        }
+
+        @Override
+        long weight() {
+            return 0;
+        }
+
+    }
+
+    private static final class Unsupported extends RuntimeException {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        static final Unsupported INSTANCE = new Unsupported();
+
+        private Unsupported() {
+            super(null, null, false, false);
+        }
+
+    }
+
+    private static final class Parser {
+
+        private final String regex;
+        private final int end;
+        private int pos;
+
+        Parser(@NotNull final String regex, final int start, final int end) {
+            this.regex = regex;
+            this.pos = start;
+            this.end = end;
+        }
+
+        Node parseAlternation() {
+            val branches = new ArrayList<Node>();
+            branches.add(this.parseConcatenation());
+            while (this.pos < this.end && this.regex.charAt(this.pos) == '|') {
+                this.pos++;
+                branches.add(this.parseConcatenation());
+            }
+            return branches.size() == 1 ? branches.get(0) : new AlternationNode(branches);
+        }
+
+        private Node parseConcatenation() {
+            val items = new ArrayList<Node>();
+            while (this.pos < this.end) {
+                val ch = this.regex.charAt(this.pos);
+                if (ch == '|' || ch == ')') {
+                    break;
+                }
+                items.add(this.parseRepetition());
+            }
+
+            if (items.isEmpty()) {
+                return EmptyNode.INSTANCE;
+            }
+            return items.size() == 1 ? items.get(0) : new ConcatNode(items);
+        }
+
+        private Node parseRepetition() {
+            var node = this.parseAtom();
+            while (this.pos < this.end) {
+                val ch = this.regex.charAt(this.pos);
+                int min;
+                int max;
+                if (ch == '*') {
+                    min = 0;
+                    max = Integer.MAX_VALUE;
+                    this.pos++;
+                } else if (ch == '+') {
+                    min = 1;
+                    max = Integer.MAX_VALUE;
+                    this.pos++;
+                } else if (ch == '?') {
+                    min = 0;
+                    max = 1;
+                    this.pos++;
+                } else if (ch == '{') {
+                    val close = this.regex.indexOf('}', this.pos);
+                    if (close < 0 || close >= this.end) {
+                        throw Unsupported.INSTANCE;
+                    }
+                    val bounds = this.regex.substring(this.pos + 1, close);
+                    val comma = bounds.indexOf(',');
+                    try {
+                        if (comma < 0) {
+                            min = max = Integer.parseInt(bounds.trim());
+                        } else {
+                            min = Integer.parseInt(bounds.substring(0, comma).trim());
+                            val upper = bounds.substring(comma + 1).trim();
+                            max = upper.isEmpty() ? Integer.MAX_VALUE : Integer.parseInt(upper);
+                        }
+                    } catch (NumberFormatException e) {
+                        throw Unsupported.INSTANCE;
+                    }
+                    if (min < 0 || max < min) {
+                        throw Unsupported.INSTANCE;
+                    }
+                    this.pos = close + 1;
+                } else {
+                    break;
+                }
+
+                if (this.pos < this.end) {
+                    val mode = this.regex.charAt(this.pos);
+                    if (mode == '?') {
+                        this.pos++;
+                    } else if (mode == '+') {
+                        // Possessive quantifiers can reject inputs a backtracking search would accept.
+                        throw Unsupported.INSTANCE;
+                    }
+                }
+                node = new RepeatNode(node, min, max);
+
+                if (this.pos < this.end && "*+?{".indexOf(this.regex.charAt(this.pos)) >= 0) {
+                    // Stacked quantifiers do not nest in java.util.regex.
+                    throw Unsupported.INSTANCE;
+                }
+            }
+            return node;
+        }
+
+        private Node parseAtom() {
+            val ch = this.regex.charAt(this.pos++);
+            switch (ch) {
+                case '(' -> {
+                    if (this.pos < this.end && this.regex.charAt(this.pos) == '?') {
+                        this.parseGroupPrefix();
+                    }
+                    val node = this.parseAlternation();
+                    if (this.pos >= this.end || this.regex.charAt(this.pos) != ')') {
+                        throw Unsupported.INSTANCE;
+                    }
+                    this.pos++;
+                    return node;
+                }
+                case '[' -> {
+                    return new CharNode(this.parseClass());
+                }
+                case '.' -> {
+                    return new CharNode(DOT);
+                }
+                case '\\' -> {
+                    return this.parseEscape();
+                }
+                case '^', '$', '*', '+', '?', '{', '|', ')' -> throw Unsupported.INSTANCE;
+                default -> {
+                    return new CharNode(CharSet.of(literal(ch)));
+                }
+            }
+        }
+
+        private void parseGroupPrefix() {
+            this.pos++;
+            if (this.pos >= this.end) {
+                throw Unsupported.INSTANCE;
+            }
+
+            val kind = this.regex.charAt(this.pos);
+            if (kind == ':') {
+                this.pos++;
+                return;
+            }
+            if (kind == '<' && this.pos + 1 < this.end && Character.isLetter(this.regex.charAt(this.pos + 1))) {
+                val close = this.regex.indexOf('>', this.pos);
+                if (close < 0 || close >= this.end) {
+                    throw Unsupported.INSTANCE;
+                }
+                this.pos = close + 1;
+                return;
+            }
+            // Lookaround, atomic groups and inline flags.
+            throw Unsupported.INSTANCE;
+        }
+
+        private Node parseEscape() {
+            if (this.pos >= this.end) {
+                throw Unsupported.INSTANCE;
+            }
+
+            val shorthand = this.parseShorthand();
+            if (shorthand != null) {
+                return new CharNode(shorthand);
+            }
+            return new CharNode(CharSet.of(this.parseEscapedChar()));
+        }
+
+        private @Nullable CharSet parseShorthand() {
+            val set = switch (this.regex.charAt(this.pos)) {
+                case 'd' -> DIGIT;
+                case 'D' -> DIGIT.complement();
+                case 'w' -> WORD;
+                case 'W' -> WORD.complement();
+                case 's' -> SPACE;
+                case 'S' -> SPACE.complement();
+                default -> null;
+            };
+            if (set != null) {
+                this.pos++;
+            }
+            return set;
+        }
+
+        private char parseEscapedChar() {
+            val ch = this.regex.charAt(this.pos++);
+            switch (ch) {
+                case 't' -> {
+                    return '\t';
+                }
+                case 'n' -> {
+                    return '\n';
+                }
+                case 'r' -> {
+                    return '\r';
+                }
+                case 'f' -> {
+                    return '\f';
+                }
+                case 'a' -> {
+                    return '\u0007';
+                }
+                case 'e' -> {
+                    return '\u001B';
+                }
+                case 'x' -> {
+                    return this.parseHex(2);
+                }
+                case 'u' -> {
+                    return this.parseHex(4);
+                }
+                default -> {
+                    if (Character.isLetterOrDigit(ch)) {
+                        throw Unsupported.INSTANCE;
+                    }
+                    return literal(ch);
+                }
+            }
+        }
+
+        private char parseHex(final int digits) {
+            if (this.pos + digits > this.end) {
+                throw Unsupported.INSTANCE;
+            }
+
+            var value = 0;
+            for (int i = 0; i < digits; i++) {
+                val digit = Character.digit(this.regex.charAt(this.pos++), 16);
+                if (digit < 0) {
+                    throw Unsupported.INSTANCE;
+                }
+                value = (value << 4) | digit;
+            }
+            return literal((char) value);
+        }
+
+        private CharSet parseClass() {
+            var negated = false;
+            if (this.pos < this.end && this.regex.charAt(this.pos) == '^') {
+                negated = true;
+                this.pos++;
+            }
+            if (this.pos >= this.end || this.regex.charAt(this.pos) == ']') {
+                throw Unsupported.INSTANCE;
+            }
+
+            var set = CharSet.EMPTY;
+            while (true) {
+                if (this.pos >= this.end) {
+                    throw Unsupported.INSTANCE;
+                }
+
+                val ch = this.regex.charAt(this.pos);
+                if (ch == ']') {
+                    this.pos++;
+                    break;
+                }
+                if (ch == '[' || (ch == '&' && this.pos + 1 < this.end && this.regex.charAt(this.pos + 1) == '&')) {
+                    throw Unsupported.INSTANCE;
+                }
+
+                final char lower;
+                if (ch == '\\') {
+                    this.pos++;
+                    if (this.pos >= this.end) {
+                        throw Unsupported.INSTANCE;
+                    }
+                    val shorthand = this.parseShorthand();
+                    if (shorthand != null) {
+                        set = set.union(shorthand);
+                        continue;
+                    }
+                    lower = this.parseEscapedChar();
+                } else {
+                    lower = literal(ch);
+                    this.pos++;
+                }
+
+                if (this.pos + 1 < this.end
+                        && this.regex.charAt(this.pos) == '-'
+                        && this.regex.charAt(this.pos + 1) != ']') {
+                    this.pos++;
+                    var upper = this.regex.charAt(this.pos++);
+                    if (upper == '[') {
+                        throw Unsupported.INSTANCE;
+                    }
+                    if (upper == '\\') {
+                        if (this.pos >= this.end) {
+                            throw Unsupported.INSTANCE;
+                        }
+                        upper = this.parseEscapedChar();
+                    }
+                    upper = literal(upper);
+                    if (upper < lower) {
+                        throw Unsupported.INSTANCE;
+                    }
+                    set = set.union(CharSet.range(lower, upper));
+                } else {
+                    set = set.union(CharSet.of(lower));
+                }
+            }
+
+            return negated ? set.complement() : set;
+        }
+
+        private static char literal(final char ch) {
+            // The regex engine works on code points, the automaton on chars.
+            if (Character.isSurrogate(ch)) {
+                throw Unsupported.INSTANCE;
+            }
+            return ch;
+        }
+
+    }
+
+    /**
+     * An immutable set of chars stored as sorted, disjoint, inclusive ranges.
+     */
+    static final class CharSet {
+
+        static final CharSet EMPTY = new CharSet(new int[0]);
+
+        private final int[] ranges;
+
+        private CharSet(final int @NotNull [] ranges) {
+            this.ranges = ranges;
+        }
+
+        static @NotNull CharSet of(final char @NotNull ... chars) {
+            var set = EMPTY;
+            for (val ch : chars) {
+                set = set.union(range(ch, ch));
+            }
+            return set;
+        }
+
+        static @NotNull CharSet range(final char from, final char to) {
+            return new CharSet(new int[]{from, to});
+        }
+
+        boolean contains(final char ch) {
+            for (int i = 0; i < this.ranges.length; i += 2) {
+                if (ch < this.ranges[i]) {
+                    return false;
+                }
+                if (ch <= this.ranges[i + 1]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns the only char of this set, or {@code -1} if it holds none or several.
+         */
+        int single() {
+            return this.ranges.length == 2 && this.ranges[0] == this.ranges[1] ? this.ranges[0] : -1;
+        }
+
+        /**
+         * Returns the range bounds as {@code [from0, to0, from1, to1, ...]}.
+         */
+        int @NotNull [] ranges() {
+            return this.ranges.clone();
+        }
+
+        @NotNull CharSet union(@NotNull final CharSet other) {
+            val merged = new int[this.ranges.length + other.ranges.length];
+            int a = 0;
+            int b = 0;
+            int m = 0;
+            while (a < this.ranges.length || b < other.ranges.length) {
+                final int from;
+                final int to;
+                if (b >= other.ranges.length || (a < this.ranges.length && this.ranges[a] <= other.ranges[b])) {
+                    from = this.ranges[a];
+                    to = this.ranges[a + 1];
+                    a += 2;
+                } else {
+                    from = other.ranges[b];
+                    to = other.ranges[b + 1];
+                    b += 2;
+                }
+
+                if (m > 0 && from <= merged[m - 1] + 1) {
+                    merged[m - 1] = Math.max(merged[m - 1], to);
+                } else {
+                    merged[m++] = from;
+                    merged[m++] = to;
+                }
+            }
+            return new CharSet(Arrays.copyOf(merged, m));
+        }
+
+        @NotNull CharSet complement() {
+            val complement = new int[this.ranges.length + 2];
+            var m = 0;
+            var next = 0;
+            for (int i = 0; i < this.ranges.length; i += 2) {
+                if (this.ranges[i] > next) {
+                    complement[m++] = next;
+                    complement[m++] = this.ranges[i] - 1;
+                }
+                next = this.ranges[i + 1] + 1;
+            }
+            if (next <= Character.MAX_VALUE) {
+                complement[m++] = next;
+                complement[m++] = Character.MAX_VALUE;
+            }
+            return new CharSet(Arrays.copyOf(complement, m));
+        }
+
+    }
+
+}
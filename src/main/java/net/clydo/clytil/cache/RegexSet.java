@@ -0,0 +1,424 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.cache;
+
+import lombok.val;
+import net.clydo.clytil.Validates;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Matches one input against many regexes in a single pass.
+ * <p>
+ * Regexes within the syntax supported by the automaton (literals, classes, groups, alternation
+ * and greedy or lazy quantifiers) are combined into one NFA that is turned into a DFA lazily while
+ * inputs are scanned, so the cost of {@link #matches(CharSequence)} grows with the input length and
+ * not with the number of regexes. The remaining regexes are matched one by one through the
+ * {@link CompiledRegex} taken from the {@link FastRegex} cache. Invalid regexes never match.
+ * <p>
+ * Like {@link FastRegex#matches(CharSequence, String)} a regex only matches when it matches the
+ * whole input. Instances are thread-safe.
+ */
+public final class RegexSet {
+
+    public static final int DEFAULT_MAXIMUM_DFA_STATES = 4096;
+
+    private static final int[] NO_MATCHES = new int[0];
+
+    private final String[] regexes;
+    private final @Nullable CompiledRegex[] compiled;
+    private final int[] fallbackIndices;
+    private final int maximumDfaStates;
+
+    private final @Nullable RegexNfa nfa;
+    private final int[] asciiClasses;
+    private final int[] classStarts;
+    private final int @Nullable [] startNfaStates;
+    private volatile @Nullable DfaState startState;
+    private volatile ConcurrentHashMap<StateKey, DfaState> dfaStates;
+
+    private RegexSet(
+            @NotNull final FastRegex fastRegex,
+            @NotNull final List<String> regexes,
+            final int maximumDfaStates
+    ) {
+        this.regexes = regexes.toArray(new String[0]);
+        this.compiled = new CompiledRegex[this.regexes.length];
+        this.maximumDfaStates = maximumDfaStates;
+
+        val nfa = new RegexNfa();
+        var automatonCount = 0;
+        val fallbackIndices = new int[this.regexes.length];
+        var fallbackCount = 0;
+
+        for (int i = 0; i < this.regexes.length; i++) {
+            val regex = Validates.require(this.regexes[i], "regex");
+            val compiled = fastRegex.compile(regex);
+            this.compiled[i] = compiled;
+            if (compiled == null) {
+                continue;
+            }
+
+            val node = RegexNfa.parse(regex);
+            if (node != null) {
+                nfa.add(node, i);
+                automatonCount++;
+            } else {
+                fallbackIndices[fallbackCount++] = i;
+            }
+        }
+        this.fallbackIndices = Arrays.copyOf(fallbackIndices, fallbackCount);
+
+        if (automatonCount == 0) {
+            this.nfa = null;
+            this.asciiClasses = new int[0];
+            this.classStarts = new int[0];
+            this.startNfaStates = null;
+            this.startState = null;
+            this.dfaStates = new ConcurrentHashMap<>();
+            return;
+        }
+
+        this.nfa = nfa;
+
+        // Split the alphabet into classes of chars no state can tell apart.
+        val bounds = new TreeSet<Integer>();
+        bounds.add(0);
+        for (val set : nfa.charSets()) {
+            val ranges = set.ranges();
+            for (int i = 0; i < ranges.length; i += 2) {
+                bounds.add(ranges[i]);
+                if (ranges[i + 1] < Character.MAX_VALUE) {
+                    bounds.add(ranges[i + 1] + 1);
+                }
+            }
+        }
+        this.classStarts = bounds.stream().mapToInt(Integer::intValue).toArray();
+        this.asciiClasses = new int[128];
+        for (char ch = 0; ch < 128; ch++) {
+            this.asciiClasses[ch] = this.searchClass(ch);
+        }
+
+        this.dfaStates = new ConcurrentHashMap<>();
+        this.startNfaStates = nfa.closure(new int[]{nfa.start()}, 1);
+        this.startState = this.intern(this.startNfaStates);
+    }
+
+    @Contract("_, _ -> new")
+    public static @NotNull RegexSet compile(
+            @NotNull final FastRegex fastRegex,
+            @NotNull final String @NotNull ... regexes
+    ) {
+        Validates.require(regexes, "regexes");
+
+        return compile(fastRegex, Arrays.asList(regexes));
+    }
+
+    @Contract("_, _ -> new")
+    public static @NotNull RegexSet compile(
+            @NotNull final FastRegex fastRegex,
+            @NotNull final List<String> regexes
+    ) {
+        return compile(fastRegex, regexes, DEFAULT_MAXIMUM_DFA_STATES);
+    }
+
+    /**
+     * Compiles the regexes into a set.
+     *
+     * @param fastRegex        the cache providing the compiled regexes
+     * @param regexes          the regexes, reported by their index in this list
+     * @param maximumDfaStates the number of DFA states kept before the DFA is rebuilt from scratch
+     * @return the regex set
+     */
+    @Contract("_, _, _ -> new")
+    public static @NotNull RegexSet compile(
+            @NotNull final FastRegex fastRegex,
+            @NotNull final List<String> regexes,
+            final int maximumDfaStates
+    ) {
+        Validates.require(fastRegex, "fastRegex");
+        Validates.require(regexes, "regexes");
+        Validates.requirePositive(maximumDfaStates, "maximumDfaStates");
+
+        return new RegexSet(fastRegex, regexes, maximumDfaStates);
+    }
+
+    /**
+     * Returns the indices of all regexes matching the whole input, in ascending order.
+     *
+     * @param input the input
+     * @return the matching indices
+     */
+    public int @NotNull [] matches(
+            @NotNull final CharSequence input
+    ) {
+        Validates.require(input, "input");
+
+        val automatonMatches = this.scan(input);
+        if (automatonMatches == null) {
+            // The input has surrogates, which the regex engine treats as code points.
+            return this.matchEach(input);
+        }
+
+        if (this.fallbackIndices.length == 0) {
+            return automatonMatches.length == 0 ? NO_MATCHES : automatonMatches.clone();
+        }
+
+        val result = new int[automatonMatches.length + this.fallbackIndices.length];
+        var size = 0;
+        var a = 0;
+        for (val index : this.fallbackIndices) {
+            while (a < automatonMatches.length && automatonMatches[a] < index) {
+                result[size++] = automatonMatches[a++];
+            }
+            if (this.compiled[index].matches(input)) {
+                result[size++] = index;
+            }
+        }
+        while (a < automatonMatches.length) {
+            result[size++] = automatonMatches[a++];
+        }
+        return size == 0 ? NO_MATCHES : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Returns whether any regex matches the whole input.
+     *
+     * @param input the input
+     * @return whether any regex matches
+     */
+    public boolean matchesAny(
+            @NotNull final CharSequence input
+    ) {
+        Validates.require(input, "input");
+
+        val automatonMatches = this.scan(input);
+        if (automatonMatches == null) {
+            return this.matchEach(input).length > 0;
+        }
+        if (automatonMatches.length > 0) {
+            return true;
+        }
+
+        for (val index : this.fallbackIndices) {
+            if (this.compiled[index].matches(input)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return this.regexes.length;
+    }
+
+    public @NotNull String regex(final int index) {
+        return this.regexes[index];
+    }
+
+    public @NotNull @Unmodifiable List<String> regexes() {
+        return List.of(this.regexes);
+    }
+
+    /**
+     * Returns whether the regex at the index is matched by the combined automaton rather than
+     * on its own.
+     */
+    public boolean isAutomaton(final int index) {
+        return this.compiled[index] != null && Arrays.binarySearch(this.fallbackIndices, index) < 0;
+    }
+
+    /**
+     * Runs the DFA over the input and returns the indices it accepts, or {@code null} if the input
+     * contains surrogates.
+     */
+    private int @Nullable [] scan(@NotNull final CharSequence input) {
+        var state = this.startState;
+        if (state == null) {
+            return NO_MATCHES;
+        }
+
+        val length = input.length();
+        for (int i = 0; i < length && !state.dead; i++) {
+            val ch = input.charAt(i);
+            if (Character.isSurrogate(ch)) {
+                return null;
+            }
+
+            val charClass = ch < 128 ? this.asciiClasses[ch] : this.searchClass(ch);
+            var next = state.next[charClass];
+            if (next == null) {
+                next = this.step(state, charClass);
+                // Never link across a rebuild, so the states of an old DFA stay unreachable from
+                // the new one and are freed once no scan runs on them.
+                if (next.generation == state.generation) {
+                    state.next[charClass] = next;
+                }
+            }
+            state = next;
+        }
+        return state.accepts;
+    }
+
+    private int @NotNull [] matchEach(@NotNull final CharSequence input) {
+        val result = new int[this.regexes.length];
+        var size = 0;
+        for (int i = 0; i < this.regexes.length; i++) {
+            val compiled = this.compiled[i];
+            if (compiled != null && compiled.matches(input)) {
+                result[size++] = i;
+            }
+        }
+        return size == 0 ? NO_MATCHES : Arrays.copyOf(result, size);
+    }
+
+    private int searchClass(final char ch) {
+        val index = Arrays.binarySearch(this.classStarts, ch);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private @NotNull DfaState step(
+            @NotNull final DfaState state,
+            final int charClass
+    ) {
+        val nfa = this.nfa;
+        val representative = (char) this.classStarts[charClass];
+
+        val targets = new int[state.nfaStates.length];
+        var count = 0;
+        for (val nfaState : state.nfaStates) {
+            if (nfa.type(nfaState) == RegexNfa.CHAR && nfa.set(nfaState).contains(representative)) {
+                targets[count++] = nfa.out(nfaState);
+            }
+        }
+        return this.intern(nfa.closure(targets, count));
+    }
+
+    private @NotNull DfaState intern(final int @NotNull [] nfaStates) {
+        val key = new StateKey(nfaStates);
+
+        var dfaStates = this.dfaStates;
+        val existing = dfaStates.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        if (dfaStates.size() >= this.maximumDfaStates) {
+            // Start over rather than grow without bound, from a new start state so scans do not
+            // walk into the old states any more.
+            val startNfaStates = this.startNfaStates;
+            assert startNfaStates != null;
+            dfaStates = new ConcurrentHashMap<>();
+            val start = new DfaState(startNfaStates, this.acceptsOf(startNfaStates), this.classStarts.length, dfaStates);
+            dfaStates.put(new StateKey(startNfaStates), start);
+            this.dfaStates = dfaStates;
+            this.startState = start;
+        }
+
+        val created = new DfaState(nfaStates, this.acceptsOf(nfaStates), this.classStarts.length, dfaStates);
+        val raced = dfaStates.putIfAbsent(key, created);
+        return raced != null ? raced : created;
+    }
+
+    private int @NotNull [] acceptsOf(final int @NotNull [] nfaStates) {
+        val accepts = new int[nfaStates.length];
+        var count = 0;
+        for (val nfaState : nfaStates) {
+            if (this.nfa.type(nfaState) == RegexNfa.MATCH) {
+                accepts[count++] = this.nfa.matchIndex(nfaState);
+            }
+        }
+        if (count == 0) {
+            return NO_MATCHES;
+        }
+
+        Arrays.sort(accepts, 0, count);
+        var unique = 1;
+        for (int i = 1; i < count; i++) {
+            if (accepts[i] != accepts[unique - 1]) {
+                accepts[unique++] = accepts[i];
+            }
+        }
+        return Arrays.copyOf(accepts, unique);
+    }
+
+    private static final class DfaState {
+
+        final int[] nfaStates;
+        final int[] accepts;
+        final boolean dead;
+
+        /**
+         * Lazily filled transitions by char class. Races only ever store equivalent states.
+         */
+        final DfaState[] next;
+
+        /**
+         * The table the state is interned in, which is replaced when the DFA is rebuilt.
+         */
+        final Map<StateKey, DfaState> generation;
+
+        DfaState(
+                final int @NotNull [] nfaStates,
+                final int @NotNull [] accepts,
+                final int classes,
+                @NotNull final Map<StateKey, DfaState> generation
+        ) {
+            this.nfaStates = nfaStates;
+            this.accepts = accepts;
+            this.dead = nfaStates.length == 0;
+            this.next = new DfaState[classes];
+            this.generation = generation;
+        }
+
+    }
+
+    private static final class StateKey {
+
+        private final int[] nfaStates;
+        private final int hash;
+
+        StateKey(final int @NotNull [] nfaStates) {
+            this.nfaStates = nfaStates;
+            this.hash = Arrays.hashCode(nfaStates);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof StateKey other && Arrays.equals(this.nfaStates, other.nfaStates);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.cache;
+
+import lombok.val;
+import net.clydo.clytil.stats.MaxNanos;
+import net.clydo.clytil.stats.NanosHistogram;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records {@link FastRegex} statistics with striped counters; only allocated when stats are enabled.
+ */
+final class RegexStatsCounter {
+
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder compileCount = new LongAdder();
+    private final LongAdder totalCompileNanos = new LongAdder();
+    private final LongAdder invalidCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder budgetExceededCount = new LongAdder();
+    private final LongAdder quarantineCount = new LongAdder();
+    private final MaxNanos<String> slowestCompile = new MaxNanos<>();
+    private final NanosHistogram matchNanosHistogram = new NanosHistogram();
+
+    void recordRequest() {
+        this.requestCount.increment();
+    }
+
+    void recordMiss() {
+        this.missCount.increment();
+    }
+
+    void recordCompile(
+            @NotNull final String regex,
+            final long nanos
+    ) {
+        this.compileCount.increment();
+        this.totalCompileNanos.add(nanos);
+        this.slowestCompile.record(nanos, regex);
+    }
+
+    void recordInvalid() {
+        this.invalidCount.increment();
+    }
+
+    void recordEviction() {
+        this.evictionCount.increment();
+    }
+
+    void recordBudgetExceeded() {
+        this.budgetExceededCount.increment();
+    }
+
+    void recordQuarantine() {
+        this.quarantineCount.increment();
+    }
+
+    void recordMatch(final long nanos) {
+        this.matchNanosHistogram.record(nanos);
+    }
+
+    @NotNull FastRegexStats snapshot() {
+        val missCount = this.missCount.sum();
+        val hitCount = Math.max(this.requestCount.sum() - missCount, 0L);
+
+        final long maxCompileNanos;
+        final String slowestCompileRegex;
+        synchronized (this.slowestCompile) {
+            maxCompileNanos = this.slowestCompile.nanos();
+            slowestCompileRegex = this.slowestCompile.subject();
+        }
+
+        return new FastRegexStats(
+                hitCount,
+                missCount,
+                this.compileCount.sum(),
+                this.totalCompileNanos.sum(),
+                maxCompileNanos,
+                slowestCompileRegex,
+                this.invalidCount.sum(),
+                this.evictionCount.sum(),
+                this.budgetExceededCount.sum(),
+                this.quarantineCount.sum(),
+                this.matchNanosHistogram.snapshot()
+        );
+    }
+
+}
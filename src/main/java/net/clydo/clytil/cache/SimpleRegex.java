@@ -0,0 +1,544 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.cache;
+
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Whole-input matchers for the regex shapes that do not need a {@link java.util.regex.Matcher}.
+ * <p>
+ * Recognized shapes, each optionally anchored with {@code ^} and {@code $}:
+ * <ul>
+ *     <li>{@code literal}</li>
+ *     <li>{@code literal.*}, {@code .*literal} and {@code .*literal.*}</li>
+ *     <li>a single character class with a greedy quantifier, e.g. {@code [a-z0-9_]+} or {@code \d{2,4}}</li>
+ * </ul>
+ * Literals may contain escaped metacharacters and {@code \t}, {@code \n}, {@code \r}, {@code \f}.
+ * Character classes are limited to ASCII members. Since {@code .} does not match line terminators
+ * without {@code DOTALL}, the wildcard parts are checked for them.
+ */
+abstract class SimpleRegex {
+
+    private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    abstract boolean matches(@NotNull final CharSequence input);
+
+    /**
+     * Returns a fast matcher equivalent to {@code Pattern.compile(regex).matcher(input).matches()},
+     * or {@code null} if the regex is not one of the supported shapes.
+     *
+     * @param regex the regex
+     * @return the fast matcher, or {@code null}
+     */
+    static @Nullable SimpleRegex parse(@NotNull final String regex) {
+        var start = 0;
+        var end = regex.length();
+
+        if (start < end && regex.charAt(start) == '^') {
+            start++;
+        }
+        if (end > start && regex.charAt(end - 1) == '$' && !isEscaped(regex, end - 1)) {
+            end--;
+        }
+
+        val leadingAny = end - start >= 2 && regex.startsWith(".*", start);
+        if (leadingAny) {
+            start += 2;
+        }
+        val trailingAny = end - start >= 2 && regex.startsWith(".*", end - 2) && !isEscaped(regex, end - 2);
+        if (trailingAny) {
+            end -= 2;
+        }
+
+        val literal = parseLiteral(regex, start, end);
+        if (literal != null) {
+            if (leadingAny && trailingAny) {
+                return new Infix(literal);
+            } else if (leadingAny) {
+                return new Suffix(literal);
+            } else if (trailingAny) {
+                return new Prefix(literal);
+            }
+            return new Literal(literal);
+        }
+
+        if (leadingAny || trailingAny) {
+            return null;
+        }
+        return ClassRun.parse(regex, start, end);
+    }
+
+    static boolean isLineTerminator(final char ch) {
+        return ch == '\n' || ch == '\r' || ch == '\u0085' || ch == '\u2028' || ch == '\u2029';
+    }
+
+    static boolean hasLineTerminator(
+            @NotNull final CharSequence input,
+            final int from,
+            final int to
+    ) {
+        for (int i = from; i < to; i++) {
+            if (isLineTerminator(input.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean regionMatches(
+            @NotNull final CharSequence input,
+            final int offset,
+            @NotNull final String literal
+    ) {
+        if (input instanceof String string) {
+            return string.startsWith(literal, offset);
+        }
+
+        val length = literal.length();
+        if (offset < 0 || offset + length > input.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (input.charAt(offset + i) != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int indexOf(
+            @NotNull final CharSequence input,
+            @NotNull final String literal,
+            final int from
+    ) {
+        if (input instanceof String string) {
+            return string.indexOf(literal, from);
+        }
+
+        val last = input.length() - literal.length();
+        if (literal.isEmpty()) {
+            return from <= input.length() ? Math.max(from, 0) : -1;
+        }
+
+        val first = literal.charAt(0);
+        for (int i = Math.max(from, 0); i <= last; i++) {
+            if (input.charAt(i) == first && regionMatches(input, i, literal)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static boolean isEscaped(
+            @NotNull final String regex,
+            final int index
+    ) {
+        var backslashes = 0;
+        for (int i = index - 1; i >= 0 && regex.charAt(i) == '\\'; i--) {
+            backslashes++;
+        }
+        return (backslashes & 1) == 1;
+    }
+
+    private static @Nullable String parseLiteral(
+            @NotNull final String regex,
+            final int start,
+            final int end
+    ) {
+        val literal = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            val ch = regex.charAt(i);
+            if (ch != '\\') {
+                if (METACHARACTERS.indexOf(ch) >= 0 || Character.isSurrogate(ch)) {
+                    return null;
+                }
+                literal.append(ch);
+                continue;
+            }
+
+            if (++i >= end) {
+                return null;
+            }
+            val escaped = regex.charAt(i);
+            switch (escaped) {
+                case 't' -> literal.append('\t');
+                case 'n' -> literal.append('\n');
+                case 'r' -> literal.append('\r');
+                case 'f' -> literal.append('\f');
+                default -> {
+                    // Escaped letters and digits are classes, back references or quoting.
+                    if (Character.isLetterOrDigit(escaped) || escaped > 0x7F) {
+                        return null;
+                    }
+                    literal.append(escaped);
+                }
+            }
+        }
+        return literal.toString();
+    }
+
+    private static final class Literal extends SimpleRegex {
+
+        private final String literal;
+
+        Literal(@NotNull final String literal) {
+            this.literal = literal;
+        }
+
+        @Override
+        boolean matches(@NotNull final CharSequence input) {
+            return input.length() == this.literal.length() && regionMatches(input, 0, this.literal);
+        }
+
+    }
+
+    private static final class Prefix extends SimpleRegex {
+
+        private final String prefix;
+
+        Prefix(@NotNull final String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        boolean matches(@NotNull final CharSequence input) {
+            return regionMatches(input, 0, this.prefix)
+                    && !hasLineTerminator(input, this.prefix.length(), input.length());
+        }
+
+    }
+
+    private static final class Suffix extends SimpleRegex {
+
+        private final String suffix;
+
+        Suffix(@NotNull final String suffix) {
+            this.suffix = suffix;
+        }
+
+        @Override
+        boolean matches(@NotNull final CharSequence input) {
+            val offset = input.length() - this.suffix.length();
+            return offset >= 0
+                    && regionMatches(input, offset, this.suffix)
+                    && !hasLineTerminator(input, 0, offset);
+        }
+
+    }
+
+    private static final class Infix extends SimpleRegex {
+
+        private final String infix;
+
+        Infix(@NotNull final String infix) {
+            this.infix = infix;
+        }
+
+        @Override
+        boolean matches(@NotNull final CharSequence input) {
+            val length = input.length();
+
+            // The occurrence must start at or before the first line terminator
+            // and end after the last one.
+            var firstTerminator = length;
+            var lastTerminator = -1;
+            for (int i = 0; i < length; i++) {
+                if (isLineTerminator(input.charAt(i))) {
+                    if (firstTerminator == length) {
+                        firstTerminator = i;
+                    }
+                    lastTerminator = i;
+                }
+            }
+
+            val index = indexOf(input, this.infix, Math.max(0, lastTerminator - this.infix.length() + 1));
+            return index >= 0 && index <= firstTerminator;
+        }
+
+    }
+
+    private static final class ClassRun extends SimpleRegex {
+
+        private final long low;
+        private final long high;
+        private final boolean negated;
+        private final int min;
+        private final int max;
+
+        private ClassRun(
+                final long low,
+                final long high,
+                final boolean negated,
+                final int min,
+                final int max
+        ) {
+            this.low = low;
+            this.high = high;
+            this.negated = negated;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        boolean matches(@NotNull final CharSequence input) {
+            val length = input.length();
+            if (this.negated) {
+                return this.matchesCodePoints(input, length);
+            }
+            if (length < this.min || length > this.max) {
+                return false;
+            }
+
+            for (int i = 0; i < length; i++) {
+                if (!this.contains(input.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * A negated class matches supplementary characters, which the regex engine counts as a
+         * single code point.
+         */
+        private boolean matchesCodePoints(
+                @NotNull final CharSequence input,
+                final int length
+        ) {
+            var count = 0;
+            var i = 0;
+            while (i < length) {
+                val ch = input.charAt(i);
+                if (Character.isHighSurrogate(ch) && i + 1 < length && Character.isLowSurrogate(input.charAt(i + 1))) {
+                    i += 2;
+                } else {
+                    if (!this.contains(ch)) {
+                        return false;
+                    }
+                    i++;
+                }
+
+                if (++count > this.max) {
+                    return false;
+                }
+            }
+            return count >= this.min;
+        }
+
+        private boolean contains(final char ch) {
+            final boolean member;
+            if (ch < 64) {
+                member = (this.low & (1L << ch)) != 0;
+            } else if (ch < 128) {
+                member = (this.high & (1L << (ch - 64))) != 0;
+            } else {
+                member = false;
+            }
+            return member != this.negated;
+        }
+
+        static @Nullable ClassRun parse(
+                @NotNull final String regex,
+                final int start,
+                final int end
+        ) {
+            if (start >= end) {
+                return null;
+            }
+
+            val bits = new long[2];
+            var negated = false;
+            var i = start;
+
+            val ch = regex.charAt(i);
+            if (ch == '[') {
+                i++;
+                if (i < end && regex.charAt(i) == '^') {
+                    negated = true;
+                    i++;
+                }
+                if (i >= end || regex.charAt(i) == ']') {
+                    return null;
+                }
+
+                var closed = false;
+                while (i < end) {
+                    var member = regex.charAt(i);
+                    if (member == ']') {
+                        closed = true;
+                        i++;
+                        break;
+                    }
+                    if (member == '[' || member == '&' || member > 0x7F) {
+                        return null;
+                    }
+
+                    if (member == '\\') {
+                        if (++i >= end) {
+                            return null;
+                        }
+                        val escaped = regex.charAt(i++);
+                        if (addShorthand(bits, escaped)) {
+                            continue;
+                        }
+                        member = unescape(escaped);
+                        if (member == 0) {
+                            return null;
+                        }
+                    } else {
+                        i++;
+                    }
+
+                    // Range such as a-z, a trailing '-' is a literal.
+                    if (i + 1 < end && regex.charAt(i) == '-' && regex.charAt(i + 1) != ']') {
+                        var upper = regex.charAt(i + 1);
+                        i += 2;
+                        if (upper == '\\') {
+                            if (i >= end) {
+                                return null;
+                            }
+                            upper = unescape(regex.charAt(i++));
+                        }
+                        if (upper == 0 || upper == '[' || upper > 0x7F || upper < member) {
+                            return null;
+                        }
+                        for (char c = member; c <= upper; c++) {
+                            set(bits, c);
+                        }
+                    } else {
+                        set(bits, member);
+                    }
+                }
+                if (!closed) {
+                    return null;
+                }
+            } else if (ch == '\\' && i + 1 < end) {
+                val escaped = regex.charAt(i + 1);
+                i += 2;
+                if (!addShorthand(bits, Character.toLowerCase(escaped))) {
+                    return null;
+                }
+                negated = Character.isUpperCase(escaped);
+            } else {
+                return null;
+            }
+
+            // Greedy quantifier; lazy and possessive forms are left to Pattern.
+            int min = 1;
+            int max = 1;
+            if (i < end) {
+                val quantifier = regex.charAt(i++);
+                if (quantifier == '+') {
+                    max = Integer.MAX_VALUE;
+                } else if (quantifier == '*') {
+                    min = 0;
+                    max = Integer.MAX_VALUE;
+                } else if (quantifier == '?') {
+                    min = 0;
+                } else if (quantifier == '{') {
+                    val close = regex.indexOf('}', i);
+                    if (close < 0 || close >= end) {
+                        return null;
+                    }
+                    val bounds = regex.substring(i, close);
+                    val comma = bounds.indexOf(',');
+                    try {
+                        if (comma < 0) {
+                            min = max = Integer.parseInt(bounds);
+                        } else {
+                            min = Integer.parseInt(bounds.substring(0, comma));
+                            max = comma == bounds.length() - 1
+                                    ? Integer.MAX_VALUE
+                                    : Integer.parseInt(bounds.substring(comma + 1));
+                        }
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                    if (min < 0 || max < min) {
+                        return null;
+                    }
+                    i = close + 1;
+                } else {
+                    return null;
+                }
+            }
+            if (i != end) {
+                return null;
+            }
+
+            return new ClassRun(bits[0], bits[1], negated, min, max);
+        }
+
+        private static boolean addShorthand(
+                final long @NotNull [] bits,
+                final char escaped
+        ) {
+            switch (escaped) {
+                case 'd' -> setRange(bits, '0', '9');
+                case 'w' -> {
+                    setRange(bits, 'a', 'z');
+                    setRange(bits, 'A', 'Z');
+                    setRange(bits, '0', '9');
+                    set(bits, '_');
+                }
+                case 's' -> {
+                    set(bits, ' ');
+                    setRange(bits, '\t', '\r');
+                }
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static char unescape(final char escaped) {
+            return switch (escaped) {
+                case 't' -> '\t';
+                case 'n' -> '\n';
+                case 'r' -> '\r';
+                case 'f' -> '\f';
+                default -> Character.isLetterOrDigit(escaped) || escaped > 0x7F ? 0 : escaped;
+            };
+        }
+
+        private static void setRange(
+                final long @NotNull [] bits,
+                final char from,
+                final char to
+        ) {
+            for (char c = from; c <= to; c++) {
+                set(bits, c);
+            }
+        }
+
+        private static void set(
+                final long @NotNull [] bits,
+                final char ch
+        ) {
+            bits[ch >> 6] |= 1L << (ch & 63);
+        }
+
+    }
+
+}
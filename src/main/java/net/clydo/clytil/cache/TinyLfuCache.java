@@ -0,0 +1,541 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.cache;
+
+import lombok.val;
+import net.clydo.clytil.Validates;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A bounded, thread-safe cache using the W-TinyLFU eviction policy.
+ * <p>
+ * New entries land in a small LRU admission window. Entries leaving the window compete with the
+ * least recently used entry of the main space and only the one with the higher estimated frequency
+ * is kept. The main space is a segmented LRU split into a probation and a protected region, so
+ * entries that are used repeatedly keep their place while one-off entries are dropped on their way in.
+ * <p>
+ * Reads never block: hits are recorded in a lossy ring buffer that is replayed against the policy
+ * whenever the eviction lock is free. Values are never {@code null}; a loader returning {@code null}
+ * caches nothing.
+ *
+ * @param <K> Type of keys.
+ * @param <V> Type of values.
+ */
+public class TinyLfuCache<K, V> {
+
+    private static final int READ_BUFFER_SIZE = 128;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    private static final int READ_BUFFER_DRAIN_THRESHOLD = 32;
+
+    /**
+     * Frequency above which a losing candidate is still admitted once in a while, so an attacker
+     * cannot pin a victim by keeping its frequency artificially high.
+     */
+    private static final int ADMIT_HASH_DOS_THRESHOLD = 5;
+
+    private static final byte NEW = 0;
+    private static final byte WINDOW = 1;
+    private static final byte PROBATION = 2;
+    private static final byte PROTECTED = 3;
+    private static final byte DEAD = 4;
+
+    private final ConcurrentHashMap<K, Node<K, V>> data;
+    private final ReentrantLock evictionLock;
+    private final FrequencySketch sketch;
+
+    private final AccessOrderDeque<K, V> window;
+    private final AccessOrderDeque<K, V> probation;
+    private final AccessOrderDeque<K, V> protectedRegion;
+
+    private final int maximumSize;
+    private final int windowMaximum;
+    private final int protectedMaximum;
+
+    private int size;
+    private int windowSize;
+    private int protectedSize;
+
+    private final AtomicReferenceArray<Node<K, V>> readBuffer;
+    private final AtomicLong readBufferWrites;
+    private volatile long readBufferReads;
+
+    private final @Nullable BiConsumer<K, V> evictionListener;
+
+    /**
+     * Creates a cache holding at most {@code maximumSize} entries.
+     *
+     * @param maximumSize the maximum number of entries, must be positive
+     */
+    public TinyLfuCache(final int maximumSize) {
+        this(maximumSize, null);
+    }
+
+    /**
+     * Creates a cache holding at most {@code maximumSize} entries.
+     * <p>
+     * The listener is notified of every entry evicted by the size policy, but not of explicit
+     * invalidations. It runs under the eviction lock and must be quick.
+     *
+     * @param maximumSize      the maximum number of entries, must be positive
+     * @param evictionListener notified of evicted entries, or {@code null}
+     */
+    public TinyLfuCache(
+            final int maximumSize,
+            @Nullable final BiConsumer<K, V> evictionListener
+    ) {
+        Validates.requirePositive(maximumSize, "maximumSize");
+
+        this.maximumSize = maximumSize;
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.protectedMaximum = (int) ((maximumSize - this.windowMaximum) * 0.8d);
+
+        this.data = new ConcurrentHashMap<>();
+        this.evictionLock = new ReentrantLock();
+        this.sketch = new FrequencySketch(maximumSize);
+
+        this.window = new AccessOrderDeque<>();
+        this.probation = new AccessOrderDeque<>();
+        this.protectedRegion = new AccessOrderDeque<>();
+
+        this.readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+        this.readBufferWrites = new AtomicLong();
+
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * Returns the value mapped to the key, or {@code null} if there is none.
+     *
+     * @param key the key
+     * @return the cached value, or {@code null}
+     */
+    public @Nullable V getIfPresent(
+            @NotNull final K key
+    ) {
+        Validates.require(key, "key");
+
+        val node = this.data.get(key);
+        if (node == null) {
+            return null;
+        }
+
+        this.afterRead(node);
+        return node.value;
+    }
+
+    /**
+     * Returns the value mapped to the key, loading and caching it first if absent.
+     * <p>
+     * Concurrent callers asking for the same absent key wait for a single load.
+     *
+     * @param key    the key
+     * @param loader computes the value, may return {@code null} to cache nothing
+     * @return the cached or loaded value, or {@code null} if the loader returned {@code null}
+     */
+    public @Nullable V get(
+            @NotNull final K key,
+            @NotNull final Function<? super K, ? extends V> loader
+    ) {
+        Validates.require(key, "key");
+        Validates.require(loader, "loader");
+
+        val node = this.data.get(key);
+        if (node != null) {
+            this.afterRead(node);
+            return node.value;
+        }
+
+        val computed = this.data.computeIfAbsent(key, k -> {
+            val value = loader.apply(k);
+            return value != null ? new Node<>(k, value) : null;
+        });
+        if (computed == null) {
+            return null;
+        }
+
+        if (computed.queue == NEW) {
+            this.afterWrite(computed);
+        } else {
+            this.afterRead(computed);
+        }
+        return computed.value;
+    }
+
+    /**
+     * Maps the key to the value, replacing any previous mapping.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void put(
+            @NotNull final K key,
+            @NotNull final V value
+    ) {
+        Validates.require(key, "key");
+        Validates.require(value, "value");
+
+        val node = new Node<>(key, value);
+        val prior = this.data.put(key, node);
+
+        this.evictionLock.lock();
+        try {
+            if (prior != null) {
+                this.unlink(prior);
+            }
+            this.link(node);
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the mapping for the key, if any.
+     *
+     * @param key the key
+     */
+    public void invalidate(
+            @NotNull final K key
+    ) {
+        Validates.require(key, "key");
+
+        val node = this.data.remove(key);
+        if (node == null) {
+            return;
+        }
+
+        this.evictionLock.lock();
+        try {
+            this.unlink(node);
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Removes all mappings and forgets all recorded frequencies.
+     */
+    public void invalidateAll() {
+        this.evictionLock.lock();
+        try {
+            this.drainReadBuffer();
+
+            for (val node : this.data.values()) {
+                node.queue = DEAD;
+            }
+            this.data.clear();
+
+            this.window.clear();
+            this.probation.clear();
+            this.protectedRegion.clear();
+            this.size = 0;
+            this.windowSize = 0;
+            this.protectedSize = 0;
+
+            this.sketch.clear();
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the approximate number of entries; concurrent updates may not be reflected yet.
+     *
+     * @return the approximate number of entries
+     */
+    public int estimatedSize() {
+        return this.data.size();
+    }
+
+    public int maximumSize() {
+        return this.maximumSize;
+    }
+
+    private void afterRead(final Node<K, V> node) {
+        val reads = this.readBufferReads;
+        val writes = this.readBufferWrites.get();
+
+        var pending = writes - reads;
+        if (pending < READ_BUFFER_SIZE && this.readBufferWrites.compareAndSet(writes, writes + 1)) {
+            this.readBuffer.lazySet((int) (writes & READ_BUFFER_MASK), node);
+            pending++;
+        }
+
+        if (pending >= READ_BUFFER_DRAIN_THRESHOLD && this.evictionLock.tryLock()) {
+            try {
+                this.drainReadBuffer();
+            } finally {
+                this.evictionLock.unlock();
+            }
+        }
+    }
+
+    private void afterWrite(final Node<K, V> node) {
+        this.evictionLock.lock();
+        try {
+            this.link(node);
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    // Everything below is guarded by the eviction lock.
+
+    private void drainReadBuffer() {
+        var reads = this.readBufferReads;
+        val writes = this.readBufferWrites.get();
+
+        for (; reads < writes; reads++) {
+            val index = (int) (reads & READ_BUFFER_MASK);
+            val node = this.readBuffer.get(index);
+            if (node == null) {
+                // The slot was claimed but not published yet, pick it up on the next drain.
+                break;
+            }
+
+            this.readBuffer.lazySet(index, null);
+            this.onAccess(node);
+        }
+
+        this.readBufferReads = reads;
+    }
+
+    private void onAccess(final Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW -> this.window.moveToBack(node);
+            case PROBATION -> {
+                this.probation.remove(node);
+                node.queue = PROTECTED;
+                this.protectedRegion.addLast(node);
+                this.protectedSize++;
+                this.demoteProtected();
+            }
+            case PROTECTED -> this.protectedRegion.moveToBack(node);
+            default -> {
+                // Not linked yet or already evicted.
+                return;
+            }
+        }
+
+        this.sketch.increment(node.key);
+    }
+
+    private void link(final Node<K, V> node) {
+        this.drainReadBuffer();
+
+        if (node.queue != NEW) {
+            // Invalidated before it could be linked.
+            return;
+        }
+
+        this.sketch.increment(node.key);
+
+        node.queue = WINDOW;
+        this.window.addLast(node);
+        this.windowSize++;
+        this.size++;
+
+        this.evict();
+    }
+
+    private void unlink(final Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW -> {
+                this.window.remove(node);
+                this.windowSize--;
+                this.size--;
+            }
+            case PROBATION -> {
+                this.probation.remove(node);
+                this.size--;
+            }
+            case PROTECTED -> {
+                this.protectedRegion.remove(node);
+                this.protectedSize--;
+                this.size--;
+            }
+            default -> {
+            }
+        }
+
+        node.queue = DEAD;
+    }
+
+    private void demoteProtected() {
+        while (this.protectedSize > this.protectedMaximum) {
+            val demoted = this.protectedRegion.peekFirst();
+            this.protectedRegion.remove(demoted);
+            this.protectedSize--;
+
+            demoted.queue = PROBATION;
+            this.probation.addLast(demoted);
+        }
+    }
+
+    private void evict() {
+        // Entries overflowing the window become candidates at the back of probation.
+        Node<K, V> candidate = null;
+        var candidates = 0;
+        while (this.windowSize > this.windowMaximum) {
+            val node = this.window.peekFirst();
+            this.window.remove(node);
+            this.windowSize--;
+
+            node.queue = PROBATION;
+            this.probation.addLast(node);
+            if (candidate == null) {
+                candidate = node;
+            }
+            candidates++;
+        }
+
+        while (this.size > this.maximumSize) {
+            val victim = this.peekVictim();
+
+            if (candidates == 0 || victim == candidate) {
+                if (victim == candidate) {
+                    candidate = candidate.next;
+                    candidates--;
+                }
+                this.evictNode(victim);
+                continue;
+            }
+
+            val contender = candidate;
+            candidate = candidate.next;
+            candidates--;
+
+            if (this.admit(contender.key, victim.key)) {
+                this.evictNode(victim);
+            } else {
+                this.evictNode(contender);
+            }
+        }
+    }
+
+    private Node<K, V> peekVictim() {
+        var victim = this.probation.peekFirst();
+        if (victim == null) {
+            victim = this.protectedRegion.peekFirst();
+        }
+        if (victim == null) {
+            victim = this.window.peekFirst();
+        }
+        return victim;
+    }
+
+    private boolean admit(final K candidateKey, final K victimKey) {
+        val candidateFrequency = this.sketch.frequency(candidateKey);
+        val victimFrequency = this.sketch.frequency(victimKey);
+        if (candidateFrequency > victimFrequency) {
+            return true;
+        }
+        if (candidateFrequency <= ADMIT_HASH_DOS_THRESHOLD) {
+            return false;
+        }
+        return (ThreadLocalRandom.current().nextInt() & 127) == 0;
+    }
+
+    private void evictNode(final Node<K, V> node) {
+        this.unlink(node);
+        this.data.remove(node.key, node);
+
+        if (this.evictionListener != null) {
+            this.evictionListener.accept(node.key, node.value);
+        }
+    }
+
+    private static final class Node<K, V> {
+
+        final K key;
+        final V value;
+
+        Node<K, V> prev;
+        Node<K, V> next;
+        volatile byte queue;
+
+        Node(final K key, final V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+    }
+
+    private static final class AccessOrderDeque<K, V> {
+
+        private Node<K, V> first;
+        private Node<K, V> last;
+
+        @Nullable Node<K, V> peekFirst() {
+            return this.first;
+        }
+
+        void addLast(final Node<K, V> node) {
+            node.prev = this.last;
+            node.next = null;
+            if (this.last == null) {
+                this.first = node;
+            } else {
+                this.last.next = node;
+            }
+            this.last = node;
+        }
+
+        void remove(final Node<K, V> node) {
+            if (node.prev == null) {
+                this.first = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+
+            if (node.next == null) {
+                this.last = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+
+            node.prev = null;
+            node.next = null;
+        }
+
+        void moveToBack(final Node<K, V> node) {
+            if (node != this.last) {
+                this.remove(node);
+                this.addLast(node);
+            }
+        }
+
+        void clear() {
+            this.first = null;
+            this.last = null;
+        }
+
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect;
+
+import lombok.experimental.UtilityClass;
+import lombok.val;
+import net.clydo.clytil.Validates;
+import net.clydo.clytil.reflect.accessor.Accessor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Finds the {@link GeneratedAccessors} of classes annotated with {@link GenerateAccessors}.
+ * <p>
+ * The generated class of {@code com.example.Foo} is {@code com.example.Foo$$ClytilAccessors},
+ * which registers itself when it is initialized. The first lookup of a class loads it through
+ * the class loader of the class, without reflection; afterward lookups are a
+ * {@link ClassValue} read.
+ */
+@SuppressWarnings("unchecked")
+@UtilityClass
+public class AccessorRegistry {
+
+    /**
+     * The suffix of the binary name of generated classes.
+     */
+    public final String SUFFIX = "$$ClytilAccessors";
+
+    private final GeneratedAccessors NONE = new GeneratedAccessors() {
+        @Override
+        public @Nullable FieldValue<?, ?> field(@NotNull final String name) {
+            return null;
+        }
+
+        @Override
+        public @Nullable Accessor<?, ?> accessor(@NotNull final String name) {
+            return null;
+        }
+
+        @Override
+        public @Nullable Constructor<?> constructor(@NotNull final Class<?> @NotNull ... parameterTypes) {
+            return null;
+        }
+    };
+
+    // Both weak: the generated class keeps its accessors reachable as long as its loader lives.
+    private final Map<Class<?>, WeakReference<GeneratedAccessors>> REGISTERED = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final ClassValue<GeneratedAccessors> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected GeneratedAccessors computeValue(@NotNull final Class<?> type) {
+            if (!type.isPrimitive() && !type.isArray() && !type.isHidden()) {
+                try {
+                    Class.forName(type.getName() + SUFFIX, true, type.getClassLoader());
+                } catch (ClassNotFoundException | LinkageError ignored) {
+                    // Not generated, or registered by hand.
+                }
+            }
+
+            val registered = REGISTERED.get(type);
+            val accessors = registered != null ? registered.get() : null;
+            return accessors != null ? accessors : NONE;
+        }
+    };
+
+    /**
+     * Registers the accessors of a class, as done by generated classes. The registry holds them
+     * weakly, so the caller must keep them reachable.
+     *
+     * @param type      the class
+     * @param accessors the accessors
+     */
+    public void register(
+            @NotNull final Class<?> type,
+            @NotNull final GeneratedAccessors accessors
+    ) {
+        Validates.require(type, "type");
+        Validates.require(accessors, "accessors");
+
+        REGISTERED.put(type, new WeakReference<>(accessors));
+        ACCESSORS.remove(type);
+    }
+
+    public @Nullable GeneratedAccessors find(@NotNull final Class<?> type) {
+        Validates.require(type, "type");
+
+        val accessors = ACCESSORS.get(type);
+        return accessors != NONE ? accessors : null;
+    }
+
+    public <O, V> @Nullable FieldValue<O, V> field(
+            @NotNull final Class<?> type,
+            @NotNull final String name
+    ) {
+        Validates.require(type, "type");
+        Validates.require(name, "name");
+
+        return (FieldValue<O, V>) ACCESSORS.get(type).field(name);
+    }
+
+    public <O, V> @Nullable Accessor<O, V> accessor(
+            @NotNull final Class<?> type,
+            @NotNull final String name
+    ) {
+        Validates.require(type, "type");
+        Validates.require(name, "name");
+
+        return (Accessor<O, V>) ACCESSORS.get(type).accessor(name);
+    }
+
+    public <T> @Nullable Constructor<T> constructor(
+            @NotNull final Class<T> type,
+            @NotNull final Class<?> @NotNull ... parameterTypes
+    ) {
+        Validates.require(type, "type");
+        Validates.require(parameterTypes, "parameterTypes");
+
+        return (Constructor<T>) ACCESSORS.get(type).constructor(parameterTypes);
+    }
+
+}
@@ -0,0 +1,488 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+
+/**
+ * {@link VarHandleFieldValue} of an instance or static field, calling the access modes adapted
+ * by {@link VarHandleModes}. Static fields take the owner too, and ignore it.
+ * <p>
+ * Primitive accessors of another type than the field's convert through
+ * {@link java.lang.invoke.MethodHandle#invoke}, which adapts the handle on each call.
+ *
+ * @param type  the field type
+ * @param boxed the access modes with the field type erased
+ * @param exact the access modes with the field type kept
+ */
+@SuppressWarnings("unchecked")
+record AdaptedVarHandleFieldValue<O, V>(
+        @NotNull Field field,
+        @NotNull VarHandle handle,
+        @NotNull Class<?> type,
+        @NotNull VarHandleModes boxed,
+        @NotNull VarHandleModes exact
+) implements VarHandleFieldValue<O, V> {
+
+    @Override
+    public V get(final O owner) {
+        try {
+            return (V) this.boxed.get().invokeExact((Object) owner);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public void set(final O owner, final V value) {
+        try {
+            this.boxed.set().invokeExact((Object) owner, (Object) value);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public V getVolatile(final O owner) {
+        try {
+            return (V) this.boxed.getVolatile().invokeExact((Object) owner);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public void setVolatile(final O owner, final V value) {
+        try {
+            this.boxed.setVolatile().invokeExact((Object) owner, (Object) value);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public V getAcquire(final O owner) {
+        try {
+            return (V) this.boxed.getAcquire().invokeExact((Object) owner);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public void setRelease(final O owner, final V value) {
+        try {
+            this.boxed.setRelease().invokeExact((Object) owner, (Object) value);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public boolean compareAndSet(final O owner, final V expected, final V value) {
+        try {
+            return (boolean) this.boxed.compareAndSet().invokeExact((Object) owner, (Object) expected, (Object) value);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public int getInt(final O owner) {
+        try {
+            if (this.type != int.class) {
+                return (int) this.exact.get().invoke((Object) owner);
+            }
+            return (int) this.exact.get().invokeExact((Object) owner);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public void setInt(final O owner, final int value) {
+        try {
+            if (this.type != int.class) {
+                this.exact.set().invoke((Object) owner, value);
+                return;
+            }
+            this.exact.set().invokeExact((Object) owner, value);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public int getIntVolatile(final O owner) {
+        try {
+            if (this.type != int.class) {
+                return (int) this.exact.getVolatile().invoke((Object) owner);
+            }
+            return (int) this.exact.getVolatile().invokeExact((Object) owner);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public void setIntVolatile(final O owner, final int value) {
+        try {
+            if (this.type != int.class) {
+                this.exact.setVolatile().invoke((Object) owner, value);
+                return;
+            }
+            this.exact.setVolatile().invokeExact((Object) owner, value);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public int getIntAcquire(final O owner) {
+        try {
+            if (this.type != int.class) {
+                return (int) this.exact.getAcquire().invoke((Object) owner);
+            }
+            return (int) this.exact.getAcquire().invokeExact((Object) owner);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public void setIntRelease(final O owner, final int value) {
+        try {
+            if (this.type != int.class) {
+                this.exact.setRelease().invoke((Object) owner, value);
+                return;
+            }
+            this.exact.setRelease().invokeExact((Object) owner, value);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public boolean compareAndSetInt(final O owner, final int expected, final int value) {
+        try {
+            if (this.type != int.class) {
+                return (boolean) this.exact.compareAndSet().invoke((Object) owner, expected, value);
+            }
+            return (boolean) this.exact.compareAndSet().invokeExact((Object) owner, expected, value);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public int getAndAddInt(final O owner, final int delta) {
+        try {
+            if (this.type != int.class) {
+                return (int) this.exact.getAndAdd().invoke((Object) owner, delta);
+            }
+            return (int) this.exact.getAndAdd().invokeExact((Object) owner, delta);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public long getLong(final O owner) {
+        try {
+            if (this.type != long.class) {
+                return (long) this.exact.get().invoke((Object) owner);
+            }
+            return (long) this.exact.get().invokeExact((Object) owner);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public void setLong(final O owner, final long value) {
+        try {
+            if (this.type != long.class) {
+                this.exact.set().invoke((Object) owner, value);
+                return;
+            }
+            this.exact.set().invokeExact((Object) owner, value);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public long getLongVolatile(final O owner) {
+        try {
+            if (this.type != long.class) {
+                return (long) this.exact.getVolatile().invoke((Object) owner);
+            }
+            return (long) this.exact.getVolatile().invokeExact((Object) owner);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public void setLongVolatile(final O owner, final long value) {
+        try {
+            if (this.type != long.class) {
+                this.exact.setVolatile().invoke((Object) owner, value);
+                return;
+            }
+            this.exact.setVolatile().invokeExact((Object) owner, value);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public long getLongAcquire(final O owner) {
+        try {
+            if (this.type != long.class) {
+                return (long) this.exact.getAcquire().invoke((Object) owner);
+            }
+            return (long) this.exact.getAcquire().invokeExact((Object) owner);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public void setLongRelease(final O owner, final long value) {
+        try {
+            if (this.type != long.class) {
+                this.exact.setRelease().invoke((Object) owner, value);
+                return;
+            }
+            this.exact.setRelease().invokeExact((Object) owner, value);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public boolean compareAndSetLong(final O owner, final long expected, final long value) {
+        try {
+            if (this.type != long.class) {
+                return (boolean) this.exact.compareAndSet().invoke((Object) owner, expected, value);
+            }
+            return (boolean) this.exact.compareAndSet().invokeExact((Object) owner, expected, value);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public long getAndAddLong(final O owner, final long delta) {
+        try {
+            if (this.type != long.class) {
+                return (long) this.exact.getAndAdd().invoke((Object) owner, delta);
+            }
+            return (long) this.exact.getAndAdd().invokeExact((Object) owner, delta);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public double getDouble(final O owner) {
+        try {
+            if (this.type != double.class) {
+                return (double) this.exact.get().invoke((Object) owner);
+            }
+            return (double) this.exact.get().invokeExact((Object) owner);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public void setDouble(final O owner, final double value) {
+        try {
+            if (this.type != double.class) {
+                this.exact.set().invoke((Object) owner, value);
+                return;
+            }
+            this.exact.set().invokeExact((Object) owner, value);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public double getDoubleVolatile(final O owner) {
+        try {
+            if (this.type != double.class) {
+                return (double) this.exact.getVolatile().invoke((Object) owner);
+            }
+            return (double) this.exact.getVolatile().invokeExact((Object) owner);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public void setDoubleVolatile(final O owner, final double value) {
+        try {
+            if (this.type != double.class) {
+                this.exact.setVolatile().invoke((Object) owner, value);
+                return;
+            }
+            this.exact.setVolatile().invokeExact((Object) owner, value);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public double getDoubleAcquire(final O owner) {
+        try {
+            if (this.type != double.class) {
+                return (double) this.exact.getAcquire().invoke((Object) owner);
+            }
+            return (double) this.exact.getAcquire().invokeExact((Object) owner);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public void setDoubleRelease(final O owner, final double value) {
+        try {
+            if (this.type != double.class) {
+                this.exact.setRelease().invoke((Object) owner, value);
+                return;
+            }
+            this.exact.setRelease().invokeExact((Object) owner, value);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public boolean compareAndSetDouble(final O owner, final double expected, final double value) {
+        try {
+            if (this.type != double.class) {
+                return (boolean) this.exact.compareAndSet().invoke((Object) owner, expected, value);
+            }
+            return (boolean) this.exact.compareAndSet().invokeExact((Object) owner, expected, value);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public boolean getBoolean(final O owner) {
+        try {
+            if (this.type != boolean.class) {
+                return (boolean) this.exact.get().invoke((Object) owner);
+            }
+            return (boolean) this.exact.get().invokeExact((Object) owner);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public void setBoolean(final O owner, final boolean value) {
+        try {
+            if (this.type != boolean.class) {
+                this.exact.set().invoke((Object) owner, value);
+                return;
+            }
+            this.exact.set().invokeExact((Object) owner, value);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public boolean getBooleanVolatile(final O owner) {
+        try {
+            if (this.type != boolean.class) {
+                return (boolean) this.exact.getVolatile().invoke((Object) owner);
+            }
+            return (boolean) this.exact.getVolatile().invokeExact((Object) owner);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public void setBooleanVolatile(final O owner, final boolean value) {
+        try {
+            if (this.type != boolean.class) {
+                this.exact.setVolatile().invoke((Object) owner, value);
+                return;
+            }
+            this.exact.setVolatile().invokeExact((Object) owner, value);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public boolean getBooleanAcquire(final O owner) {
+        try {
+            if (this.type != boolean.class) {
+                return (boolean) this.exact.getAcquire().invoke((Object) owner);
+            }
+            return (boolean) this.exact.getAcquire().invokeExact((Object) owner);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public void setBooleanRelease(final O owner, final boolean value) {
+        try {
+            if (this.type != boolean.class) {
+                this.exact.setRelease().invoke((Object) owner, value);
+                return;
+            }
+            this.exact.setRelease().invokeExact((Object) owner, value);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public boolean compareAndSetBoolean(final O owner, final boolean expected, final boolean value) {
+        try {
+            if (this.type != boolean.class) {
+                return (boolean) this.exact.compareAndSet().invoke((Object) owner, expected, value);
+            }
+            return (boolean) this.exact.compareAndSet().invokeExact((Object) owner, expected, value);
+        } catch (Throwable e) {
+            throw VarHandleModes.rethrow(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.field.getDeclaringClass().getName() + "::" + this.field.getName();
+    }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect;
+
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.RecordComponent;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The direct and meta annotations of an annotated element, resolved once, and the
+ * {@link AnnotationValues} snapshots of those that were asked for.
+ * <p>
+ * Meta annotations are found depth-first through the declared annotations, in the same order
+ * as a plain recursive search, but each annotation type is visited only once, so cycles such as
+ * {@code @Documented} and {@code @Retention} annotating each other terminate.
+ * <p>
+ * Indexes of classes are held in a {@link ClassValue}; indexes of members, parameters and
+ * record components hang off the index of their declaring class. Either way they never keep a
+ * class loader alive. Other elements are indexed on every call.
+ */
+final class AnnotationIndex {
+
+    private static final ClassValue<AnnotationIndex> CACHE = new ClassValue<>() {
+        @Override
+        protected AnnotationIndex computeValue(@NotNull final Class<?> type) {
+            return new AnnotationIndex(type);
+        }
+    };
+
+    private final Map<Class<? extends Annotation>, Annotation> direct;
+    private final Map<Class<? extends Annotation>, Annotation> recursive;
+    private final Map<Class<? extends Annotation>, Annotation> byMeta;
+
+    /**
+     * Indexes of the members of this class, keyed by equality since reflection hands out copies.
+     */
+    private final Map<AnnotatedElement, AnnotationIndex> members = new ConcurrentHashMap<>();
+
+    private final Map<Class<? extends Annotation>, AnnotationValues> directValues = new ConcurrentHashMap<>();
+    private final Map<Class<? extends Annotation>, AnnotationValues> recursiveValues = new ConcurrentHashMap<>();
+
+    private AnnotationIndex(@NotNull final AnnotatedElement element) {
+        val annotations = element.getAnnotations();
+
+        val direct = new HashMap<Class<? extends Annotation>, Annotation>(annotations.length * 2);
+        val byMeta = new HashMap<Class<? extends Annotation>, Annotation>();
+        for (val annotation : annotations) {
+            direct.putIfAbsent(annotation.annotationType(), annotation);
+            for (val meta : annotation.annotationType().getAnnotations()) {
+                byMeta.putIfAbsent(meta.annotationType(), annotation);
+            }
+        }
+
+        val recursive = new HashMap<>(direct);
+        val visited = new HashSet<Class<? extends Annotation>>();
+        for (val annotation : element.getDeclaredAnnotations()) {
+            collectMeta(annotation.annotationType(), recursive, visited);
+        }
+
+        this.direct = direct;
+        this.recursive = recursive;
+        this.byMeta = byMeta;
+    }
+
+    static @NotNull AnnotationIndex of(@NotNull final AnnotatedElement element) {
+        if (element instanceof Class<?> type) {
+            return CACHE.get(type);
+        }
+
+        val owner = ownerOf(element);
+        if (owner == null) {
+            return new AnnotationIndex(element);
+        }
+        return CACHE.get(owner).members.computeIfAbsent(element, AnnotationIndex::new);
+    }
+
+    @SuppressWarnings("unchecked")
+    <A extends Annotation> @Nullable A get(
+            @NotNull final Class<A> annotationClass,
+            final boolean recursive
+    ) {
+        return (A) (recursive ? this.recursive : this.direct).get(annotationClass);
+    }
+
+    /**
+     * Returns the snapshot of {@link #get(Class, boolean)}, taken on first use and kept.
+     */
+    @Nullable AnnotationValues values(
+            @NotNull final Class<? extends Annotation> annotationClass,
+            final boolean recursive
+    ) {
+        val values = recursive ? this.recursiveValues : this.directValues;
+        val cached = values.get(annotationClass);
+        if (cached != null) {
+            return cached;
+        }
+
+        val annotation = this.get(annotationClass, recursive);
+        return annotation != null ? values.computeIfAbsent(annotationClass, type -> AnnotationValues.of(annotation)) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    <A extends Annotation> @Nullable A getByMeta(
+            @NotNull final Class<? extends Annotation> metaAnnotationClass
+    ) {
+        return (A) this.byMeta.get(metaAnnotationClass);
+    }
+
+    private static void collectMeta(
+            @NotNull final Class<? extends Annotation> annotationType,
+            @NotNull final Map<Class<? extends Annotation>, Annotation> recursive,
+            @NotNull final Set<Class<? extends Annotation>> visited
+    ) {
+        if (!visited.add(annotationType)) {
+            return;
+        }
+
+        for (val meta : annotationType.getAnnotations()) {
+            recursive.putIfAbsent(meta.annotationType(), meta);
+        }
+        for (val meta : annotationType.getDeclaredAnnotations()) {
+            collectMeta(meta.annotationType(), recursive, visited);
+        }
+    }
+
+    private static @Nullable Class<?> ownerOf(@NotNull final AnnotatedElement element) {
+        if (element instanceof Member member) {
+            return member.getDeclaringClass();
+        }
+        if (element instanceof Parameter parameter) {
+            return parameter.getDeclaringExecutable().getDeclaringClass();
+        }
+        if (element instanceof RecordComponent component) {
+            return component.getDeclaringRecord();
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,302 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect;
+
+import lombok.val;
+import net.clydo.clytil.Validates;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the attribute values of an annotation.
+ * <p>
+ * Reading an attribute of an annotation calls through a dynamic proxy and clones arrays. A
+ * snapshot reads every attribute once and keeps the values in an array indexed by attribute, in
+ * name order; nested annotations become snapshots themselves. Reads by index, e.g. with an
+ * index from {@link #indexOf(Class, String)} kept in a constant, are plain array loads, except
+ * for array attributes which are cloned on every read like the annotation itself does.
+ */
+public final class AnnotationValues {
+
+    private static final ClassValue<Schema> SCHEMAS = new ClassValue<>() {
+        @Override
+        protected Schema computeValue(@NotNull final Class<?> type) {
+            return new Schema(type);
+        }
+    };
+
+    private final Class<? extends Annotation> annotationType;
+    private final Schema schema;
+    private final Object[] values;
+
+    private AnnotationValues(
+            @NotNull final Class<? extends Annotation> annotationType,
+            @NotNull final Schema schema,
+            @NotNull final Object @NotNull [] values
+    ) {
+        this.annotationType = annotationType;
+        this.schema = schema;
+        this.values = values;
+    }
+
+    @Contract("_ -> new")
+    public static @NotNull AnnotationValues of(
+            @NotNull final Annotation annotation
+    ) {
+        Validates.require(annotation, "annotation");
+
+        val annotationType = annotation.annotationType();
+        val schema = SCHEMAS.get(annotationType);
+        val values = new Object[schema.attributes.length];
+        for (int i = 0; i < values.length; i++) {
+            val attribute = schema.attributes[i];
+            try {
+                values[i] = snapshot(attribute.invoke(annotation));
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new RuntimeException(
+                        String.format(
+                                "Failed to read attribute %s of @%s!",
+                                attribute.getName(), annotationType.getName()
+                        ), e
+                );
+            }
+        }
+        return new AnnotationValues(annotationType, schema, values);
+    }
+
+    /**
+     * Returns the index of an attribute of the annotation type, valid for all its snapshots.
+     *
+     * @param annotationType the annotation type
+     * @param name           the attribute name
+     * @return the index
+     * @throws IllegalArgumentException if there is no such attribute
+     */
+    public static int indexOf(
+            @NotNull final Class<? extends Annotation> annotationType,
+            @NotNull final String name
+    ) {
+        Validates.require(annotationType, "annotationType");
+        Validates.require(name, "name");
+
+        return SCHEMAS.get(annotationType).indexOf(name);
+    }
+
+    public int indexOf(@NotNull final String name) {
+        Validates.require(name, "name");
+
+        return this.schema.indexOf(name);
+    }
+
+    /**
+     * Returns an attribute, a copy for array attributes.
+     */
+    public Object get(final int index) {
+        val value = this.values[index];
+        return value.getClass().isArray() ? copy(value) : value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NotNull final String name) {
+        return (T) this.get(this.indexOf(name));
+    }
+
+    public int getInt(final int index) {
+        return (Integer) this.values[index];
+    }
+
+    public long getLong(final int index) {
+        return (Long) this.values[index];
+    }
+
+    public double getDouble(final int index) {
+        return (Double) this.values[index];
+    }
+
+    public boolean getBoolean(final int index) {
+        return (Boolean) this.values[index];
+    }
+
+    public @NotNull String getString(final int index) {
+        return (String) this.values[index];
+    }
+
+    public @NotNull Class<?> getClass(final int index) {
+        return (Class<?>) this.values[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    public <E extends Enum<E>> @NotNull E getEnum(final int index) {
+        return (E) this.values[index];
+    }
+
+    /**
+     * Returns the snapshot of a nested annotation attribute.
+     */
+    public @NotNull AnnotationValues getAnnotation(final int index) {
+        return (AnnotationValues) this.values[index];
+    }
+
+    /**
+     * Returns a copy of an array attribute; arrays of annotations are arrays of
+     * {@link AnnotationValues}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> @NotNull T getArray(final int index) {
+        return (T) copy(this.values[index]);
+    }
+
+    public int size() {
+        return this.values.length;
+    }
+
+    public @NotNull String name(final int index) {
+        return this.schema.attributes[index].getName();
+    }
+
+    public @NotNull Class<? extends Annotation> annotationType() {
+        return this.annotationType;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AnnotationValues other)) {
+            return false;
+        }
+        return this.annotationType == other.annotationType && Arrays.deepEquals(this.values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.annotationType.hashCode() + Arrays.deepHashCode(this.values);
+    }
+
+    @Override
+    public String toString() {
+        val builder = new StringBuilder("@").append(this.annotationType.getName()).append('(');
+        for (int i = 0; i < this.values.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            // deepToString of a singleton prints arrays of any component type.
+            val value = Arrays.deepToString(new Object[]{this.values[i]});
+            builder.append(this.name(i)).append('=').append(value, 1, value.length() - 1);
+        }
+        return builder.append(')').toString();
+    }
+
+    private static Object snapshot(final Object value) {
+        if (value instanceof Annotation annotation) {
+            return of(annotation);
+        }
+        if (value instanceof Annotation[] annotations) {
+            val snapshots = new AnnotationValues[annotations.length];
+            for (int i = 0; i < annotations.length; i++) {
+                snapshots[i] = of(annotations[i]);
+            }
+            return snapshots;
+        }
+        return value.getClass().isArray() ? copy(value) : value;
+    }
+
+    private static @NotNull Object copy(@NotNull final Object array) {
+        if (array instanceof Object[] objects) {
+            return objects.clone();
+        }
+        if (array instanceof int[] ints) {
+            return ints.clone();
+        }
+        if (array instanceof long[] longs) {
+            return longs.clone();
+        }
+        if (array instanceof boolean[] booleans) {
+            return booleans.clone();
+        }
+        if (array instanceof byte[] bytes) {
+            return bytes.clone();
+        }
+        if (array instanceof char[] chars) {
+            return chars.clone();
+        }
+        if (array instanceof short[] shorts) {
+            return shorts.clone();
+        }
+        if (array instanceof float[] floats) {
+            return floats.clone();
+        }
+        if (array instanceof double[] doubles) {
+            return doubles.clone();
+        }
+        throw new IllegalArgumentException(String.format("Not an array: %s", array));
+    }
+
+    /**
+     * The attributes of an annotation type in name order.
+     */
+    private static final class Schema {
+
+        final Class<?> annotationType;
+        final Method[] attributes;
+        final Map<String, Integer> indexes;
+
+        Schema(@NotNull final Class<?> annotationType) {
+            if (!annotationType.isAnnotation()) {
+                throw new IllegalArgumentException(String.format("%s is not an annotation type!", annotationType));
+            }
+
+            val attributes = Arrays.stream(annotationType.getDeclaredMethods())
+                    .filter(method -> Modifier.isAbstract(method.getModifiers()) && method.getParameterCount() == 0)
+                    .sorted(Comparator.comparing(Method::getName))
+                    .toArray(Method[]::new);
+
+            val indexes = new HashMap<String, Integer>(attributes.length * 2);
+            for (int i = 0; i < attributes.length; i++) {
+                attributes[i].trySetAccessible();
+                indexes.put(attributes[i].getName(), i);
+            }
+            this.annotationType = annotationType;
+            this.attributes = attributes;
+            this.indexes = indexes;
+        }
+
+        int indexOf(@NotNull final String name) {
+            val index = this.indexes.get(name);
+            if (index == null) {
+                throw new IllegalArgumentException(String.format("No attribute %s in @%s!", name, this.annotationType.getName()));
+            }
+            return index;
+        }
+
+    }
+
+}
@@ -25,10 +25,15 @@ import lombok.val;
 import net.clydo.clytil.Validates;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 
+/**
+ * Annotation lookups, including meta annotations, answered from an index built once per
+ * annotated element.
+ */
 @UtilityClass
 public class Annotations {
 
@@ -100,24 +105,9 @@ public class Annotations {
         Validates.require(element, "element");
         Validates.require(annotationClass, "annotationClass");
 
-        val direct = element.getAnnotation(annotationClass);
-        if (direct != null || !recursive) {
-            return direct;
-        }
-
-        val declaredAnnotations = element.getDeclaredAnnotations();
-        for (Annotation declaredAnnotation : declaredAnnotations) {
-            val meta = get(declaredAnnotation.annotationType(), annotationClass, true);
-            if (meta == null) {
-                continue;
-            }
-
-            return meta;
-        }
-        return null;
+        return AnnotationIndex.of(element).get(annotationClass, recursive);
     }
 
-    @SuppressWarnings("unchecked")
     public <A extends Annotation> A getByMeta(
             @NotNull final AnnotatedElement element,
             @NotNull final Class<? extends Annotation> metaAnnotationClass
@@ -125,16 +115,38 @@ public class Annotations {
         Validates.require(element, "element");
         Validates.require(metaAnnotationClass, "metaAnnotationClass");
 
-        for (Annotation annotation : element.getAnnotations()) {
-            val annotationType = annotation.annotationType();
-            if (!annotationType.isAnnotationPresent(metaAnnotationClass)) {
-                continue;
-            }
+        return AnnotationIndex.of(element).getByMeta(metaAnnotationClass);
+    }
 
-            return (A) annotation;
-        }
+    /**
+     * Returns a cached {@link AnnotationValues} snapshot of the annotation.
+     *
+     * @param element         the annotated element
+     * @param annotationClass the annotation type
+     * @param recursive       whether to also search meta annotations
+     * @return the snapshot, or {@code null} if the element is not annotated
+     */
+    public @Nullable AnnotationValues values(
+            @NotNull final AnnotatedElement element,
+            @NotNull final Class<? extends Annotation> annotationClass,
+            final boolean recursive
+    ) {
+        Validates.require(element, "element");
+        Validates.require(annotationClass, "annotationClass");
 
-        return null;
+        return AnnotationIndex.of(element).values(annotationClass, recursive);
+    }
+
+    public @NotNull AnnotationValues requireValues(
+            @NotNull final AnnotatedElement element,
+            @NotNull final Class<? extends Annotation> annotationClass,
+            final boolean recursive
+    ) {
+        val values = values(element, annotationClass, recursive);
+        if (values == null) {
+            throwNotAnnotated(element, annotationClass);
+        }
+        return values;
     }
 
 }
@@ -0,0 +1,332 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect;
+
+import lombok.val;
+import net.clydo.clytil.Validates;
+import net.clydo.clytil.reflect.accessor.Accessor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * The properties of a class, introspected once per class and addressed by a dense index.
+ * <p>
+ * Properties of a record are its components, in declaration order and read-only. Properties of
+ * other classes are their instance fields, including inherited and private ones, and their
+ * public {@code getX}/{@code isX} getters with an optional matching {@code setX} setter, which
+ * win over a field of the same name; they are ordered by name. Members this library cannot
+ * access are left out.
+ * <p>
+ * Each property has a {@link Accessor#direct direct} accessor, so reading or writing a property
+ * by index is an array load and a call the JIT can inline. Names are mapped to indexes with a
+ * perfect hash, so callers resolving names per call pay one hash and one comparison; hot paths
+ * should still resolve the index once.
+ *
+ * @param <T> the class
+ */
+@SuppressWarnings("unchecked")
+public final class BeanModel<T> {
+
+    private static final ClassValue<BeanModel<?>> MODELS = new ClassValue<>() {
+        @Override
+        protected BeanModel<?> computeValue(@NotNull final Class<?> type) {
+            return new BeanModel<>(type);
+        }
+    };
+
+    private final Class<T> type;
+    private final String[] names;
+    private final Class<?>[] types;
+    private final Member[] members;
+    private final boolean[] writable;
+    private final Accessor<T, Object>[] accessors;
+    private final NameIndex indexes;
+
+    private BeanModel(@NotNull final Class<T> type) {
+        this.type = type;
+
+        val properties = type.isRecord() ? recordProperties(type) : beanProperties(type);
+        val size = properties.size();
+        this.names = new String[size];
+        this.types = new Class<?>[size];
+        this.members = new Member[size];
+        this.writable = new boolean[size];
+        this.accessors = (Accessor<T, Object>[]) new Accessor<?, ?>[size];
+
+        var index = 0;
+        for (val property : properties.values()) {
+            this.names[index] = property.name();
+            this.types[index] = property.type();
+            this.members[index] = property.getter() != null ? property.getter() : property.field();
+            if (property.getter() != null) {
+                this.writable[index] = property.setter() != null;
+                this.accessors[index] = Accessor.direct(property.getter(), property.setter());
+            } else {
+                this.writable[index] = !Modifier.isFinal(property.field().getModifiers());
+                this.accessors[index] = Accessor.direct(property.field());
+            }
+            index++;
+        }
+        this.indexes = new NameIndex(this.names);
+    }
+
+    /**
+     * Returns the cached model of the class.
+     *
+     * @param type the class
+     * @return the model
+     */
+    public static <T> @NotNull BeanModel<T> of(@NotNull final Class<T> type) {
+        Validates.require(type, "type");
+        if (type.isPrimitive() || type.isArray() || type.isInterface()) {
+            throw new IllegalArgumentException(String.format("%s has no properties!", type.getName()));
+        }
+
+        return (BeanModel<T>) MODELS.get(type);
+    }
+
+    public @NotNull Class<T> type() {
+        return this.type;
+    }
+
+    public int size() {
+        return this.names.length;
+    }
+
+    public @NotNull String name(final int index) {
+        return this.names[Objects.checkIndex(index, this.names.length)];
+    }
+
+    public @NotNull Class<?> propertyType(final int index) {
+        return this.types[Objects.checkIndex(index, this.types.length)];
+    }
+
+    /**
+     * Returns the member the property is read through, the field or the getter.
+     */
+    public @NotNull Member member(final int index) {
+        return this.members[Objects.checkIndex(index, this.members.length)];
+    }
+
+    public boolean isWritable(final int index) {
+        return this.writable[Objects.checkIndex(index, this.writable.length)];
+    }
+
+    public @NotNull @Unmodifiable List<String> names() {
+        return List.of(this.names);
+    }
+
+    /**
+     * Returns the index of the property, or {@code -1} if the class has no such property.
+     */
+    public int indexOf(@NotNull final String name) {
+        Validates.require(name, "name");
+
+        return this.indexes.indexOf(name);
+    }
+
+    public @NotNull Accessor<T, Object> accessor(final int index) {
+        return this.accessors[Objects.checkIndex(index, this.accessors.length)];
+    }
+
+    public @NotNull Accessor<T, Object> accessor(@NotNull final String name) {
+        return this.accessors[this.requireIndex(name)];
+    }
+
+    public @Nullable Object get(
+            @NotNull final T bean,
+            final int index
+    ) {
+        return this.accessors[Objects.checkIndex(index, this.accessors.length)].get(bean);
+    }
+
+    public @Nullable Object get(
+            @NotNull final T bean,
+            @NotNull final String name
+    ) {
+        return this.accessors[this.requireIndex(name)].get(bean);
+    }
+
+    /**
+     * Writes the property.
+     *
+     * @throws UnsupportedOperationException if the property is not writable
+     */
+    public void set(
+            @NotNull final T bean,
+            final int index,
+            @Nullable final Object value
+    ) {
+        this.accessors[Objects.checkIndex(index, this.accessors.length)].set(bean, value);
+    }
+
+    public void set(
+            @NotNull final T bean,
+            @NotNull final String name,
+            @Nullable final Object value
+    ) {
+        this.accessors[this.requireIndex(name)].set(bean, value);
+    }
+
+    /**
+     * Returns the properties by index.
+     */
+    public @Nullable Object @NotNull [] toArray(@NotNull final T bean) {
+        Validates.require(bean, "bean");
+
+        val accessors = this.accessors;
+        val values = new Object[accessors.length];
+        for (int i = 0; i < accessors.length; i++) {
+            values[i] = accessors[i].get(bean);
+        }
+        return values;
+    }
+
+    /**
+     * Returns the properties by name, in index order.
+     */
+    public @NotNull Map<String, Object> toMap(@NotNull final T bean) {
+        Validates.require(bean, "bean");
+
+        val accessors = this.accessors;
+        val values = new LinkedHashMap<String, Object>(accessors.length * 2);
+        for (int i = 0; i < accessors.length; i++) {
+            values.put(this.names[i], accessors[i].get(bean));
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return "BeanModel[" + this.type.getName() + List.of(this.names) + "]";
+    }
+
+    private int requireIndex(@NotNull final String name) {
+        val index = this.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException(String.format("No property %s in %s!", name, this.type.getName()));
+        }
+        return index;
+    }
+
+    private static @NotNull Map<String, Property> recordProperties(@NotNull final Class<?> type) {
+        val properties = new LinkedHashMap<String, Property>();
+        for (val component : type.getRecordComponents()) {
+            val accessor = component.getAccessor();
+            if (accessor.trySetAccessible()) {
+                properties.put(component.getName(), new Property(component.getName(), component.getType(), null, accessor, null));
+            }
+        }
+        return properties;
+    }
+
+    private static @NotNull Map<String, Property> beanProperties(@NotNull final Class<?> type) {
+        val properties = new TreeMap<String, Property>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (val field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic() || !field.trySetAccessible()) {
+                    continue;
+                }
+                // Fields of subclasses shadow those of superclasses.
+                properties.putIfAbsent(field.getName(), new Property(field.getName(), field.getType(), field, null, null));
+            }
+        }
+
+        val setters = new HashMap<String, Method>();
+        for (val method : type.getMethods()) {
+            if (isAccessor(method, "set", 1)) {
+                setters.putIfAbsent(method.getName().substring(3) + ':' + method.getParameterTypes()[0].getName(), method);
+            }
+        }
+        for (val method : type.getMethods()) {
+            val returnType = method.getReturnType();
+            final String suffix;
+            if (isAccessor(method, "get", 0) && returnType != void.class && !method.getName().equals("getClass")) {
+                suffix = method.getName().substring(3);
+            } else if (isAccessor(method, "is", 0) && returnType == boolean.class) {
+                suffix = method.getName().substring(2);
+            } else {
+                continue;
+            }
+
+            val name = decapitalize(suffix);
+            val existing = properties.get(name);
+            // Like the Introspector, isX wins over getX whatever order the methods come in.
+            if (existing != null && existing.getter() != null
+                    && existing.getter().getName().startsWith("is") && !method.getName().startsWith("is")) {
+                continue;
+            }
+
+            val setter = setters.get(suffix + ':' + returnType.getName());
+            if (!method.trySetAccessible() || (setter != null && !setter.trySetAccessible())) {
+                continue;
+            }
+            properties.put(name, new Property(name, returnType, null, method, setter));
+        }
+        return properties;
+    }
+
+    private static boolean isAccessor(
+            @NotNull final Method method,
+            @NotNull final String prefix,
+            final int parameterCount
+    ) {
+        val name = method.getName();
+        return name.length() > prefix.length()
+                && name.startsWith(prefix)
+                && method.getParameterCount() == parameterCount
+                && !Modifier.isStatic(method.getModifiers())
+                && !method.isBridge();
+    }
+
+    /**
+     * Decapitalizes like the JavaBeans introspector: {@code URL} stays, {@code Name} becomes
+     * {@code name}.
+     */
+    private static @NotNull String decapitalize(@NotNull final String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private record Property(
+            @NotNull String name,
+            @NotNull Class<?> type,
+            @Nullable Field field,
+            @Nullable Method getter,
+            @Nullable Method setter
+    ) {
+    }
+
+}
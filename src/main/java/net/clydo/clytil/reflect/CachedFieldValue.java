@@ -0,0 +1,331 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect;
+
+import lombok.val;
+import net.clydo.clytil.Validates;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * A {@link FieldValue} that caches the values read through it per owner, for field values whose
+ * reads are expensive, e.g. derived or mapped.
+ * <p>
+ * Owners are compared by identity and held weakly, so caching does not keep them alive. The
+ * cache is split into stripes by identity hash: hits read without locking or allocating, misses
+ * and writes lock one stripe. {@link #set(Object, Object)} writes through to the delegate and
+ * caches the written value; {@link #invalidate(Object)} drops a cached value.
+ * <p>
+ * With a version function, e.g. reading a modification counter of the owner, a cached value is
+ * only used while the owner's version equals the version it was read at. A {@code null} owner,
+ * as for static fields, has a single cache slot.
+ *
+ * @param <O> the owner type
+ * @param <V> the field type
+ */
+public final class CachedFieldValue<O, V> implements FieldValue<O, V> {
+
+    private static final int STRIPES = Math.min(64, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1);
+    private static final int STRIPE_SHIFT = 32 - Integer.numberOfTrailingZeros(STRIPES);
+
+    private final FieldValue<O, V> delegate;
+    private final @Nullable ToLongFunction<? super O> version;
+    private final Stripe[] stripes;
+    private final Stripe nullOwner;
+
+    private CachedFieldValue(
+            @NotNull final FieldValue<O, V> delegate,
+            @Nullable final ToLongFunction<? super O> version
+    ) {
+        this.delegate = delegate;
+        this.version = version;
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.nullOwner = new Stripe();
+    }
+
+    @Contract("_ -> new")
+    public static <O, V> @NotNull CachedFieldValue<O, V> of(
+            @NotNull final FieldValue<O, V> delegate
+    ) {
+        Validates.require(delegate, "delegate");
+
+        return new CachedFieldValue<>(delegate, null);
+    }
+
+    /**
+     * Creates a cache whose values are only used while the owner's version is unchanged.
+     *
+     * @param delegate the field value to cache
+     * @param version  the version of an owner, called on every read
+     * @return the cache
+     */
+    @Contract("_, _ -> new")
+    public static <O, V> @NotNull CachedFieldValue<O, V> of(
+            @NotNull final FieldValue<O, V> delegate,
+            @NotNull final ToLongFunction<? super O> version
+    ) {
+        Validates.require(delegate, "delegate");
+        Validates.require(version, "version");
+
+        return new CachedFieldValue<>(delegate, version);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(@Nullable final O owner) {
+        val hash = hash(owner);
+        val stripe = this.stripeOf(owner, hash);
+        val version = this.versionOf(owner);
+
+        val entry = stripe.find(owner, hash);
+        if (entry != null && entry.version == version) {
+            return (V) entry.value;
+        }
+
+        // Read outside the lock; an invalidation or write meanwhile means the read may be stale.
+        val modifications = stripe.modifications;
+        val value = this.delegate.get(owner);
+        stripe.lock();
+        try {
+            if (stripe.modifications == modifications) {
+                stripe.put(owner, hash, value, version);
+            }
+        } finally {
+            stripe.unlock();
+        }
+        return value;
+    }
+
+    @Override
+    public void set(@Nullable final O owner, @Nullable final V value) {
+        val hash = hash(owner);
+        val stripe = this.stripeOf(owner, hash);
+        stripe.lock();
+        try {
+            this.delegate.set(owner, value);
+            stripe.modifications++;
+            stripe.put(owner, hash, value, this.versionOf(owner));
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Drops the cached value of the owner, so the next read goes to the delegate.
+     */
+    public void invalidate(@Nullable final O owner) {
+        val hash = hash(owner);
+        val stripe = this.stripeOf(owner, hash);
+        stripe.lock();
+        try {
+            stripe.modifications++;
+            stripe.remove(owner, hash);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        for (val stripe : this.stripes) {
+            stripe.clear();
+        }
+        this.nullOwner.clear();
+    }
+
+    /**
+     * Returns whether a value of the owner is cached, regardless of its version.
+     */
+    public boolean isCached(@Nullable final O owner) {
+        val hash = hash(owner);
+        return this.stripeOf(owner, hash).find(owner, hash) != null;
+    }
+
+    public @NotNull FieldValue<O, V> delegate() {
+        return this.delegate;
+    }
+
+    @Override
+    public CachedFieldValue<O, V> toCacheable() {
+        return this;
+    }
+
+    private @NotNull Stripe stripeOf(@Nullable final O owner, final int hash) {
+        return owner == null ? this.nullOwner : this.stripes[hash >>> STRIPE_SHIFT];
+    }
+
+    private long versionOf(@Nullable final O owner) {
+        val version = this.version;
+        return version != null && owner != null ? version.applyAsLong(owner) : 0L;
+    }
+
+    private static int hash(@Nullable final Object owner) {
+        return System.identityHashCode(owner) * 0x9E3779B9;
+    }
+
+    /**
+     * A weak identity hash table. Reads traverse it without locking; since entries are relinked
+     * while resizing, a read may miss a present entry, which only costs a read of the delegate.
+     */
+    @SuppressWarnings("serial")
+    private static final class Stripe extends ReentrantLock {
+
+        private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+        private volatile Entry[] table = new Entry[8];
+        private int size;
+        /**
+         * Counts invalidations and writes, guarded by the lock.
+         */
+        volatile int modifications;
+
+        @Nullable Entry find(@Nullable final Object owner, final int hash) {
+            val table = this.table;
+            var entry = table[hash & (table.length - 1)];
+            while (entry != null) {
+                if (entry.get() == owner && entry.hash == hash) {
+                    return entry;
+                }
+                entry = entry.next;
+            }
+            return null;
+        }
+
+        void put(@Nullable final Object owner, final int hash, @Nullable final Object value, final long version) {
+            this.expunge();
+
+            val existing = this.find(owner, hash);
+            if (existing != null) {
+                // Value first: a read seeing the new version also sees the new value.
+                existing.value = value;
+                existing.version = version;
+                return;
+            }
+
+            var table = this.table;
+            if (++this.size > table.length * 3 / 4) {
+                table = this.resize();
+            }
+            val index = hash & (table.length - 1);
+            table[index] = new Entry(owner, this.queue, hash, value, version, table[index]);
+        }
+
+        void remove(@Nullable final Object owner, final int hash) {
+            this.expunge();
+
+            val entry = this.find(owner, hash);
+            if (entry != null) {
+                this.unlink(entry);
+            }
+        }
+
+        void clear() {
+            this.lock();
+            try {
+                this.modifications++;
+                this.table = new Entry[8];
+                this.size = 0;
+                while (this.queue.poll() != null) {
+                    // Entries of the old table, nothing to unlink.
+                }
+            } finally {
+                this.unlock();
+            }
+        }
+
+        private void expunge() {
+            Object stale;
+            while ((stale = this.queue.poll()) != null) {
+                this.unlink((Entry) stale);
+            }
+        }
+
+        private void unlink(@NotNull final Entry entry) {
+            val table = this.table;
+            val index = entry.hash & (table.length - 1);
+            Entry previous = null;
+            var current = table[index];
+            while (current != null) {
+                if (current == entry) {
+                    if (previous == null) {
+                        table[index] = current.next;
+                    } else {
+                        previous.next = current.next;
+                    }
+                    entry.value = null;
+                    this.size--;
+                    return;
+                }
+                previous = current;
+                current = current.next;
+            }
+        }
+
+        private @NotNull Entry @NotNull [] resize() {
+            val old = this.table;
+            val table = new Entry[old.length << 1];
+            for (var entry : old) {
+                while (entry != null) {
+                    val next = entry.next;
+                    val index = entry.hash & (table.length - 1);
+                    entry.next = table[index];
+                    table[index] = entry;
+                    entry = next;
+                }
+            }
+            this.table = table;
+            return table;
+        }
+
+    }
+
+    private static final class Entry extends WeakReference<Object> {
+
+        final int hash;
+        volatile @Nullable Object value;
+        volatile long version;
+        volatile @Nullable Entry next;
+
+        Entry(
+                @Nullable final Object owner,
+                @NotNull final ReferenceQueue<Object> queue,
+                final int hash,
+                @Nullable final Object value,
+                final long version,
+                @Nullable final Entry next
+        ) {
+            super(owner, queue);
+            this.hash = hash;
+            this.value = value;
+            this.version = version;
+            this.next = next;
+        }
+
+    }
+
+}
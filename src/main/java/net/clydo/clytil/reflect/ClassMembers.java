@@ -0,0 +1,257 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect;
+
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The fields, methods and constructors of a class, indexed once per class through a
+ * {@link ClassValue} so the index never keeps a class loader alive.
+ * <p>
+ * Fields and methods include those inherited from superclasses and interfaces, private ones
+ * too, resolved like the JVM would: declared members first, then for fields the interfaces
+ * before the superclass and for methods the superclass before the interfaces. Lookups are a
+ * hash lookup plus a scan of the overloads; absent members are simply absent from the index.
+ * <p>
+ * The indexed instances never leave this class: lookups return copies fetched from the
+ * declaring class, so a caller making one accessible does not make it accessible to others.
+ */
+final class ClassMembers {
+
+    private static final ClassValue<ClassMembers> CACHE = new ClassValue<>() {
+        @Override
+        protected ClassMembers computeValue(@NotNull final Class<?> type) {
+            return new ClassMembers(type);
+        }
+    };
+
+    private final Map<String, Field> fields;
+    private final Map<String, Member<Method>[]> methods;
+    private final Member<Constructor<?>>[] constructors;
+
+    private ClassMembers(@NotNull final Class<?> type) {
+        val superclass = type.getSuperclass();
+        val interfaces = type.getInterfaces();
+
+        // Fields: declared, then interfaces, then superclass.
+        val fields = new HashMap<String, Field>();
+        for (val field : type.getDeclaredFields()) {
+            fields.put(field.getName(), field);
+        }
+        for (val anInterface : interfaces) {
+            of(anInterface).fields.forEach(fields::putIfAbsent);
+        }
+        if (superclass != null) {
+            of(superclass).fields.forEach(fields::putIfAbsent);
+        }
+        this.fields = fields;
+
+        // Methods: declared, then superclass, then interfaces.
+        val methods = new HashMap<String, List<Member<Method>>>();
+        for (val method : type.getDeclaredMethods()) {
+            addMethod(methods, new Member<>(method, method.getParameterTypes()), true);
+        }
+        if (superclass != null) {
+            of(superclass).methods.forEach((name, members) -> {
+                for (val member : members) {
+                    addMethod(methods, member, false);
+                }
+            });
+        }
+        for (val anInterface : interfaces) {
+            of(anInterface).methods.forEach((name, members) -> {
+                for (val member : members) {
+                    // Static interface methods are not inherited.
+                    if (!Modifier.isStatic(member.member.getModifiers())) {
+                        addMethod(methods, member, false);
+                    }
+                }
+            });
+        }
+        val methodIndex = new HashMap<String, Member<Method>[]>(methods.size() * 2);
+        methods.forEach((name, members) -> methodIndex.put(name, members.toArray(newMembers(0))));
+        this.methods = methodIndex;
+
+        val constructors = type.getDeclaredConstructors();
+        this.constructors = newMembers(constructors.length);
+        for (int i = 0; i < constructors.length; i++) {
+            this.constructors[i] = new Member<>(constructors[i], constructors[i].getParameterTypes());
+        }
+    }
+
+    static @NotNull ClassMembers of(@NotNull final Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    static void invalidate(@NotNull final Class<?> type) {
+        CACHE.remove(type);
+    }
+
+    @Nullable Field field(@NotNull final String name) {
+        val field = this.fields.get(name);
+        return field != null ? copy(field) : null;
+    }
+
+    @Nullable Method method(
+            @NotNull final String name,
+            @NotNull final Class<?> @NotNull [] parameterTypes
+    ) {
+        val members = this.methods.get(name);
+        if (members == null) {
+            return null;
+        }
+
+        val method = find(members, parameterTypes);
+        return method != null ? copy(method) : null;
+    }
+
+    /**
+     * Returns the overloads of the method, including inherited ones.
+     */
+    @NotNull Method @NotNull [] methods(@NotNull final String name) {
+        val members = this.methods.get(name);
+        if (members == null) {
+            return new Method[0];
+        }
+
+        val methods = new Method[members.length];
+        for (int i = 0; i < members.length; i++) {
+            methods[i] = copy(members[i].member);
+        }
+        return methods;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> @Nullable Constructor<T> constructor(
+            @NotNull final Class<?> @NotNull [] parameterTypes
+    ) {
+        val constructor = (Constructor<T>) find(this.constructors, parameterTypes);
+        return constructor != null ? copy(constructor) : null;
+    }
+
+    /**
+     * Returns a fresh copy of the field, not sharing its accessible flag.
+     */
+    static @NotNull Field copy(@NotNull final Field field) {
+        try {
+            return field.getDeclaringClass().getDeclaredField(field.getName());
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns a fresh copy of the method, not sharing its accessible flag.
+     */
+    static @NotNull Method copy(@NotNull final Method method) {
+        try {
+            val copy = method.getDeclaringClass().getDeclaredMethod(method.getName(), method.getParameterTypes());
+            // getDeclaredMethod picks the most specific of bridges differing only in return type.
+            return copy.equals(method) ? copy : findDeclared(method);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns a fresh copy of the constructor, not sharing its accessible flag.
+     */
+    static <T> @NotNull Constructor<T> copy(@NotNull final Constructor<T> constructor) {
+        try {
+            return constructor.getDeclaringClass().getDeclaredConstructor(constructor.getParameterTypes());
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static @NotNull Method findDeclared(@NotNull final Method method) {
+        for (val declared : method.getDeclaringClass().getDeclaredMethods()) {
+            if (declared.equals(method)) {
+                return declared;
+            }
+        }
+        throw new IllegalStateException(String.format("Method %s is no longer declared!", method));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <M extends Executable> @NotNull Member<M> @NotNull [] newMembers(final int length) {
+        return (Member<M>[]) new Member<?>[length];
+    }
+
+    private static <M extends Executable> @Nullable M find(
+            @NotNull final Member<M> @NotNull [] members,
+            @NotNull final Class<?> @NotNull [] parameterTypes
+    ) {
+        for (val member : members) {
+            if (Arrays.equals(member.parameterTypes, parameterTypes)) {
+                return member.member;
+            }
+        }
+        return null;
+    }
+
+    private static void addMethod(
+            @NotNull final Map<String, List<Member<Method>>> methods,
+            @NotNull final Member<Method> member,
+            final boolean declared
+    ) {
+        val overloads = methods.computeIfAbsent(member.member.getName(), name -> new ArrayList<>(2));
+        for (int i = 0; i < overloads.size(); i++) {
+            val existing = overloads.get(i);
+            if (!Arrays.equals(existing.parameterTypes, member.parameterTypes)) {
+                continue;
+            }
+
+            // Among declared bridges keep the most specific return type, like getDeclaredMethod.
+            if (declared && existing.member.getReturnType().isAssignableFrom(member.member.getReturnType())) {
+                overloads.set(i, member);
+            }
+            return;
+        }
+        overloads.add(member);
+    }
+
+    private static final class Member<M extends Executable> {
+
+        final M member;
+        final Class<?>[] parameterTypes;
+
+        Member(@NotNull final M member, @NotNull final Class<?> @NotNull [] parameterTypes) {
+            this.member = member;
+            this.parameterTypes = parameterTypes;
+        }
+
+    }
+
+}
@@ -0,0 +1,210 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect;
+
+import lombok.experimental.UtilityClass;
+import lombok.val;
+import net.clydo.clytil.Validates;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves classes by name through a cache per class loader, remembering missing classes too,
+ * so probing for optional dependencies does not throw a {@link ClassNotFoundException} each time.
+ * <p>
+ * Caches are held weakly by loader, and resolved classes weakly by name, so the cache never keeps
+ * a loader alive. Classes are loaded without being initialized. Only names the loader could not
+ * find are remembered as missing; names that failed to link, e.g. because of a missing
+ * dependency, are missing too but tried again on every lookup. Since a loader may later find a
+ * class it could not find before, {@link #invalidate(ClassLoader)} drops its cache.
+ */
+@UtilityClass
+public class Classes {
+
+    private final Map<ClassLoader, Map<String, Object>> CACHES = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<String, Object> BOOTSTRAP_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Finds a class through the loader of this library, like {@link Class#forName(String)}.
+     *
+     * @param name the binary name
+     * @return the class, or {@code null} if it is missing
+     */
+    public @Nullable Class<?> find(@NotNull final String name) {
+        return find(name, Classes.class.getClassLoader());
+    }
+
+    /**
+     * Finds a class through the loader.
+     *
+     * @param name   the binary name
+     * @param loader the loader, {@code null} for the bootstrap loader
+     * @return the class, or {@code null} if it is missing
+     */
+    public @Nullable Class<?> find(
+            @NotNull final String name,
+            @Nullable final ClassLoader loader
+    ) {
+        Validates.require(name, "name");
+
+        val resolved = resolve(name, loader);
+        return resolved instanceof Class<?> type ? type : null;
+    }
+
+    /**
+     * Finds a class through the loader of this library.
+     *
+     * @param name the binary name
+     * @return the class
+     * @throws RuntimeException if the class is missing
+     */
+    public @NotNull Class<?> require(@NotNull final String name) {
+        return require(name, Classes.class.getClassLoader());
+    }
+
+    public @NotNull Class<?> require(
+            @NotNull final String name,
+            @Nullable final ClassLoader loader
+    ) {
+        Validates.require(name, "name");
+
+        val resolved = resolve(name, loader);
+        if (resolved instanceof Class<?> type) {
+            return type;
+        }
+
+        // The exception of a cached miss is only created here, probing with find costs none.
+        val cause = resolved instanceof Missing missing
+                ? new ClassNotFoundException(missing.message())
+                : (Throwable) resolved;
+        throw new RuntimeException(
+                String.format(
+                        "Failed to find class %s!",
+                        name
+                ), cause
+        );
+    }
+
+    public boolean isPresent(@NotNull final String name) {
+        return find(name) != null;
+    }
+
+    public boolean isPresent(
+            @NotNull final String name,
+            @Nullable final ClassLoader loader
+    ) {
+        return find(name, loader) != null;
+    }
+
+    /**
+     * Resolves the names in parallel, so later lookups are cache hits.
+     *
+     * @param names  the binary names
+     * @param loader the loader, {@code null} for the bootstrap loader
+     * @return the classes found, by name
+     */
+    @Contract("_, _ -> new")
+    public @NotNull @Unmodifiable Map<String, Class<?>> preload(
+            @NotNull final Collection<String> names,
+            @Nullable final ClassLoader loader
+    ) {
+        Validates.require(names, "names");
+
+        val found = new ConcurrentHashMap<String, Class<?>>();
+        names.parallelStream().forEach(name -> {
+            val type = find(name, loader);
+            if (type != null) {
+                found.put(name, type);
+            }
+        });
+        return Collections.unmodifiableMap(found);
+    }
+
+    /**
+     * Drops the cache of the loader, e.g. after it was given access to more classes.
+     *
+     * @param loader the loader, {@code null} for the bootstrap loader
+     */
+    public void invalidate(@Nullable final ClassLoader loader) {
+        if (loader == null) {
+            BOOTSTRAP_CACHE.clear();
+        } else {
+            CACHES.remove(loader);
+        }
+    }
+
+    /**
+     * Returns the class, the {@link Missing} marker or the error linking it. A cached miss costs
+     * no exception.
+     */
+    private @NotNull Object resolve(
+            @NotNull final String name,
+            @Nullable final ClassLoader loader
+    ) {
+        val cache = cacheOf(loader);
+        val cached = cache.get(name);
+        if (cached instanceof Missing) {
+            return cached;
+        }
+        if (cached != null) {
+            val type = ((WeakReference<?>) cached).get();
+            if (type != null) {
+                return type;
+            }
+        }
+
+        try {
+            val type = Class.forName(name, false, loader);
+            cache.put(name, new WeakReference<>(type));
+            return type;
+        } catch (ClassNotFoundException e) {
+            // Only the message is kept, the stack trace could reach classes of the loader.
+            val missing = new Missing(e.getMessage());
+            cache.put(name, missing);
+            return missing;
+        } catch (LinkageError e) {
+            return e;
+        }
+    }
+
+    private @NotNull Map<String, Object> cacheOf(@Nullable final ClassLoader loader) {
+        if (loader == null) {
+            return BOOTSTRAP_CACHE;
+        }
+        return CACHES.computeIfAbsent(loader, key -> new ConcurrentHashMap<>());
+    }
+
+    /**
+     * A name the loader could not find.
+     */
+    private record Missing(@Nullable String message) {
+    }
+
+}
@@ -25,7 +25,9 @@ import lombok.val;
 import net.clydo.clytil.Validates;
 import org.jetbrains.annotations.NotNull;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.Arrays;
 import java.util.stream.Collectors;
 
@@ -40,19 +42,10 @@ public class Constructors {
         Validates.require(clazz, "class");
         Validates.require(parameterTypes, "parameterTypes");
 
-        try {
-            return (Constructor<T>) Constructors.of(
-                    Class.forName(clazz),
-                    parameterTypes
-            );
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException(
-                    String.format(
-                            "Failed to find class %s!",
-                            clazz
-                    ), e
-            );
-        }
+        return (Constructor<T>) Constructors.of(
+                Classes.require(clazz),
+                parameterTypes
+        );
     }
 
     public <T> Constructor<T> of(
@@ -62,6 +55,11 @@ public class Constructors {
         Validates.require(clazz, "class");
         Validates.require(parameterTypes, "parameterTypes");
 
+        val generated = AccessorRegistry.constructor(clazz, parameterTypes);
+        if (generated != null) {
+            return generated;
+        }
+
         val constructor = Reflects.getConstructor(clazz, parameterTypes);
 
         return Constructors.of(
@@ -70,6 +68,15 @@ public class Constructors {
         );
     }
 
+    /**
+     * Returns a factory taking the arguments as an array. Arguments are converted like
+     * reflection does, e.g. an {@link Integer} is widened for a {@code long} parameter, unlike the
+     * typed factories of {@link #of0} to {@link #of3}, which take the exact wrapper.
+     *
+     * @param clazz       the class constructed, for error messages
+     * @param constructor the constructor
+     * @return the factory
+     */
     public <T> Constructor<T> of(
             @NotNull final Class<T> clazz,
             @NotNull final java.lang.reflect.Constructor<T> constructor
@@ -79,20 +86,97 @@ public class Constructors {
 
         constructor.setAccessible(true);
 
+        val handle = spreadHandle(clazz, constructor);
         return args -> {
+            checkArgs(clazz, constructor, args);
             try {
-                return (T) constructor.newInstance(args);
-            } catch (IllegalAccessException | InvocationTargetException | InstantiationException e) {
-                throw new RuntimeException(
-                        String.format(
-                                "Failed to construct %s(%s) with args [%s]!",
-                                clazz,
-                                Arrays.stream(constructor.getParameterTypes()).map(Class::getName).collect(Collectors.joining(", ")),
-                                Arrays.stream(args).map(Object::toString).collect(Collectors.joining(", "))
-                        ), e
-                );
+                return (T) handle.invokeExact(args);
+            } catch (Throwable e) {
+                throw failure(clazz, constructor, args, e);
             }
         };
     }
 
+    /**
+     * Returns a direct-call factory of a constructor without parameters, costing about as much
+     * as {@code new}. Exceptions of the constructor propagate unwrapped.
+     *
+     * @param constructor the constructor
+     * @return the factory
+     */
+    public <T> @NotNull Constructor0<T> of0(@NotNull final java.lang.reflect.Constructor<T> constructor) {
+        Validates.require(constructor, "constructor");
+        return DirectInvokers.constructor(Constructor0.class, constructor);
+    }
+
+    public <T, A> @NotNull Constructor1<T, A> of1(@NotNull final java.lang.reflect.Constructor<T> constructor) {
+        Validates.require(constructor, "constructor");
+        return DirectInvokers.constructor(Constructor1.class, constructor);
+    }
+
+    public <T, A, B> @NotNull Constructor2<T, A, B> of2(@NotNull final java.lang.reflect.Constructor<T> constructor) {
+        Validates.require(constructor, "constructor");
+        return DirectInvokers.constructor(Constructor2.class, constructor);
+    }
+
+    public <T, A, B, C> @NotNull Constructor3<T, A, B, C> of3(@NotNull final java.lang.reflect.Constructor<T> constructor) {
+        Validates.require(constructor, "constructor");
+        return DirectInvokers.constructor(Constructor3.class, constructor);
+    }
+
+    /**
+     * Returns a handle of type {@code (Object[])Object} calling the constructor, converting the
+     * arguments like reflection.
+     */
+    private @NotNull MethodHandle spreadHandle(
+            @NotNull final Class<?> clazz,
+            @NotNull final java.lang.reflect.Constructor<?> constructor
+    ) {
+        try {
+            val parameterCount = constructor.getParameterCount();
+            return MethodHandles.lookup().unreflectConstructor(constructor).asFixedArity()
+                    .asType(MethodType.genericMethodType(parameterCount))
+                    .asSpreader(Object[].class, parameterCount);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(
+                    String.format(
+                            "Failed to access constructor %s(%s)!",
+                            clazz,
+                            Arrays.stream(constructor.getParameterTypes()).map(Class::getName).collect(Collectors.joining(", "))
+                    ), e
+            );
+        }
+    }
+
+    private void checkArgs(
+            @NotNull final Class<?> clazz,
+            @NotNull final java.lang.reflect.Constructor<?> constructor,
+            @NotNull final Object @NotNull [] args
+    ) {
+        if (args.length != constructor.getParameterCount()) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "Constructor %s takes %d args but got %d!",
+                            clazz, constructor.getParameterCount(), args.length
+                    )
+            );
+        }
+    }
+
+    private @NotNull RuntimeException failure(
+            @NotNull final Class<?> clazz,
+            @NotNull final java.lang.reflect.Constructor<?> constructor,
+            @NotNull final Object @NotNull [] args,
+            @NotNull final Throwable cause
+    ) {
+        return new RuntimeException(
+                String.format(
+                        "Failed to construct %s(%s) with args [%s]!",
+                        clazz,
+                        Arrays.stream(constructor.getParameterTypes()).map(Class::getName).collect(Collectors.joining(", ")),
+                        Arrays.stream(args).map(String::valueOf).collect(Collectors.joining(", "))
+                ), cause
+        );
+    }
+
 }
@@ -0,0 +1,473 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect;
+
+import lombok.experimental.UtilityClass;
+import lombok.val;
+import net.clydo.clytil.reflect.bytecode.ClassFileWriter;
+import net.clydo.clytil.reflect.bytecode.ClassFileWriter.Code;
+import net.clydo.clytil.reflect.bytecode.HiddenClasses;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+
+import static net.clydo.clytil.reflect.bytecode.ClassFileWriter.internalName;
+
+/**
+ * Turns reflected methods and constructors into direct-call implementations of the
+ * arity-specialized invoker and factory interfaces.
+ * <p>
+ * Where the member can be linked by {@link LambdaMetafactory}, the result is a lambda calling it
+ * like compiled code would, which the JIT inlines at monomorphic call sites. This needs a lookup
+ * with full privilege access, i.e. the member is public or its class is in the same module as
+ * this library, e.g. on the class path. Static and void methods, which the metafactory cannot
+ * adapt, are called from a generated hidden class instead. Other members are bound to an adapted
+ * {@link MethodHandle}, which the JIT cannot inline. Either way, exceptions of the member
+ * propagate unwrapped.
+ */
+@SuppressWarnings("unchecked")
+@UtilityClass
+class DirectInvokers {
+
+    private final Map<Class<?>, Function<MethodHandle, Object>> HANDLE_BINDERS = Map.ofEntries(
+            Map.entry(MethodInvoker0.class, handle -> (MethodInvoker0<Object, Object>) owner -> {
+                try {
+                    return (Object) handle.invokeExact(owner);
+                } catch (Throwable e) {
+                    throw DirectInvokers.<RuntimeException>sneakyThrow(e);
+                }
+            }),
+            Map.entry(MethodInvoker1.class, handle -> (MethodInvoker1<Object, Object, Object>) (owner, arg) -> {
+                try {
+                    return (Object) handle.invokeExact(owner, arg);
+                } catch (Throwable e) {
+                    throw DirectInvokers.<RuntimeException>sneakyThrow(e);
+                }
+            }),
+            Map.entry(MethodInvoker2.class, handle -> (MethodInvoker2<Object, Object, Object, Object>) (owner, arg1, arg2) -> {
+                try {
+                    return (Object) handle.invokeExact(owner, arg1, arg2);
+                } catch (Throwable e) {
+                    throw DirectInvokers.<RuntimeException>sneakyThrow(e);
+                }
+            }),
+            Map.entry(MethodInvoker3.class, handle -> (MethodInvoker3<Object, Object, Object, Object, Object>) (owner, arg1, arg2, arg3) -> {
+                try {
+                    return (Object) handle.invokeExact(owner, arg1, arg2, arg3);
+                } catch (Throwable e) {
+                    throw DirectInvokers.<RuntimeException>sneakyThrow(e);
+                }
+            }),
+            Map.entry(Constructor0.class, handle -> (Constructor0<Object>) () -> {
+                try {
+                    return (Object) handle.invokeExact();
+                } catch (Throwable e) {
+                    throw DirectInvokers.<RuntimeException>sneakyThrow(e);
+                }
+            }),
+            Map.entry(Constructor1.class, handle -> (Constructor1<Object, Object>) (arg) -> {
+                try {
+                    return (Object) handle.invokeExact(arg);
+                } catch (Throwable e) {
+                    throw DirectInvokers.<RuntimeException>sneakyThrow(e);
+                }
+            }),
+            Map.entry(Constructor2.class, handle -> (Constructor2<Object, Object, Object>) (arg1, arg2) -> {
+                try {
+                    return (Object) handle.invokeExact(arg1, arg2);
+                } catch (Throwable e) {
+                    throw DirectInvokers.<RuntimeException>sneakyThrow(e);
+                }
+            }),
+            Map.entry(Constructor3.class, handle -> (Constructor3<Object, Object, Object, Object>) (arg1, arg2, arg3) -> {
+                try {
+                    return (Object) handle.invokeExact(arg1, arg2, arg3);
+                } catch (Throwable e) {
+                    throw DirectInvokers.<RuntimeException>sneakyThrow(e);
+                }
+            }),
+            Map.entry(IntMethodInvoker0.class, handle -> (IntMethodInvoker0<Object>) owner -> {
+                try {
+                    return (int) handle.invokeExact(owner);
+                } catch (Throwable e) {
+                    throw DirectInvokers.<RuntimeException>sneakyThrow(e);
+                }
+            }),
+            Map.entry(IntMethodInvoker1.class, handle -> (IntMethodInvoker1<Object, Object>) (owner, arg) -> {
+                try {
+                    return (int) handle.invokeExact(owner, arg);
+                } catch (Throwable e) {
+                    throw DirectInvokers.<RuntimeException>sneakyThrow(e);
+                }
+            }),
+            Map.entry(LongMethodInvoker0.class, handle -> (LongMethodInvoker0<Object>) owner -> {
+                try {
+                    return (long) handle.invokeExact(owner);
+                } catch (Throwable e) {
+                    throw DirectInvokers.<RuntimeException>sneakyThrow(e);
+                }
+            }),
+            Map.entry(LongMethodInvoker1.class, handle -> (LongMethodInvoker1<Object, Object>) (owner, arg) -> {
+                try {
+                    return (long) handle.invokeExact(owner, arg);
+                } catch (Throwable e) {
+                    throw DirectInvokers.<RuntimeException>sneakyThrow(e);
+                }
+            }),
+            Map.entry(DoubleMethodInvoker0.class, handle -> (DoubleMethodInvoker0<Object>) owner -> {
+                try {
+                    return (double) handle.invokeExact(owner);
+                } catch (Throwable e) {
+                    throw DirectInvokers.<RuntimeException>sneakyThrow(e);
+                }
+            }),
+            Map.entry(DoubleMethodInvoker1.class, handle -> (DoubleMethodInvoker1<Object, Object>) (owner, arg) -> {
+                try {
+                    return (double) handle.invokeExact(owner, arg);
+                } catch (Throwable e) {
+                    throw DirectInvokers.<RuntimeException>sneakyThrow(e);
+                }
+            }),
+            Map.entry(BooleanMethodInvoker0.class, handle -> (BooleanMethodInvoker0<Object>) owner -> {
+                try {
+                    return (boolean) handle.invokeExact(owner);
+                } catch (Throwable e) {
+                    throw DirectInvokers.<RuntimeException>sneakyThrow(e);
+                }
+            }),
+            Map.entry(BooleanMethodInvoker1.class, handle -> (BooleanMethodInvoker1<Object, Object>) (owner, arg) -> {
+                try {
+                    return (boolean) handle.invokeExact(owner, arg);
+                } catch (Throwable e) {
+                    throw DirectInvokers.<RuntimeException>sneakyThrow(e);
+                }
+            })
+    );
+
+    /**
+     * Implements the invoker interface by calling the method. The owner is the first parameter
+     * of the interface method and ignored for static methods.
+     *
+     * @param type   the invoker interface
+     * @param method the method
+     * @return the invoker
+     */
+    <T> @NotNull T method(
+            @NotNull final Class<T> type,
+            @NotNull final Method method
+    ) {
+        val sam = samOf(type);
+        val samType = MethodType.methodType(sam.getReturnType(), sam.getParameterTypes());
+        if (samType.parameterCount() != method.getParameterCount() + 1) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "%s takes %d args but method %s::%s takes %d!",
+                            type.getSimpleName(), samType.parameterCount() - 1,
+                            method.getDeclaringClass(), method.getName(), method.getParameterCount()
+                    )
+            );
+        }
+        if (samType.returnType().isPrimitive() && !method.getReturnType().isPrimitive()) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "%s needs a primitive return type but method %s::%s returns %s!",
+                            type.getSimpleName(), method.getDeclaringClass(), method.getName(), method.getReturnType().getName()
+                    )
+            );
+        }
+
+        val isStatic = Modifier.isStatic(method.getModifiers());
+        val lookup = lookupFor(method.getDeclaringClass(), type, Modifier.isPublic(method.getModifiers()));
+        if (lookup != null) {
+            if (!isStatic && method.getReturnType() != void.class) {
+                try {
+                    return spin(type, sam, samType, lookup, lookup.unreflect(method));
+                } catch (LambdaConversionException | IllegalAccessException | RuntimeException ignored) {
+                    // Fall back to a method handle below.
+                }
+            } else {
+                // The metafactory can neither drop the owner nor return null for void.
+                val invoker = spinHidden(type, sam, method, lookup);
+                if (invoker != null) {
+                    return invoker;
+                }
+            }
+        }
+
+        method.setAccessible(true);
+        try {
+            var handle = MethodHandles.lookup().unreflect(method);
+            if (isStatic) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return bind(type, handle.asType(samType));
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new RuntimeException(
+                    String.format(
+                            "Failed to bind method %s::%s(%s) to %s!",
+                            method.getDeclaringClass(), method.getName(),
+                            Arrays.toString(method.getParameterTypes()), type.getSimpleName()
+                    ), e
+            );
+        }
+    }
+
+    /**
+     * Implements the factory interface by calling the constructor.
+     *
+     * @param type        the factory interface
+     * @param constructor the constructor
+     * @return the factory
+     */
+    <T> @NotNull T constructor(
+            @NotNull final Class<T> type,
+            @NotNull final java.lang.reflect.Constructor<?> constructor
+    ) {
+        val sam = samOf(type);
+        val samType = MethodType.methodType(sam.getReturnType(), sam.getParameterTypes());
+        val clazz = constructor.getDeclaringClass();
+        if (samType.parameterCount() != constructor.getParameterCount()) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "%s takes %d args but constructor %s takes %d!",
+                            type.getSimpleName(), samType.parameterCount(), clazz, constructor.getParameterCount()
+                    )
+            );
+        }
+        if (Modifier.isAbstract(clazz.getModifiers())) {
+            throw new IllegalArgumentException(String.format("Cannot construct abstract %s!", clazz));
+        }
+
+        val lookup = lookupFor(clazz, type, Modifier.isPublic(constructor.getModifiers()));
+        if (lookup != null) {
+            try {
+                return spin(type, sam, samType, lookup, lookup.unreflectConstructor(constructor));
+            } catch (LambdaConversionException | IllegalAccessException | RuntimeException ignored) {
+                // Fall back to a method handle below.
+            }
+        }
+
+        constructor.setAccessible(true);
+        try {
+            return bind(type, MethodHandles.lookup().unreflectConstructor(constructor).asType(samType));
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new RuntimeException(
+                    String.format(
+                            "Failed to bind constructor %s(%s) to %s!",
+                            clazz, Arrays.toString(constructor.getParameterTypes()), type.getSimpleName()
+                    ), e
+            );
+        }
+    }
+
+    /**
+     * Spins a {@link LambdaMetafactory} lambda implementing {@code type} by calling the direct
+     * method handle.
+     */
+    <T> @NotNull T spin(
+            @NotNull final Class<T> type,
+            @NotNull final Method sam,
+            @NotNull final MethodType samType,
+            @NotNull final MethodHandles.Lookup lookup,
+            @NotNull final MethodHandle implementation
+    ) throws LambdaConversionException {
+        var instantiatedType = implementation.type().wrap();
+        if (samType.returnType().isPrimitive()) {
+            instantiatedType = instantiatedType.changeReturnType(samType.returnType());
+        }
+
+        val site = LambdaMetafactory.metafactory(
+                lookup,
+                sam.getName(),
+                MethodType.methodType(type),
+                samType,
+                implementation,
+                instantiatedType
+        );
+        return (T) instantiate(site.getTarget());
+    }
+
+    /**
+     * Spins a hidden class implementing {@code type} by calling the method like compiled code,
+     * ignoring the owner of static methods and returning {@code null} from void ones, or returns
+     * {@code null} if the method needs conversions beyond casts and boxing.
+     */
+    <T> @Nullable T spinHidden(
+            @NotNull final Class<T> type,
+            @NotNull final Method sam,
+            @NotNull final Method method,
+            @NotNull final MethodHandles.Lookup lookup
+    ) {
+        val declaring = method.getDeclaringClass();
+        val parameters = method.getParameterTypes();
+        val returnType = method.getReturnType();
+        val samReturnType = sam.getReturnType();
+        if (samReturnType.isPrimitive() && samReturnType != returnType && !(samReturnType == int.class && isIntLike(returnType))) {
+            return null;
+        }
+        for (val parameter : sam.getParameterTypes()) {
+            if (parameter.isPrimitive()) {
+                return null;
+            }
+        }
+        try {
+            lookup.accessClass(declaring);
+            for (val parameter : parameters) {
+                lookup.accessClass(parameter);
+            }
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+
+        val writer = new ClassFileWriter(
+                ClassFileWriter.ACC_FINAL | ClassFileWriter.ACC_SUPER | ClassFileWriter.ACC_SYNTHETIC,
+                internalName(lookup.lookupClass()) + "$$Invoker",
+                internalName(Object.class),
+                internalName(type)
+        );
+        writer.defaultConstructor(internalName(Object.class));
+
+        var slots = 2;
+        for (val parameter : parameters) {
+            slots += parameter == long.class || parameter == double.class ? 2 : 1;
+        }
+        val samDescriptor = MethodType.methodType(samReturnType, sam.getParameterTypes()).toMethodDescriptorString();
+        val code = writer.method(ClassFileWriter.ACC_PUBLIC, sam.getName(), samDescriptor, slots, sam.getParameterCount() + 1);
+
+        val isStatic = Modifier.isStatic(method.getModifiers());
+        if (!isStatic) {
+            code.varInsn(Code.ALOAD, 1).unbox(declaring);
+        }
+        for (int i = 0; i < parameters.length; i++) {
+            code.varInsn(Code.ALOAD, i + 2).unbox(parameters[i]);
+        }
+        code.methodInsn(
+                isStatic ? Code.INVOKESTATIC : declaring.isInterface() ? Code.INVOKEINTERFACE : Code.INVOKEVIRTUAL,
+                internalName(declaring),
+                method.getName(),
+                MethodType.methodType(returnType, parameters).toMethodDescriptorString(),
+                declaring.isInterface()
+        );
+        if (returnType == void.class && samReturnType != void.class) {
+            code.insn(Code.ACONST_NULL);
+        } else if (!samReturnType.isPrimitive()) {
+            code.box(returnType).unbox(samReturnType);
+        }
+        code.returnValue(samReturnType).end();
+
+        final MethodHandles.Lookup hidden;
+        final MethodHandle factory;
+        try {
+            hidden = lookup.defineHiddenClass(writer.toByteArray(), true, MethodHandles.Lookup.ClassOption.NESTMATE);
+            factory = hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class));
+        } catch (IllegalAccessException | NoSuchMethodException e) {
+            throw new RuntimeException(
+                    String.format("Failed to define invoker class for %s::%s!", declaring, method.getName()), e
+            );
+        }
+        return (T) instantiate(factory);
+    }
+
+    private boolean isIntLike(@NotNull final Class<?> type) {
+        return type == int.class || type == short.class || type == char.class || type == byte.class;
+    }
+
+    /**
+     * Calls a factory without parameters, which neither lambdas nor generated classes let throw
+     * checked exceptions.
+     */
+    private @NotNull Object instantiate(@NotNull final MethodHandle factory) {
+        try {
+            return factory.invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Implements {@code type} by invoking the handle, whose type must be the erased type of the
+     * interface method.
+     */
+    <T> @NotNull T bind(
+            @NotNull final Class<T> type,
+            @NotNull final MethodHandle handle
+    ) {
+        val binder = HANDLE_BINDERS.get(type);
+        if (binder == null) {
+            throw new IllegalArgumentException(String.format("No handle binder for %s!", type));
+        }
+        return (T) binder.apply(handle);
+    }
+
+    /**
+     * Returns a lookup that may spin lambdas calling members of the target class, or
+     * {@code null} if there is none.
+     */
+    @Nullable MethodHandles.Lookup lookupFor(
+            @NotNull final Class<?> target,
+            @NotNull final Class<?> type,
+            final boolean publicMember
+    ) {
+        // The lambda is defined next to the target, so the target's loader must see the interface.
+        if (HiddenClasses.isVisible(type, target.getClassLoader())) {
+            try {
+                val lookup = MethodHandles.privateLookupIn(target, MethodHandles.lookup());
+                if (lookup.hasFullPrivilegeAccess()) {
+                    return lookup;
+                }
+            } catch (IllegalAccessException | SecurityException ignored) {
+                // Not open to us, try our own lookup.
+            }
+        }
+
+        if (publicMember && Modifier.isPublic(target.getModifiers())
+                && HiddenClasses.isVisible(target, DirectInvokers.class.getClassLoader())) {
+            return MethodHandles.lookup();
+        }
+        return null;
+    }
+
+    @NotNull Method samOf(@NotNull final Class<?> type) {
+        for (val method : type.getMethods()) {
+            if (Modifier.isAbstract(method.getModifiers())) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException(String.format("%s is not a functional interface!", type));
+    }
+
+    private <E extends Throwable> E sneakyThrow(@NotNull final Throwable throwable) throws E {
+        throw (E) throwable;
+    }
+
+}
@@ -0,0 +1,528 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect;
+
+import lombok.val;
+import net.clydo.clytil.Validates;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Calls a method by name, choosing the overload for the runtime classes of the arguments.
+ * <p>
+ * Overloads are resolved like the compiler would if the static types of the arguments were
+ * their runtime classes, in three phases: by subtyping, then with unboxing and primitive
+ * widening, then as varargs; the most specific applicable overload wins and a {@code null}
+ * argument matches every reference type. Candidates are the methods of the class with the
+ * name, including inherited and non-public ones, but not bridge or synthetic methods, which
+ * the compiler does not see either.
+ * <p>
+ * Resolutions are cached by the tuple of argument classes: the first few shapes in an inline
+ * cache compared without hashing, further shapes in a hash table. Calls with a known shape
+ * neither resolve nor allocate beyond the call itself. Exceptions of the method propagate
+ * unwrapped.
+ */
+public final class DynamicInvoker {
+
+    private static final int INLINE_CACHE_SIZE = 4;
+    private static final int MEGAMORPHIC_LIMIT = 1024;
+
+    private static final ClassValue<Map<String, DynamicInvoker>> INVOKERS = new ClassValue<>() {
+        @Override
+        protected Map<String, DynamicInvoker> computeValue(@NotNull final Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final Target[] EMPTY = new Target[0];
+
+    private final Class<?> type;
+    private final String name;
+    private final Method[] overloads;
+
+    private volatile Target[] inlineCache = EMPTY;
+    private volatile @Nullable Target @Nullable [] megamorphicCache;
+    private int megamorphicSize;
+
+    private DynamicInvoker(
+            @NotNull final Class<?> type,
+            @NotNull final String name,
+            @NotNull final Method @NotNull [] overloads
+    ) {
+        this.type = type;
+        this.name = name;
+        this.overloads = overloads;
+    }
+
+    /**
+     * Returns the shared invoker of the methods with the name.
+     *
+     * @param type the class
+     * @param name the method name
+     * @return the invoker
+     * @throws IllegalArgumentException if the class has no method with the name
+     */
+    public static @NotNull DynamicInvoker of(
+            @NotNull final Class<?> type,
+            @NotNull final String name
+    ) {
+        Validates.require(type, "type");
+        Validates.require(name, "name");
+
+        val invokers = INVOKERS.get(type);
+        val invoker = invokers.get(name);
+        if (invoker != null) {
+            return invoker;
+        }
+
+        val overloads = Arrays.stream(ClassMembers.of(type).methods(name))
+                .filter(method -> !method.isBridge() && !method.isSynthetic())
+                .toArray(Method[]::new);
+        if (overloads.length == 0) {
+            throw new IllegalArgumentException(String.format("No method %s::%s!", type, name));
+        }
+        return invokers.computeIfAbsent(name, key -> new DynamicInvoker(type, key, overloads));
+    }
+
+    /**
+     * Calls the overload applicable to the arguments.
+     *
+     * @param owner the owner, ignored by static methods
+     * @param args  the arguments
+     * @return the result, {@code null} for void methods
+     * @throws IllegalArgumentException if no overload or more than one is applicable
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R invoke(
+            @Nullable final Object owner,
+            @Nullable final Object @NotNull ... args
+    ) {
+        val target = this.target(args);
+        if (owner == null && !target.isStatic) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "Owner cannot be null for non-static method %s::%s",
+                            this.type, this.name
+                    )
+            );
+        }
+
+        try {
+            return (R) (Object) target.handle.invokeExact(owner, args);
+        } catch (Throwable e) {
+            throw DynamicInvoker.<RuntimeException>sneakyThrow(e);
+        }
+    }
+
+    /**
+     * Returns the overload chosen for arguments of the classes, {@code null} standing for a
+     * {@code null} argument.
+     *
+     * @param argumentTypes the argument classes
+     * @return the overload
+     * @throws IllegalArgumentException if no overload or more than one is applicable
+     */
+    public @NotNull Method resolve(@Nullable final Class<?> @NotNull ... argumentTypes) {
+        Validates.require(argumentTypes, "argumentTypes");
+
+        return this.resolution(argumentTypes).method();
+    }
+
+    public @NotNull Class<?> type() {
+        return this.type;
+    }
+
+    public @NotNull String name() {
+        return this.name;
+    }
+
+    private @NotNull Resolution resolution(@Nullable final Class<?> @NotNull [] argumentTypes) {
+        for (val phase : Phase.values()) {
+            val candidates = new ArrayList<Method>(2);
+            for (val method : this.overloads) {
+                if (phase.isApplicable(method, argumentTypes)) {
+                    candidates.add(method);
+                }
+            }
+            if (candidates.isEmpty()) {
+                continue;
+            }
+
+            val mostSpecific = mostSpecific(candidates, phase, argumentTypes.length);
+            if (mostSpecific.size() > 1) {
+                throw new IllegalArgumentException(
+                        String.format(
+                                "Ambiguous call of %s::%s(%s), candidates %s!",
+                                this.type, this.name, describe(argumentTypes), mostSpecific
+                        )
+                );
+            }
+            return new Resolution(mostSpecific.get(0), phase);
+        }
+
+        throw new IllegalArgumentException(
+                String.format(
+                        "No method %s::%s applicable to (%s)!",
+                        this.type, this.name, describe(argumentTypes)
+                )
+        );
+    }
+
+    private @NotNull Target target(@Nullable final Object @NotNull [] args) {
+        for (val target : this.inlineCache) {
+            if (target.matches(args)) {
+                return target;
+            }
+        }
+
+        val hash = hash(args);
+        val target = this.megamorphicTarget(args, hash);
+        return target != null ? target : this.link(args, hash);
+    }
+
+    private @Nullable Target megamorphicTarget(@Nullable final Object @NotNull [] args, final int hash) {
+        val megamorphic = this.megamorphicCache;
+        if (megamorphic == null) {
+            return null;
+        }
+
+        val mask = megamorphic.length - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            val target = megamorphic[i];
+            if (target == null) {
+                return null;
+            }
+            if (target.hash == hash && target.matches(args)) {
+                return target;
+            }
+        }
+    }
+
+    private synchronized @NotNull Target link(@Nullable final Object @NotNull [] args, final int hash) {
+        // Another thread may have linked the shape meanwhile.
+        for (val target : this.inlineCache) {
+            if (target.matches(args)) {
+                return target;
+            }
+        }
+        val linked = this.megamorphicTarget(args, hash);
+        if (linked != null) {
+            return linked;
+        }
+
+        val shape = new Class<?>[args.length];
+        for (int i = 0; i < args.length; i++) {
+            shape[i] = args[i] != null ? args[i].getClass() : null;
+        }
+
+        val resolution = this.resolution(shape);
+        val method = resolution.method();
+        val target = new Target(
+                shape, hash, Modifier.isStatic(method.getModifiers()),
+                handle(method, args.length, resolution.phase() == Phase.VARARGS)
+        );
+
+        val inline = this.inlineCache;
+        if (inline.length < INLINE_CACHE_SIZE) {
+            val extended = Arrays.copyOf(inline, inline.length + 1);
+            extended[inline.length] = target;
+            this.inlineCache = extended;
+            return target;
+        }
+
+        var megamorphic = this.megamorphicCache;
+        if (megamorphic == null || this.megamorphicSize >= MEGAMORPHIC_LIMIT) {
+            megamorphic = new Target[16];
+            this.megamorphicSize = 0;
+        } else if ((this.megamorphicSize + 1) * 2 > megamorphic.length) {
+            val resized = new Target[megamorphic.length * 2];
+            for (val existing : megamorphic) {
+                if (existing != null) {
+                    insert(resized, existing);
+                }
+            }
+            megamorphic = resized;
+        } else {
+            megamorphic = megamorphic.clone();
+        }
+        insert(megamorphic, target);
+        this.megamorphicSize++;
+        this.megamorphicCache = megamorphic;
+        return target;
+    }
+
+    /**
+     * Returns a handle of type {@code (Object, Object[])Object} calling the method with the
+     * arguments, collecting trailing ones into the varargs array if they do not fit otherwise.
+     */
+    private static @NotNull MethodHandle handle(
+            @NotNull final Method method,
+            final int argumentCount,
+            final boolean collectVarargs
+    ) {
+        try {
+            // Made accessible on a private copy, the method itself is handed out by resolve.
+            val accessible = ClassMembers.copy(method);
+            accessible.setAccessible(true);
+            var handle = MethodHandles.lookup().unreflect(accessible).asFixedArity();
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+
+            val parameterCount = method.getParameterCount();
+            if (collectVarargs) {
+                val arrayType = method.getParameterTypes()[parameterCount - 1];
+                handle = handle.asCollector(parameterCount, arrayType, argumentCount - parameterCount + 1);
+            }
+            return handle.asType(MethodType.genericMethodType(argumentCount + 1))
+                    .asSpreader(Object[].class, argumentCount);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new RuntimeException(
+                    String.format(
+                            "Failed to link method %s::%s(%s)!",
+                            method.getDeclaringClass(), method.getName(), describe(method.getParameterTypes())
+                    ), e
+            );
+        }
+    }
+
+    private static @NotNull List<Method> mostSpecific(
+            @NotNull final List<Method> candidates,
+            @NotNull final Phase phase,
+            final int argumentCount
+    ) {
+        val mostSpecific = new ArrayList<Method>(1);
+        for (val candidate : candidates) {
+            var maximal = true;
+            for (val other : candidates) {
+                if (other != candidate
+                        && isMoreSpecific(other, candidate, phase, argumentCount)
+                        && !isMoreSpecific(candidate, other, phase, argumentCount)) {
+                    maximal = false;
+                    break;
+                }
+            }
+            if (maximal) {
+                mostSpecific.add(candidate);
+            }
+        }
+        return mostSpecific;
+    }
+
+    private static boolean isMoreSpecific(
+            @NotNull final Method method,
+            @NotNull final Method other,
+            @NotNull final Phase phase,
+            final int argumentCount
+    ) {
+        val parameters = method.getParameterTypes();
+        val otherParameters = other.getParameterTypes();
+        // Varargs overloads are compared on their expanded parameters, at least one of the array.
+        val count = phase == Phase.VARARGS
+                ? Math.max(argumentCount, Math.max(parameters.length, otherParameters.length))
+                : parameters.length;
+        for (int i = 0; i < count; i++) {
+            if (!isSubtype(parameterType(parameters, i, phase), parameterType(otherParameters, i, phase))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static @NotNull Class<?> parameterType(
+            @NotNull final Class<?> @NotNull [] parameters,
+            final int index,
+            @NotNull final Phase phase
+    ) {
+        if (phase == Phase.VARARGS && index >= parameters.length - 1) {
+            return parameters[parameters.length - 1].getComponentType();
+        }
+        return parameters[index];
+    }
+
+    /**
+     * Returns whether an argument of the class converts to the parameter type, {@code null}
+     * being the null type.
+     */
+    private static boolean isConvertible(
+            @NotNull final Class<?> parameter,
+            @Nullable final Class<?> argument,
+            final boolean unboxing
+    ) {
+        if (argument == null) {
+            return !parameter.isPrimitive();
+        }
+        if (!parameter.isPrimitive()) {
+            return parameter.isAssignableFrom(argument);
+        }
+        if (!unboxing) {
+            return false;
+        }
+
+        val primitive = MethodType.methodType(argument).unwrap().returnType();
+        return primitive.isPrimitive() && isSubtype(primitive, parameter);
+    }
+
+    /**
+     * Subtyping including primitive widening.
+     */
+    private static boolean isSubtype(@NotNull final Class<?> type, @NotNull final Class<?> of) {
+        if (type == of) {
+            return true;
+        }
+        if (type.isPrimitive() != of.isPrimitive()) {
+            return false;
+        }
+        if (!type.isPrimitive()) {
+            return of.isAssignableFrom(type);
+        }
+        // Nothing widens to char, and char does not widen to short.
+        return of != char.class && widening(type) >= 0 && widening(type) < widening(of);
+    }
+
+    private static int widening(@NotNull final Class<?> primitive) {
+        if (primitive == byte.class) {
+            return 0;
+        } else if (primitive == short.class || primitive == char.class) {
+            return 1;
+        } else if (primitive == int.class) {
+            return 2;
+        } else if (primitive == long.class) {
+            return 3;
+        } else if (primitive == float.class) {
+            return 4;
+        } else if (primitive == double.class) {
+            return 5;
+        }
+        return -1;
+    }
+
+    private static int hash(@Nullable final Object @NotNull [] args) {
+        var hash = args.length;
+        for (val arg : args) {
+            hash = hash * 31 + (arg != null ? System.identityHashCode(arg.getClass()) : 0);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static void insert(@Nullable final Target @NotNull [] table, @NotNull final Target target) {
+        val mask = table.length - 1;
+        var i = target.hash & mask;
+        while (table[i] != null) {
+            i = (i + 1) & mask;
+        }
+        table[i] = target;
+    }
+
+    private static @NotNull String describe(@Nullable final Class<?> @NotNull [] types) {
+        return Arrays.stream(types)
+                .map(type -> type != null ? type.getName() : "null")
+                .collect(Collectors.joining(", "));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> E sneakyThrow(@NotNull final Throwable throwable) throws E {
+        throw (E) throwable;
+    }
+
+    private enum Phase {
+        STRICT,
+        LOOSE,
+        VARARGS;
+
+        boolean isApplicable(@NotNull final Method method, @Nullable final Class<?> @NotNull [] arguments) {
+            val parameters = method.getParameterTypes();
+            if (this != VARARGS) {
+                if (parameters.length != arguments.length) {
+                    return false;
+                }
+                for (int i = 0; i < arguments.length; i++) {
+                    if (!isConvertible(parameters[i], arguments[i], this == LOOSE)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            if (!method.isVarArgs() || arguments.length < parameters.length - 1) {
+                return false;
+            }
+            for (int i = 0; i < arguments.length; i++) {
+                if (!isConvertible(parameterType(parameters, i, this), arguments[i], true)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+    private record Resolution(@NotNull Method method, @NotNull Phase phase) {
+    }
+
+    private static final class Target {
+
+        final Class<?>[] shape;
+        final int hash;
+        final boolean isStatic;
+        final MethodHandle handle;
+
+        Target(
+                @Nullable final Class<?> @NotNull [] shape,
+                final int hash,
+                final boolean isStatic,
+                @NotNull final MethodHandle handle
+        ) {
+            this.shape = shape;
+            this.hash = hash;
+            this.isStatic = isStatic;
+            this.handle = handle;
+        }
+
+        boolean matches(@Nullable final Object @NotNull [] args) {
+            val shape = this.shape;
+            if (shape.length != args.length) {
+                return false;
+            }
+            for (int i = 0; i < shape.length; i++) {
+                val arg = args[i];
+                if (shape[i] != (arg != null ? arg.getClass() : null)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
@@ -22,7 +22,7 @@ package net.clydo.clytil.reflect;
 
 public interface FieldValue<O, V> extends FieldSetter<O, V>, FieldGetter<O, V> {
 
-    default FieldValue<O, V> toCacheable() {
+    default CachedFieldValue<O, V> toCacheable() {
         return FieldValues.cacheable(this);
     }
 
@@ -23,11 +23,11 @@ package net.clydo.clytil.reflect;
 import lombok.experimental.UtilityClass;
 import lombok.val;
 import net.clydo.clytil.Validates;
-import net.clydo.clytil.option.Option;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 @SuppressWarnings("unchecked")
 @UtilityClass
@@ -60,31 +60,37 @@ public class FieldValues {
         };
     }
 
-    public <O, V> @NotNull FieldValue<O, V> cacheable(
+    /**
+     * Returns a field value caching the values read through it per owner, see
+     * {@link CachedFieldValue}.
+     *
+     * @param fieldValue the field value to cache
+     * @return the caching field value
+     */
+    public <O, V> @NotNull CachedFieldValue<O, V> cacheable(
             @NotNull final FieldValue<O, V> fieldValue
     ) {
         Validates.require(fieldValue, "field");
 
-        val option = Option.<V>none();
+        return CachedFieldValue.of(fieldValue);
+    }
 
-        return fromLambda(
-                (owner, value) -> {
-                    if (option != null && option.contains(value)) {
-                        return;
-                    }
-
-                    fieldValue.set(owner, value);
-                },
-                owner -> {
-                    if (option.isSome()) {
-                        return option.orNull();
-                    }
-
-                    val value = fieldValue.get(owner);
-                    option.replace(value);
-                    return value;
-                }
-        );
+    /**
+     * Returns a field value caching the values read through it per owner while the owner's
+     * version is unchanged, see {@link CachedFieldValue}.
+     *
+     * @param fieldValue the field value to cache
+     * @param version    the version of an owner
+     * @return the caching field value
+     */
+    public <O, V> @NotNull CachedFieldValue<O, V> cacheable(
+            @NotNull final FieldValue<O, V> fieldValue,
+            @NotNull final ToLongFunction<? super O> version
+    ) {
+        Validates.require(fieldValue, "field");
+        Validates.require(version, "version");
+
+        return CachedFieldValue.of(fieldValue, version);
     }
 
     public <O, T> @NotNull FieldValue<O, T> of(
@@ -126,16 +132,7 @@ public class FieldValues {
         Validates.require(clazz, "class");
         Validates.require(name, "name");
 
-        try {
-            return FieldValues.of(Class.forName(clazz), name, setMapper, getMapper);
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException(
-                    String.format(
-                            "Failed to find class %s!",
-                            clazz
-                    ), e
-            );
-        }
+        return FieldValues.of(Classes.require(clazz), name, setMapper, getMapper);
     }
 
     public <O, T> @NotNull FieldValue<O, T> of(
@@ -147,6 +144,17 @@ public class FieldValues {
         Validates.require(clazz, "class");
         Validates.require(name, "name");
 
+        final FieldValue<O, T> generated = AccessorRegistry.field(clazz, name);
+        if (generated != null) {
+            if (setMapper == Function.<T>identity() && getMapper == Function.<T>identity()) {
+                return generated;
+            }
+            return fromLambda(
+                    (owner, value) -> generated.set(owner, setMapper.apply(value)),
+                    owner -> getMapper.apply(generated.get(owner))
+            );
+        }
+
         val field = Reflects.getField(clazz, name);
 
         return FieldValues.of(clazz, field, setMapper, getMapper);
@@ -181,4 +189,27 @@ public class FieldValues {
         );
     }
 
+    /**
+     * Returns a {@link VarHandleFieldValue} of the field, see there.
+     *
+     * @param clazz the class declaring the field
+     * @param name  the field name
+     * @return the field value
+     */
+    public <O, T> @NotNull VarHandleFieldValue<O, T> ofVarHandle(
+            @NotNull final Class<?> clazz,
+            @NotNull final String name
+    ) {
+        Validates.require(clazz, "class");
+        Validates.require(name, "name");
+
+        return VarHandleFieldValue.of(Reflects.getField(clazz, name));
+    }
+
+    public <O, T> @NotNull VarHandleFieldValue<O, T> ofVarHandle(
+            @NotNull final java.lang.reflect.Field field
+    ) {
+        return VarHandleFieldValue.of(field);
+    }
+
 }
@@ -0,0 +1,45 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Makes the {@code clytil} annotation processor generate reflection-free {@link FieldValue},
+ * {@link net.clydo.clytil.reflect.accessor.Accessor Accessor} and {@link Constructor}
+ * implementations for the non-private fields and constructors declared by the class.
+ * <p>
+ * Final instance fields are left to reflection, which can still set them. Setting a static final
+ * field fails either way, with an {@link UnsupportedOperationException} from the generated code.
+ * <p>
+ * {@link FieldValues}, {@link Constructors} and {@code Accessor} find them through
+ * {@link AccessorRegistry} before they fall back to reflection. The annotated class and its
+ * enclosing classes must not be private.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface GenerateAccessors {
+}
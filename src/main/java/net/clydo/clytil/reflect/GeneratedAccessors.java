@@ -0,0 +1,50 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect;
+
+import net.clydo.clytil.reflect.accessor.Accessor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The accessors generated for a class annotated with {@link GenerateAccessors}.
+ *
+ * @see AccessorRegistry
+ */
+public interface GeneratedAccessors {
+
+    /**
+     * Returns a field value of a field declared by the class, or {@code null} if none was generated.
+     */
+    @Nullable FieldValue<?, ?> field(@NotNull final String name);
+
+    /**
+     * Returns an accessor of a field declared by the class, or {@code null} if none was generated.
+     */
+    @Nullable Accessor<?, ?> accessor(@NotNull final String name);
+
+    /**
+     * Returns a factory calling the constructor with the erased parameter types, or {@code null}
+     * if none was generated.
+     */
+    @Nullable Constructor<?> constructor(@NotNull final Class<?> @NotNull ... parameterTypes);
+
+}
@@ -0,0 +1,106 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect;
+
+import lombok.experimental.UtilityClass;
+import lombok.val;
+import net.clydo.clytil.reflect.bytecode.ClassFileWriter;
+import net.clydo.clytil.reflect.bytecode.ClassFileWriter.Code;
+import net.clydo.clytil.reflect.bytecode.HiddenClasses;
+import net.clydo.clytil.reflect.bytecode.Unboxing;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import static net.clydo.clytil.reflect.bytecode.ClassFileWriter.internalName;
+
+/**
+ * Spins a hidden class implementing {@link Constructor} for one constructor.
+ * <p>
+ * The generated {@code newInstance} reads the arguments from the array, casts or unboxes each to
+ * its parameter type, widening primitives like reflection does, and calls the constructor with
+ * {@code invokespecial}, just like compiled code. The hidden class is a nestmate of the constructed class, so private constructors work as
+ * well. The argument count is not checked; a short array fails with
+ * {@link ArrayIndexOutOfBoundsException}, a mistyped argument with {@link ClassCastException}.
+ * <p>
+ * Like the hidden accessors, this needs a lookup with full privilege access to the class and
+ * {@link Constructor} and {@link Unboxing} visible from its loader, otherwise {@code null} is
+ * returned.
+ */
+@UtilityClass
+class HiddenConstructors {
+
+    private final String CONSTRUCTOR = internalName(Constructor.class);
+    private final String OBJECT = internalName(Object.class);
+
+    <T> @Nullable Constructor<T> of(@NotNull final java.lang.reflect.Constructor<T> constructor) {
+        val host = constructor.getDeclaringClass();
+        val lookup = HiddenClasses.lookupIn(host, Constructor.class);
+        if (lookup == null
+                || !HiddenClasses.isVisible(Unboxing.class, host.getClassLoader())
+                || !HiddenClasses.isAccessible(lookup, constructor.getParameterTypes())) {
+            return null;
+        }
+
+        val writer = new ClassFileWriter(
+                ClassFileWriter.ACC_FINAL | ClassFileWriter.ACC_SUPER | ClassFileWriter.ACC_SYNTHETIC,
+                internalName(host) + "$$Constructor",
+                OBJECT,
+                CONSTRUCTOR
+        );
+        writer.defaultConstructor(OBJECT);
+
+        val owner = internalName(host);
+        val parameters = constructor.getParameterTypes();
+        // The instance twice, the array, the index and a wide argument on top of the others.
+        var maxStack = 5;
+        for (val parameter : parameters) {
+            maxStack += parameter == long.class || parameter == double.class ? 2 : 1;
+        }
+
+        val code = writer.method(ClassFileWriter.ACC_PUBLIC, "newInstance", "([Ljava/lang/Object;)Ljava/lang/Object;", maxStack, 2)
+                .typeInsn(Code.NEW, owner)
+                .insn(Code.DUP);
+        for (int i = 0; i < parameters.length; i++) {
+            code.varInsn(Code.ALOAD, 1)
+                    .push(i)
+                    .insn(Code.AALOAD)
+                    .unboxWidening(parameters[i]);
+        }
+        code.methodInsn(Code.INVOKESPECIAL, owner, "<init>", MethodType.methodType(void.class, parameters).toMethodDescriptorString(), false)
+                .insn(Code.ARETURN)
+                .end();
+
+        try {
+            val hidden = lookup.defineHiddenClass(writer.toByteArray(), true, MethodHandles.Lookup.ClassOption.NESTMATE);
+            @SuppressWarnings("unchecked")
+            val instance = (Constructor<T>) hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class)).invoke();
+            return instance;
+        } catch (Throwable e) {
+            throw new RuntimeException(
+                    String.format("Failed to define constructor class in %s!", lookup.lookupClass()), e
+            );
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect;
+
+import net.clydo.clytil.stats.MaxNanos;
+import net.clydo.clytil.stats.NanosHistogram;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The striped counters behind {@link InvocationStats}.
+ */
+final class InvocationCounter {
+
+    private final String name;
+    private final LongAdder callCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final NanosHistogram nanosHistogram = new NanosHistogram();
+    private final MaxNanos<Void> maxNanos = new MaxNanos<>();
+
+    InvocationCounter(@NotNull final String name) {
+        this.name = name;
+    }
+
+    void record(final long nanos, final boolean failed) {
+        this.callCount.increment();
+        if (failed) {
+            this.failureCount.increment();
+        }
+        this.totalNanos.add(nanos);
+        this.nanosHistogram.record(nanos);
+        this.maxNanos.record(nanos, null);
+    }
+
+    @NotNull InvocationStats snapshot() {
+        return new InvocationStats(
+                this.name,
+                this.callCount.sum(),
+                this.failureCount.sum(),
+                this.totalNanos.sum(),
+                this.maxNanos.nanos(),
+                this.nanosHistogram.snapshot()
+        );
+    }
+
+    void reset() {
+        this.callCount.reset();
+        this.failureCount.reset();
+        this.totalNanos.reset();
+        this.nanosHistogram.reset();
+        this.maxNanos.reset();
+    }
+
+}
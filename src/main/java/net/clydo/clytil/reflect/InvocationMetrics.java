@@ -0,0 +1,213 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect;
+
+import lombok.experimental.UtilityClass;
+import lombok.val;
+import net.clydo.clytil.Validates;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opt-in call metrics of {@link MethodInvoker}s, {@link Constructor}s and {@link FieldValue}s,
+ * to find out which reflective paths are worth a faster backend.
+ * <p>
+ * {@code track} wraps an invoker and records its calls, failures and call times under a name;
+ * wrappers tracked under the same name share their counters. Counters are striped, so tracking
+ * adds little contention, and while metrics are {@link #setEnabled(boolean) disabled} the
+ * wrappers only read a flag before calling through. Field values record reads under
+ * {@code name.get} and writes under {@code name.set}.
+ */
+@UtilityClass
+public class InvocationMetrics {
+
+    private final Map<String, InvocationCounter> COUNTERS = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts or stops recording in all wrappers, which keep their counters.
+     */
+    public void setEnabled(final boolean enabled) {
+        InvocationMetrics.enabled = enabled;
+    }
+
+    @Contract("_, _ -> new")
+    public <O, R> @NotNull MethodInvoker<O, R> track(
+            @NotNull final String name,
+            @NotNull final MethodInvoker<O, R> invoker
+    ) {
+        Validates.require(invoker, "invoker");
+        val counter = counter(name);
+
+        return (owner, args) -> {
+            if (!enabled) {
+                return invoker.invoke(owner, args);
+            }
+
+            val start = System.nanoTime();
+            var failed = true;
+            try {
+                val result = invoker.invoke(owner, args);
+                failed = false;
+                return result;
+            } finally {
+                counter.record(System.nanoTime() - start, failed);
+            }
+        };
+    }
+
+    @Contract("_, _ -> new")
+    public <T> @NotNull Constructor<T> track(
+            @NotNull final String name,
+            @NotNull final Constructor<T> constructor
+    ) {
+        Validates.require(constructor, "constructor");
+        val counter = counter(name);
+
+        return args -> {
+            if (!enabled) {
+                return constructor.newInstance(args);
+            }
+
+            val start = System.nanoTime();
+            var failed = true;
+            try {
+                val instance = constructor.newInstance(args);
+                failed = false;
+                return instance;
+            } finally {
+                counter.record(System.nanoTime() - start, failed);
+            }
+        };
+    }
+
+    @Contract("_, _ -> new")
+    public <O, V> @NotNull FieldValue<O, V> track(
+            @NotNull final String name,
+            @NotNull final FieldValue<O, V> fieldValue
+    ) {
+        Validates.require(fieldValue, "fieldValue");
+        val getCounter = counter(name + ".get");
+        val setCounter = counter(name + ".set");
+
+        return FieldValues.fromLambda(
+                (owner, value) -> {
+                    if (!enabled) {
+                        fieldValue.set(owner, value);
+                        return;
+                    }
+
+                    val start = System.nanoTime();
+                    var failed = true;
+                    try {
+                        fieldValue.set(owner, value);
+                        failed = false;
+                    } finally {
+                        setCounter.record(System.nanoTime() - start, failed);
+                    }
+                },
+                owner -> {
+                    if (!enabled) {
+                        return fieldValue.get(owner);
+                    }
+
+                    val start = System.nanoTime();
+                    var failed = true;
+                    try {
+                        val value = fieldValue.get(owner);
+                        failed = false;
+                        return value;
+                    } finally {
+                        getCounter.record(System.nanoTime() - start, failed);
+                    }
+                }
+        );
+    }
+
+    public @Nullable InvocationStats stats(@NotNull final String name) {
+        Validates.require(name, "name");
+
+        val counter = COUNTERS.get(name);
+        return counter != null ? counter.snapshot() : null;
+    }
+
+    /**
+     * Returns the stats of all names, in name order.
+     */
+    public @NotNull @Unmodifiable Map<String, InvocationStats> snapshot() {
+        val snapshot = new TreeMap<String, InvocationStats>();
+        for (val entry : COUNTERS.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * Returns a table of the stats of all called names, the most called first.
+     */
+    public @NotNull String dump() {
+        val stats = new ArrayList<>(snapshot().values());
+        stats.removeIf(stat -> stat.callCount() == 0L);
+        stats.sort(Comparator.comparingLong(InvocationStats::callCount).reversed());
+
+        val builder = new StringBuilder(String.format(
+                "%-48s %12s %10s %12s %12s %12s%n", "name", "calls", "failures", "avg ns", "p99 ns", "max ns"
+        ));
+        for (val stat : stats) {
+            builder.append(String.format(
+                    "%-48s %12d %10d %12.1f %12d %12d%n",
+                    stat.name(), stat.callCount(), stat.failureCount(),
+                    stat.averageNanos(), stat.quantileNanos(0.99d), stat.maxNanos()
+            ));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Zeroes all counters; wrappers keep recording into them.
+     */
+    public void reset() {
+        for (val counter : COUNTERS.values()) {
+            counter.reset();
+        }
+    }
+
+    private @NotNull InvocationCounter counter(@NotNull final String name) {
+        Validates.require(name, "name");
+
+        return COUNTERS.computeIfAbsent(name, InvocationCounter::new);
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect;
+
+import lombok.Value;
+import lombok.experimental.Accessors;
+import net.clydo.clytil.stats.NanosHistogram;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A snapshot of the calls recorded for one name by {@link InvocationMetrics}.
+ */
+@Accessors(fluent = true)
+@Value
+public class InvocationStats {
+
+    public static final int HISTOGRAM_BUCKETS = NanosHistogram.BUCKETS;
+
+    @NotNull String name;
+    long callCount;
+    long failureCount;
+    long totalNanos;
+    long maxNanos;
+    long[] nanosHistogram;
+
+    public InvocationStats(
+            @NotNull final String name,
+            final long callCount,
+            final long failureCount,
+            final long totalNanos,
+            final long maxNanos,
+            final long @NotNull [] nanosHistogram
+    ) {
+        this.name = name;
+        this.callCount = callCount;
+        this.failureCount = failureCount;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.nanosHistogram = nanosHistogram.clone();
+    }
+
+    /**
+     * Returns the call time histogram, bucket {@code i} counting calls of less than
+     * {@code 2^i} nanoseconds; the returned array is a copy.
+     */
+    @Contract(pure = true)
+    public long @NotNull [] nanosHistogram() {
+        return this.nanosHistogram.clone();
+    }
+
+    public double averageNanos() {
+        return this.callCount == 0L ? 0.0d : (double) this.totalNanos / this.callCount;
+    }
+
+    /**
+     * Returns an upper bound of the call time below which the given fraction of calls took,
+     * as read from the histogram.
+     *
+     * @param quantile the fraction, between {@code 0} and {@code 1}
+     * @return the time in nanoseconds
+     */
+    public long quantileNanos(final double quantile) {
+        return NanosHistogram.quantileNanos(this.nanosHistogram, this.maxNanos, quantile);
+    }
+
+    /**
+     * Returns the histogram bucket counting a call that took the given time.
+     *
+     * @param nanos the call time in nanoseconds
+     * @return the bucket index
+     */
+    public static int bucketOf(final long nanos) {
+        return NanosHistogram.bucketOf(nanos);
+    }
+
+}
@@ -24,9 +24,17 @@ import lombok.experimental.UtilityClass;
 import lombok.val;
 import net.clydo.clytil.Validates;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.stream.Collectors;
 
+@SuppressWarnings("unchecked")
 @UtilityClass
 public class MethodInvokers {
 
@@ -39,20 +47,11 @@ public class MethodInvokers {
         Validates.require(name, "name");
         Validates.require(parameterTypes, "parameterTypes");
 
-        try {
-            return MethodInvokers.of(
-                    Class.forName(clazz),
-                    name,
-                    parameterTypes
-            );
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException(
-                    String.format(
-                            "Failed to find class %s!",
-                            clazz
-                    ), e
-            );
-        }
+        return MethodInvokers.of(
+                Classes.require(clazz),
+                name,
+                parameterTypes
+        );
     }
 
     public <O, R> MethodInvoker<O, R> of(
@@ -69,6 +68,15 @@ public class MethodInvokers {
         return MethodInvokers.of(clazz, method);
     }
 
+    /**
+     * Returns an invoker taking the arguments as an array. Arguments are converted like
+     * reflection does, e.g. an {@link Integer} is widened for a {@code long} parameter, unlike the
+     * typed invokers of {@link #of0(Method)} to {@link #of3(Method)}, which take the exact wrapper.
+     *
+     * @param clazz  the class the method is called on, for error messages
+     * @param method the method
+     * @return the invoker
+     */
     public <O, R> MethodInvoker<O, R> of(
             @NotNull final Class<?> clazz,
             @NotNull final Method method
@@ -78,7 +86,158 @@ public class MethodInvokers {
 
         method.setAccessible(true);
 
-        return (owner, args) -> Methods.get(clazz, method, owner, args);
+        val isStatic = Modifier.isStatic(method.getModifiers());
+        val handle = spreadHandle(clazz, method, isStatic);
+        return (owner, args) -> {
+            checkCall(clazz, method, isStatic, owner, args);
+            try {
+                return (R) handle.invokeExact(owner, args);
+            } catch (Throwable e) {
+                throw failure(clazz, method, args, e);
+            }
+        };
+    }
+
+    /**
+     * Returns a direct-call invoker of a method without parameters. The owner is ignored for
+     * static methods; exceptions of the method propagate unwrapped.
+     *
+     * @param method the method
+     * @return the invoker
+     */
+    public <O, R> @NotNull MethodInvoker0<O, R> of0(@NotNull final Method method) {
+        Validates.require(method, "method");
+        return DirectInvokers.method(MethodInvoker0.class, method);
+    }
+
+    public <O, A, R> @NotNull MethodInvoker1<O, A, R> of1(@NotNull final Method method) {
+        Validates.require(method, "method");
+        return DirectInvokers.method(MethodInvoker1.class, method);
+    }
+
+    public <O, A, B, R> @NotNull MethodInvoker2<O, A, B, R> of2(@NotNull final Method method) {
+        Validates.require(method, "method");
+        return DirectInvokers.method(MethodInvoker2.class, method);
+    }
+
+    public <O, A, B, C, R> @NotNull MethodInvoker3<O, A, B, C, R> of3(@NotNull final Method method) {
+        Validates.require(method, "method");
+        return DirectInvokers.method(MethodInvoker3.class, method);
+    }
+
+    /**
+     * Returns a direct-call invoker of a method without parameters returning an {@code int}
+     * or a narrower primitive, without boxing the result.
+     *
+     * @param method the method
+     * @return the invoker
+     */
+    public <O> @NotNull IntMethodInvoker0<O> ofInt0(@NotNull final Method method) {
+        Validates.require(method, "method");
+        return DirectInvokers.method(IntMethodInvoker0.class, method);
+    }
+
+    public <O, A> @NotNull IntMethodInvoker1<O, A> ofInt1(@NotNull final Method method) {
+        Validates.require(method, "method");
+        return DirectInvokers.method(IntMethodInvoker1.class, method);
+    }
+
+    public <O> @NotNull LongMethodInvoker0<O> ofLong0(@NotNull final Method method) {
+        Validates.require(method, "method");
+        return DirectInvokers.method(LongMethodInvoker0.class, method);
+    }
+
+    public <O, A> @NotNull LongMethodInvoker1<O, A> ofLong1(@NotNull final Method method) {
+        Validates.require(method, "method");
+        return DirectInvokers.method(LongMethodInvoker1.class, method);
+    }
+
+    public <O> @NotNull DoubleMethodInvoker0<O> ofDouble0(@NotNull final Method method) {
+        Validates.require(method, "method");
+        return DirectInvokers.method(DoubleMethodInvoker0.class, method);
+    }
+
+    public <O, A> @NotNull DoubleMethodInvoker1<O, A> ofDouble1(@NotNull final Method method) {
+        Validates.require(method, "method");
+        return DirectInvokers.method(DoubleMethodInvoker1.class, method);
+    }
+
+    public <O> @NotNull BooleanMethodInvoker0<O> ofBoolean0(@NotNull final Method method) {
+        Validates.require(method, "method");
+        return DirectInvokers.method(BooleanMethodInvoker0.class, method);
+    }
+
+    public <O, A> @NotNull BooleanMethodInvoker1<O, A> ofBoolean1(@NotNull final Method method) {
+        Validates.require(method, "method");
+        return DirectInvokers.method(BooleanMethodInvoker1.class, method);
+    }
+
+    /**
+     * Returns a handle of type {@code (Object, Object[])Object} calling the method, converting
+     * the arguments like reflection.
+     */
+    private @NotNull MethodHandle spreadHandle(
+            @NotNull final Class<?> clazz,
+            @NotNull final Method method,
+            final boolean isStatic
+    ) {
+        try {
+            var handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+            if (isStatic) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            val parameterCount = method.getParameterCount();
+            return handle.asType(MethodType.genericMethodType(parameterCount + 1))
+                    .asSpreader(Object[].class, parameterCount);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(
+                    String.format(
+                            "Failed to access method %s::%s!",
+                            clazz, method.getName()
+                    ), e
+            );
+        }
+    }
+
+    private void checkCall(
+            @NotNull final Class<?> clazz,
+            @NotNull final Method method,
+            final boolean isStatic,
+            @Nullable final Object owner,
+            @NotNull final Object @NotNull [] args
+    ) {
+        if (owner == null && !isStatic) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "Owner cannot be null for non-static method %s::%s",
+                            clazz, method.getName()
+                    )
+            );
+        }
+        if (args.length != method.getParameterCount()) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "Method %s::%s takes %d args but got %d!",
+                            clazz, method.getName(), method.getParameterCount(), args.length
+                    )
+            );
+        }
+    }
+
+    private @NotNull RuntimeException failure(
+            @NotNull final Class<?> clazz,
+            @NotNull final Method method,
+            @NotNull final Object @NotNull [] args,
+            @NotNull final Throwable cause
+    ) {
+        return new RuntimeException(
+                String.format(
+                        "Failed to call %s::%s(%s) with args [%s]!",
+                        clazz, method.getName(),
+                        Arrays.stream(method.getParameterTypes()).map(Class::getName).collect(Collectors.joining(", ")),
+                        Arrays.stream(args).map(String::valueOf).collect(Collectors.joining(", "))
+                ), cause
+        );
     }
 
 }
@@ -90,4 +90,23 @@ public class Methods {
         }
     }
 
+    /**
+     * Calls the overload of the method applicable to the runtime classes of the arguments, see
+     * {@link DynamicInvoker}.
+     *
+     * @param clazz the class
+     * @param name  the method name
+     * @param owner the owner, ignored by static methods
+     * @param args  the arguments
+     * @return the result, {@code null} for void methods
+     */
+    public <R> R invoke(
+            @NotNull final Class<?> clazz,
+            @NotNull final String name,
+            @Nullable final Object owner,
+            @Nullable final Object @NotNull ... args
+    ) {
+        return DynamicInvoker.of(clazz, name).invoke(owner, args);
+    }
+
 }
@@ -0,0 +1,140 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect;
+
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * Maps a fixed set of names to their indexes with a perfect hash.
+ * <p>
+ * A multiplier is searched at construction such that the top bits of the multiplied
+ * {@link String#hashCode()} of every name select a distinct slot, so a lookup hashes once, loads
+ * one slot and compares one name. The hash code is cached by the string, so repeated lookups with
+ * the same string do not rehash. Names with equal hash codes cannot be separated this way and
+ * fall back to a {@link HashMap}.
+ */
+final class NameIndex {
+
+    private static final int MAX_SEEDS_PER_SIZE = 64;
+    private static final int MAX_LOAD_SHIFT = 6;
+    private static final int MAX_BITS = 30;
+
+    private final String[] names;
+    private final int[] table;
+    private final int seed;
+    private final int shift;
+    private final @Nullable Map<String, Integer> fallback;
+
+    NameIndex(@NotNull final String @NotNull [] names) {
+        this.names = names.clone();
+
+        if (names.length == 0) {
+            // Both slots a shift by 31 can select are empty.
+            this.table = new int[]{-1, -1};
+            this.seed = 1;
+            this.shift = 31;
+            this.fallback = null;
+            return;
+        }
+
+        val hashes = new HashSet<Integer>();
+        for (val name : names) {
+            hashes.add(spread(name.hashCode()));
+        }
+
+        if (hashes.size() == names.length) {
+            val minBits = Math.max(1, 32 - Integer.numberOfLeadingZeros(names.length * 2 - 1));
+            val maxBits = Math.min(MAX_BITS, minBits + MAX_LOAD_SHIFT);
+            for (int bits = minBits; bits <= maxBits; bits++) {
+                val table = new int[1 << bits];
+                for (int attempt = 0; attempt < MAX_SEEDS_PER_SIZE; attempt++) {
+                    val seed = (attempt * 0x9E3779B9) | 1;
+                    if (this.fill(table, seed, 32 - bits)) {
+                        this.table = table;
+                        this.seed = seed;
+                        this.shift = 32 - bits;
+                        this.fallback = null;
+                        return;
+                    }
+                }
+            }
+        }
+
+        this.table = new int[0];
+        this.seed = 0;
+        this.shift = 0;
+        this.fallback = fallback(names);
+    }
+
+    /**
+     * Returns the index of the name, or {@code -1} if it is not in the index.
+     */
+    int indexOf(@NotNull final String name) {
+        val fallback = this.fallback;
+        if (fallback != null) {
+            val index = fallback.get(name);
+            return index != null ? index : -1;
+        }
+
+        val index = this.table[(spread(name.hashCode()) * this.seed) >>> this.shift];
+        return index >= 0 && this.names[index].equals(name) ? index : -1;
+    }
+
+    int size() {
+        return this.names.length;
+    }
+
+    private boolean fill(
+            final int @NotNull [] table,
+            final int seed,
+            final int shift
+    ) {
+        Arrays.fill(table, -1);
+        for (int i = 0; i < this.names.length; i++) {
+            val slot = (spread(this.names[i].hashCode()) * seed) >>> shift;
+            if (table[slot] >= 0) {
+                return false;
+            }
+            table[slot] = i;
+        }
+        return true;
+    }
+
+    private static @NotNull Map<String, Integer> fallback(@NotNull final String @NotNull [] names) {
+        val fallback = new HashMap<String, Integer>(names.length * 2);
+        for (int i = 0; i < names.length; i++) {
+            fallback.put(names[i], i);
+        }
+        return fallback;
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+}
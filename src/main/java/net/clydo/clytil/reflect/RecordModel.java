@@ -0,0 +1,378 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect;
+
+import lombok.val;
+import net.clydo.clytil.Validates;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.RecordComponent;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The components and the canonical constructor of a record class, discovered once per class.
+ * <p>
+ * Components are addressed by their index in declaration order. Each is read through a
+ * direct-call invoker of its accessor, see {@link MethodInvokers#of0(java.lang.reflect.Method)},
+ * and primitive components additionally through an unboxed one, so e.g. {@link #getInt} never
+ * boxes. Records are created through a hidden class calling the canonical constructor like
+ * compiled code, see {@link HiddenConstructors}, or through {@link Constructors} where no hidden
+ * class can be defined. Converting a record to or from an array therefore costs about as much as
+ * the hand-written code.
+ *
+ * @param <R> the record class
+ */
+@SuppressWarnings("unchecked")
+public final class RecordModel<R extends Record> {
+
+    private static final ClassValue<RecordModel<?>> MODELS = new ClassValue<>() {
+        @Override
+        protected RecordModel<?> computeValue(@NotNull final Class<?> type) {
+            return new RecordModel<>((Class<? extends Record>) type);
+        }
+    };
+
+    private final Class<R> type;
+    private final RecordComponent[] components;
+    private final String[] names;
+    private final Class<?>[] types;
+    private final Object[] defaults;
+    private final NameIndex indexes;
+    private final MethodInvoker0<R, Object>[] getters;
+    private final IntMethodInvoker0<R>[] intGetters;
+    private final LongMethodInvoker0<R>[] longGetters;
+    private final DoubleMethodInvoker0<R>[] doubleGetters;
+    private final BooleanMethodInvoker0<R>[] booleanGetters;
+    private final Constructor<R> constructor;
+
+    private RecordModel(@NotNull final Class<R> type) {
+        this.type = type;
+        this.components = type.getRecordComponents();
+
+        val size = this.components.length;
+        this.names = new String[size];
+        this.types = new Class<?>[size];
+        this.defaults = new Object[size];
+        this.getters = (MethodInvoker0<R, Object>[]) new MethodInvoker0<?, ?>[size];
+        this.intGetters = (IntMethodInvoker0<R>[]) new IntMethodInvoker0<?>[size];
+        this.longGetters = (LongMethodInvoker0<R>[]) new LongMethodInvoker0<?>[size];
+        this.doubleGetters = (DoubleMethodInvoker0<R>[]) new DoubleMethodInvoker0<?>[size];
+        this.booleanGetters = (BooleanMethodInvoker0<R>[]) new BooleanMethodInvoker0<?>[size];
+
+        for (int i = 0; i < size; i++) {
+            val component = this.components[i];
+            val accessor = component.getAccessor();
+            val componentType = component.getType();
+            accessor.trySetAccessible();
+
+            this.names[i] = component.getName();
+            this.types[i] = componentType;
+            this.getters[i] = MethodInvokers.of0(accessor);
+            if (componentType == boolean.class) {
+                this.booleanGetters[i] = MethodInvokers.ofBoolean0(accessor);
+                this.defaults[i] = false;
+            } else if (componentType == long.class) {
+                this.longGetters[i] = MethodInvokers.ofLong0(accessor);
+                this.defaults[i] = 0L;
+            } else if (componentType == double.class || componentType == float.class) {
+                this.doubleGetters[i] = MethodInvokers.ofDouble0(accessor);
+                this.defaults[i] = Array.get(Array.newInstance(componentType, 1), 0);
+            } else if (componentType.isPrimitive()) {
+                this.intGetters[i] = MethodInvokers.ofInt0(accessor);
+                this.defaults[i] = Array.get(Array.newInstance(componentType, 1), 0);
+            }
+        }
+
+        this.indexes = new NameIndex(this.names);
+
+        val canonical = Reflects.getConstructor(type, this.types);
+        canonical.trySetAccessible();
+        val hidden = HiddenConstructors.of(canonical);
+        this.constructor = hidden != null ? hidden : Constructors.of(type, canonical);
+    }
+
+    /**
+     * Returns the cached model of the record class.
+     *
+     * @param type the record class
+     * @return the model
+     */
+    public static <R extends Record> @NotNull RecordModel<R> of(@NotNull final Class<R> type) {
+        Validates.require(type, "type");
+        if (!type.isRecord()) {
+            throw new IllegalArgumentException(String.format("%s is not a record!", type.getName()));
+        }
+
+        return (RecordModel<R>) MODELS.get(type);
+    }
+
+    public @NotNull Class<R> type() {
+        return this.type;
+    }
+
+    public int size() {
+        return this.components.length;
+    }
+
+    public @NotNull RecordComponent component(final int index) {
+        return this.components[Objects.checkIndex(index, this.components.length)];
+    }
+
+    public @NotNull String name(final int index) {
+        return this.names[Objects.checkIndex(index, this.names.length)];
+    }
+
+    public @NotNull Class<?> componentType(final int index) {
+        return this.types[Objects.checkIndex(index, this.types.length)];
+    }
+
+    public @NotNull @Unmodifiable List<String> names() {
+        return List.of(this.names);
+    }
+
+    /**
+     * Returns the index of the component, or {@code -1} if the record has no such component.
+     */
+    public int indexOf(@NotNull final String name) {
+        Validates.require(name, "name");
+
+        return this.indexes.indexOf(name);
+    }
+
+    /**
+     * Returns the direct-call invoker of the component accessor, for callers reading one
+     * component of many records.
+     */
+    public @NotNull MethodInvoker0<R, Object> getter(final int index) {
+        return this.getters[Objects.checkIndex(index, this.getters.length)];
+    }
+
+    public @Nullable Object get(
+            @NotNull final R record,
+            final int index
+    ) {
+        Validates.require(record, "record");
+
+        return this.getters[Objects.checkIndex(index, this.getters.length)].invoke(record);
+    }
+
+    public @Nullable Object get(
+            @NotNull final R record,
+            @NotNull final String name
+    ) {
+        return this.get(record, this.requireIndex(name));
+    }
+
+    /**
+     * Reads an {@code int} component, or a narrower integral one, without boxing.
+     *
+     * @throws IllegalArgumentException if the component is of another type
+     */
+    public int getInt(
+            @NotNull final R record,
+            final int index
+    ) {
+        Validates.require(record, "record");
+
+        val getter = this.intGetters[Objects.checkIndex(index, this.intGetters.length)];
+        if (getter == null) {
+            throw this.mismatch(index, int.class);
+        }
+        return getter.invokeInt(record);
+    }
+
+    /**
+     * Reads a {@code long} component, or a narrower integral one, without boxing.
+     *
+     * @throws IllegalArgumentException if the component is of another type
+     */
+    public long getLong(
+            @NotNull final R record,
+            final int index
+    ) {
+        Validates.require(record, "record");
+
+        val getter = this.longGetters[Objects.checkIndex(index, this.longGetters.length)];
+        if (getter != null) {
+            return getter.invokeLong(record);
+        }
+        val intGetter = this.intGetters[index];
+        if (intGetter == null) {
+            throw this.mismatch(index, long.class);
+        }
+        return intGetter.invokeInt(record);
+    }
+
+    /**
+     * Reads a {@code double} component, or any other numeric primitive one, without boxing.
+     *
+     * @throws IllegalArgumentException if the component is of another type
+     */
+    public double getDouble(
+            @NotNull final R record,
+            final int index
+    ) {
+        Validates.require(record, "record");
+
+        val getter = this.doubleGetters[Objects.checkIndex(index, this.doubleGetters.length)];
+        if (getter != null) {
+            return getter.invokeDouble(record);
+        }
+        val longGetter = this.longGetters[index];
+        if (longGetter != null) {
+            return longGetter.invokeLong(record);
+        }
+        val intGetter = this.intGetters[index];
+        if (intGetter == null) {
+            throw this.mismatch(index, double.class);
+        }
+        return intGetter.invokeInt(record);
+    }
+
+    /**
+     * Reads a {@code boolean} component without boxing.
+     *
+     * @throws IllegalArgumentException if the component is of another type
+     */
+    public boolean getBoolean(
+            @NotNull final R record,
+            final int index
+    ) {
+        Validates.require(record, "record");
+
+        val getter = this.booleanGetters[Objects.checkIndex(index, this.booleanGetters.length)];
+        if (getter == null) {
+            throw this.mismatch(index, boolean.class);
+        }
+        return getter.invokeBoolean(record);
+    }
+
+    /**
+     * Returns the components in declaration order.
+     */
+    public @Nullable Object @NotNull [] toArray(@NotNull final R record) {
+        Validates.require(record, "record");
+
+        val getters = this.getters;
+        val values = new Object[getters.length];
+        for (int i = 0; i < getters.length; i++) {
+            values[i] = getters[i].invoke(record);
+        }
+        return values;
+    }
+
+    /**
+     * Returns the components by name, in declaration order.
+     */
+    public @NotNull Map<String, Object> toMap(@NotNull final R record) {
+        Validates.require(record, "record");
+
+        val getters = this.getters;
+        val values = new LinkedHashMap<String, Object>(getters.length * 2);
+        for (int i = 0; i < getters.length; i++) {
+            values.put(this.names[i], getters[i].invoke(record));
+        }
+        return values;
+    }
+
+    /**
+     * Creates a record through the canonical constructor.
+     *
+     * @param args the components in declaration order
+     * @return the record
+     * @throws IllegalArgumentException if the argument count does not match
+     */
+    @Contract("_ -> new")
+    public @NotNull R newInstance(@Nullable final Object @NotNull ... args) {
+        Validates.require(args, "args");
+        if (args.length != this.components.length) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "Record %s has %d components but got %d args!",
+                            this.type.getName(), this.components.length, args.length
+                    )
+            );
+        }
+
+        return this.constructor.newInstance(args);
+    }
+
+    /**
+     * Creates a record from components by name; missing components are {@code null}, or zero
+     * for primitive ones.
+     *
+     * @throws IllegalArgumentException if the map has a name that is no component
+     */
+    @Contract("_ -> new")
+    public @NotNull R fromMap(@NotNull final Map<String, ?> values) {
+        Validates.require(values, "values");
+
+        val args = this.defaults.clone();
+        for (val entry : values.entrySet()) {
+            val value = entry.getValue();
+            val index = this.requireIndex(entry.getKey());
+            if (value != null || !this.types[index].isPrimitive()) {
+                args[index] = value;
+            }
+        }
+        return this.constructor.newInstance(args);
+    }
+
+    /**
+     * Returns a {@link Constructor} taking the components in declaration order.
+     */
+    public @NotNull Constructor<R> constructor() {
+        return this::newInstance;
+    }
+
+    @Override
+    public String toString() {
+        return "RecordModel[" + this.type.getName() + List.of(this.names) + "]";
+    }
+
+    private int requireIndex(@NotNull final String name) {
+        val index = this.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException(String.format("No component %s in %s!", name, this.type.getName()));
+        }
+        return index;
+    }
+
+    private @NotNull IllegalArgumentException mismatch(
+            final int index,
+            @NotNull final Class<?> expected
+    ) {
+        return new IllegalArgumentException(
+                String.format(
+                        "Component %s of %s is of type %s, not %s!",
+                        this.names[index], this.type.getName(), this.types[index].getName(), expected.getName()
+                )
+        );
+    }
+
+}
@@ -21,8 +21,10 @@
 package net.clydo.clytil.reflect;
 
 import lombok.experimental.UtilityClass;
+import lombok.val;
 import net.clydo.clytil.Validates;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
@@ -30,6 +32,9 @@ import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.stream.Collectors;
 
+/**
+ * Member lookups backed by a per-class index, see {@link #findMethod(Class, String, Class[])}.
+ */
 @UtilityClass
 public class Reflects {
 
@@ -37,21 +42,18 @@ public class Reflects {
             @NotNull final Class<T> clazz,
             @NotNull final Class<?>... parameterTypes
     ) {
-        Validates.require(clazz, "class");
-        Validates.require(parameterTypes, "parameterTypes");
-
-        try {
-            return clazz.getDeclaredConstructor(parameterTypes);
-        } catch (NoSuchMethodException e) {
+        val constructor = findConstructor(clazz, parameterTypes);
+        if (constructor == null) {
             throw new RuntimeException(
                     String.format(
                             "Failed to find %s %s(%s)!",
                             parameterTypes.length == 0 ? "no-arg constructor" : "constructor",
                             clazz,
                             Arrays.stream(parameterTypes).map(Class::getName).collect(Collectors.joining(", "))
-                    ), e
+                    )
             );
         }
+        return constructor;
     }
 
     public Method getMethod(
@@ -59,40 +61,103 @@ public class Reflects {
             @NotNull final String name,
             @NotNull final Class<?>... parameterTypes
     ) {
-        Validates.require(clazz, "class");
-        Validates.require(name, "name");
-        Validates.require(parameterTypes, "parameterTypes");
-
-        try {
-            return clazz.getDeclaredMethod(name, parameterTypes);
-        } catch (NoSuchMethodException e) {
+        val method = findMethod(clazz, name, parameterTypes);
+        if (method == null) {
             throw new RuntimeException(
                     String.format(
                             "Failed to find method %s::%s(%s)!",
                             clazz, name,
                             Arrays.stream(parameterTypes).map(Class::getName).collect(Collectors.joining(", "))
-                    ), e
+                    )
             );
         }
+        return method;
     }
 
     public Field getField(
             @NotNull final Class<?> clazz,
             @NotNull final String name
     ) {
-        Validates.require(clazz, "class");
-        Validates.require(name, "name");
-
-        try {
-            return clazz.getDeclaredField(name);
-        } catch (NoSuchFieldException e) {
+        val field = findField(clazz, name);
+        if (field == null) {
             throw new RuntimeException(
                     String.format(
                             "Failed to find field %s::%s!",
                             clazz, name
-                    ), e
+                    )
             );
         }
+        return field;
+    }
+
+    /**
+     * Returns a constructor declared by the class.
+     *
+     * @param clazz          the class
+     * @param parameterTypes the exact parameter types
+     * @return the constructor, or {@code null} if there is none
+     */
+    public <T> @Nullable Constructor<T> findConstructor(
+            @NotNull final Class<T> clazz,
+            @NotNull final Class<?>... parameterTypes
+    ) {
+        Validates.require(clazz, "class");
+        Validates.require(parameterTypes, "parameterTypes");
+
+        return ClassMembers.of(clazz).constructor(parameterTypes);
+    }
+
+    /**
+     * Returns a method declared by the class or inherited from its superclasses and interfaces,
+     * including private ones. Methods are indexed once per class, so repeated lookups are hash
+     * lookups that neither copy member arrays nor throw on a miss. Each call returns a fresh
+     * copy, so making it accessible does not affect other callers.
+     *
+     * @param clazz          the class
+     * @param name           the method name
+     * @param parameterTypes the exact parameter types
+     * @return the method, or {@code null} if there is none
+     */
+    public @Nullable Method findMethod(
+            @NotNull final Class<?> clazz,
+            @NotNull final String name,
+            @NotNull final Class<?>... parameterTypes
+    ) {
+        Validates.require(clazz, "class");
+        Validates.require(name, "name");
+        Validates.require(parameterTypes, "parameterTypes");
+
+        return ClassMembers.of(clazz).method(name, parameterTypes);
+    }
+
+    /**
+     * Returns a field declared by the class or inherited from its interfaces and superclasses,
+     * including private ones.
+     *
+     * @param clazz the class
+     * @param name  the field name
+     * @return the field, or {@code null} if there is none
+     */
+    public @Nullable Field findField(
+            @NotNull final Class<?> clazz,
+            @NotNull final String name
+    ) {
+        Validates.require(clazz, "class");
+        Validates.require(name, "name");
+
+        return ClassMembers.of(clazz).field(name);
+    }
+
+    /**
+     * Drops the member index of the class, e.g. after it was redefined. Indexes of subclasses
+     * are kept.
+     *
+     * @param clazz the class
+     */
+    public void invalidate(@NotNull final Class<?> clazz) {
+        Validates.require(clazz, "class");
+
+        ClassMembers.invalidate(clazz);
     }
 
 }
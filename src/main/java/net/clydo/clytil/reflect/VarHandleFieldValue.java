@@ -0,0 +1,165 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect;
+
+import lombok.val;
+import net.clydo.clytil.Validates;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+
+/**
+ * A {@link FieldValue} backed by a {@link VarHandle}, with unboxed accessors for primitive fields
+ * and volatile, acquire/release and compare-and-set access modes.
+ * <p>
+ * Unlike {@link FieldValues#of(Class, Field)}, accesses neither box primitives nor go through
+ * {@link Field#get(Object)}. Each access mode is adapted once to an exact method handle taking the
+ * owner as {@link Object}, see {@link VarHandleModes}. The implementations are records, whose
+ * fields the JIT trusts, so a field value held in a {@code static final} field compiles to a plain
+ * field access. Elsewhere an access costs an indirect call through the handle, a few nanoseconds,
+ * as the JIT cannot inline a handle that is not a constant; a hidden class accessor, see
+ * {@link net.clydo.clytil.reflect.accessor.Accessor#direct(Field)}, avoids that for plain reads
+ * and writes.
+ * <p>
+ * The owner is ignored for static fields; a {@code null} owner of an instance field throws
+ * {@link NullPointerException}. Primitive accessors convert like an assignment would, e.g. an
+ * {@code int} field can be read with {@link #getLong(Object)}, but such conversions adapt the
+ * handle on every call; other types throw
+ * {@link java.lang.invoke.WrongMethodTypeException}. Setting a final field throws
+ * {@link UnsupportedOperationException}.
+ *
+ * @param <O> the owner type
+ * @param <V> the field type, boxed for primitive fields
+ */
+public interface VarHandleFieldValue<O, V> extends FieldValue<O, V> {
+
+    @Contract("_ -> new")
+    static <O, V> @NotNull VarHandleFieldValue<O, V> of(
+            @NotNull final Field field
+    ) {
+        Validates.require(field, "field");
+
+        val clazz = field.getDeclaringClass();
+        VarHandle handle;
+        try {
+            try {
+                handle = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup()).unreflectVarHandle(field);
+            } catch (IllegalAccessException e) {
+                // Not open to us, e.g. a public field of a JDK class.
+                handle = MethodHandles.publicLookup().unreflectVarHandle(field);
+            }
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new RuntimeException(
+                    String.format(
+                            "Failed to create var handle for field %s::%s!",
+                            clazz, field.getName()
+                    ), e
+            );
+        }
+
+        val type = field.getType();
+        val boxed = VarHandleModes.of(handle, true);
+        val exact = VarHandleModes.of(handle, false);
+        return new AdaptedVarHandleFieldValue<>(field, handle, type, boxed, exact);
+    }
+
+    V getVolatile(final O owner);
+
+    void setVolatile(final O owner, final V value);
+
+    V getAcquire(final O owner);
+
+    void setRelease(final O owner, final V value);
+
+    /**
+     * Sets the field if it holds the expected value, comparing references for reference fields
+     * and bits for primitive fields.
+     */
+    boolean compareAndSet(final O owner, final V expected, final V value);
+
+    int getInt(final O owner);
+
+    void setInt(final O owner, final int value);
+
+    int getIntVolatile(final O owner);
+
+    void setIntVolatile(final O owner, final int value);
+
+    int getIntAcquire(final O owner);
+
+    void setIntRelease(final O owner, final int value);
+
+    boolean compareAndSetInt(final O owner, final int expected, final int value);
+
+    int getAndAddInt(final O owner, final int delta);
+
+    long getLong(final O owner);
+
+    void setLong(final O owner, final long value);
+
+    long getLongVolatile(final O owner);
+
+    void setLongVolatile(final O owner, final long value);
+
+    long getLongAcquire(final O owner);
+
+    void setLongRelease(final O owner, final long value);
+
+    boolean compareAndSetLong(final O owner, final long expected, final long value);
+
+    long getAndAddLong(final O owner, final long delta);
+
+    double getDouble(final O owner);
+
+    void setDouble(final O owner, final double value);
+
+    double getDoubleVolatile(final O owner);
+
+    void setDoubleVolatile(final O owner, final double value);
+
+    double getDoubleAcquire(final O owner);
+
+    void setDoubleRelease(final O owner, final double value);
+
+    boolean compareAndSetDouble(final O owner, final double expected, final double value);
+
+    boolean getBoolean(final O owner);
+
+    void setBoolean(final O owner, final boolean value);
+
+    boolean getBooleanVolatile(final O owner);
+
+    void setBooleanVolatile(final O owner, final boolean value);
+
+    boolean getBooleanAcquire(final O owner);
+
+    void setBooleanRelease(final O owner, final boolean value);
+
+    boolean compareAndSetBoolean(final O owner, final boolean expected, final boolean value);
+
+    @NotNull Field field();
+
+    @NotNull VarHandle handle();
+
+}
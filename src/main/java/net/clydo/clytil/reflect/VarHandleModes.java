@@ -0,0 +1,115 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect;
+
+import lombok.val;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * The access modes of a {@link VarHandle} as method handles adapted once to the types a
+ * {@link VarHandleFieldValue} calls them with, so the calls are exact and need no adaptation.
+ * <p>
+ * The owner coordinate is erased to {@link Object}, and for the boxed modes the field type as
+ * well. Handles of static fields take an ignored owner too, so instance and static fields share
+ * one shape. Being a record, held by a record, the handles are constants wherever the field value
+ * is.
+ * <p>
+ * Modes the field does not support, e.g. writes of final fields or {@code getAndAdd} of a
+ * non-numeric field, yield handles throwing {@link UnsupportedOperationException}.
+ */
+record VarHandleModes(
+        @NotNull MethodHandle get,
+        @NotNull MethodHandle set,
+        @NotNull MethodHandle getVolatile,
+        @NotNull MethodHandle setVolatile,
+        @NotNull MethodHandle getAcquire,
+        @NotNull MethodHandle setRelease,
+        @NotNull MethodHandle compareAndSet,
+        @NotNull MethodHandle getAndAdd
+) {
+
+    /**
+     * Adapts the access modes of the handle.
+     *
+     * @param handle the handle
+     * @param boxed  whether to erase the field type to {@link Object}
+     * @return the modes
+     */
+    @Contract("_, _ -> new")
+    static @NotNull VarHandleModes of(
+            @NotNull final VarHandle handle,
+            final boolean boxed
+    ) {
+        return new VarHandleModes(
+                adapt(handle, VarHandle.AccessMode.GET, boxed),
+                adapt(handle, VarHandle.AccessMode.SET, boxed),
+                adapt(handle, VarHandle.AccessMode.GET_VOLATILE, boxed),
+                adapt(handle, VarHandle.AccessMode.SET_VOLATILE, boxed),
+                adapt(handle, VarHandle.AccessMode.GET_ACQUIRE, boxed),
+                adapt(handle, VarHandle.AccessMode.SET_RELEASE, boxed),
+                adapt(handle, VarHandle.AccessMode.COMPARE_AND_SET, boxed),
+                adapt(handle, VarHandle.AccessMode.GET_AND_ADD, boxed)
+        );
+    }
+
+    /**
+     * Rethrows what an exact call threw, which is unchecked as no access mode throws checked
+     * exceptions.
+     */
+    static @NotNull RuntimeException rethrow(@NotNull final Throwable throwable) {
+        if (throwable instanceof RuntimeException exception) {
+            return exception;
+        }
+        if (throwable instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(throwable);
+    }
+
+    private static @NotNull MethodHandle adapt(
+            @NotNull final VarHandle handle,
+            @NotNull final VarHandle.AccessMode mode,
+            final boolean boxed
+    ) {
+        var target = handle.toMethodHandle(mode);
+        if (handle.coordinateTypes().isEmpty()) {
+            target = MethodHandles.dropArguments(target, 0, Object.class);
+        }
+
+        val varType = handle.varType();
+        var type = target.type().changeParameterType(0, Object.class);
+        for (int i = 1; i < type.parameterCount(); i++) {
+            if (boxed && type.parameterType(i) == varType) {
+                type = type.changeParameterType(i, Object.class);
+            }
+        }
+        if (boxed && type.returnType() == varType) {
+            type = type.changeReturnType(Object.class);
+        }
+        return target.asType(type);
+    }
+
+}
@@ -22,8 +22,16 @@ package net.clydo.clytil.reflect.accessor;
 
 import net.clydo.clytil.Validates;
 import net.clydo.clytil.reflect.FieldValue;
+import net.clydo.clytil.reflect.AccessorRegistry;
+import net.clydo.clytil.reflect.FieldValues;
 import net.clydo.clytil.reflect.MethodInvoker;
+import net.clydo.clytil.reflect.MethodInvokers;
+import net.clydo.clytil.reflect.Reflects;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 
 public interface Accessor<O, V> extends AccessorSetter<O, V>, AccessorGetter<O, V> {
 
@@ -81,4 +89,97 @@ public interface Accessor<O, V> extends AccessorSetter<O, V>, AccessorGetter<O,
         );
     }
 
+    /**
+     * Creates an accessor reading and writing the field directly, without reflection.
+     * <p>
+     * Accessors generated for {@link net.clydo.clytil.reflect.GenerateAccessors} classes are
+     * used first. Otherwise, where possible, the accessor is a hidden class accessing the field in bytecode, which
+     * the JIT inlines like a field access in compiled code; otherwise it uses a
+     * {@link java.lang.invoke.VarHandle}. Every call defines a new class, so create accessors once
+     * and keep them. The owner is ignored for static fields, and setting a final field throws
+     * {@link UnsupportedOperationException}.
+     *
+     * @param field the field
+     * @return the accessor
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    static <O, V> Accessor<O, V> direct(
+            @NotNull final Field field
+    ) {
+        Validates.require(field, "field");
+
+        final Accessor<O, V> generated = AccessorRegistry.accessor(field.getDeclaringClass(), field.getName());
+        if (generated != null) {
+            return generated;
+        }
+
+        final var accessor = (Accessor<O, V>) HiddenAccessors.field(field);
+        return accessor != null ? accessor : fromField(FieldValues.ofVarHandle(field));
+    }
+
+    /**
+     * Creates an accessor of a field declared by the class, see {@link #direct(Field)}. For
+     * {@link net.clydo.clytil.reflect.GenerateAccessors} classes, the field is not resolved
+     * through reflection.
+     *
+     * @param clazz the class declaring the field
+     * @param name  the field name
+     * @return the accessor
+     */
+    @NotNull
+    static <O, V> Accessor<O, V> of(
+            @NotNull final Class<?> clazz,
+            @NotNull final String name
+    ) {
+        Validates.require(clazz, "class");
+        Validates.require(name, "name");
+
+        final Accessor<O, V> generated = AccessorRegistry.accessor(clazz, name);
+        return generated != null ? generated : direct(Reflects.getField(clazz, name));
+    }
+
+    /**
+     * Creates an accessor calling the getter and the setter directly, like {@link #direct(Field)}.
+     *
+     * @param getter the getter, without parameters
+     * @param setter the setter with one parameter, or {@code null} for read-only accessors
+     *               whose {@link #set(Object, Object)} throws {@link UnsupportedOperationException}
+     * @return the accessor
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    static <O, V> Accessor<O, V> direct(
+            @NotNull final Method getter,
+            @Nullable final Method setter
+    ) {
+        Validates.require(getter, "getter");
+        if (getter.getParameterCount() != 0 || getter.getReturnType() == void.class) {
+            throw new IllegalArgumentException(String.format("%s is not a getter!", getter));
+        }
+        if (setter != null && setter.getParameterCount() != 1) {
+            throw new IllegalArgumentException(String.format("%s is not a setter!", setter));
+        }
+
+        final var accessor = (Accessor<O, V>) HiddenAccessors.methods(getter, setter);
+        if (accessor != null) {
+            return accessor;
+        }
+
+        final var get = MethodInvokers.<O, V>of0(getter);
+        if (setter == null) {
+            return fromLambda(
+                    (owner, value) -> {
+                        throw new UnsupportedOperationException(
+                                String.format("Property %s::%s has no setter!", getter.getDeclaringClass().getName(), getter.getName())
+                        );
+                    },
+                    get::invoke
+            );
+        }
+
+        final var set = MethodInvokers.<O, V, Object>of1(setter);
+        return fromLambda(set::invoke, get::invoke);
+    }
+
 }
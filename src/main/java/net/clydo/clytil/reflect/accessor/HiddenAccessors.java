@@ -0,0 +1,218 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect.accessor;
+
+import lombok.experimental.UtilityClass;
+import lombok.val;
+import net.clydo.clytil.reflect.bytecode.ClassFileWriter;
+import net.clydo.clytil.reflect.bytecode.ClassFileWriter.Code;
+import net.clydo.clytil.reflect.bytecode.HiddenClasses;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import static net.clydo.clytil.reflect.bytecode.ClassFileWriter.internalName;
+
+/**
+ * Spins a hidden class implementing {@link Accessor} for a field or a getter/setter pair.
+ * <p>
+ * The hidden class is a nestmate of the class declaring the member, so it reads and writes with
+ * plain {@code getfield}/{@code putfield} or calls the methods with {@code invokevirtual}, even
+ * for private members. Each accessor is its own class, so call sites holding one accessor stay
+ * monomorphic and the JIT inlines the access.
+ * <p>
+ * This needs a lookup with full privilege access to the declaring class, i.e. it is in the same
+ * module as this library or opened to it, and {@link Accessor} must be visible from its loader;
+ * otherwise {@code null} is returned and the caller falls back to handles.
+ */
+@UtilityClass
+class HiddenAccessors {
+
+    private final String ACCESSOR = internalName(Accessor.class);
+    private final String OBJECT = internalName(Object.class);
+    private final String UNSUPPORTED = internalName(UnsupportedOperationException.class);
+    private final String GET = "(Ljava/lang/Object;)Ljava/lang/Object;";
+    private final String SET = "(Ljava/lang/Object;Ljava/lang/Object;)V";
+
+    @Nullable Accessor<?, ?> field(@NotNull final Field field) {
+        val host = field.getDeclaringClass();
+        val lookup = HiddenClasses.lookupIn(host, Accessor.class);
+        if (lookup == null || !HiddenClasses.isAccessible(lookup, field.getType())) {
+            return null;
+        }
+
+        val writer = writer(host);
+        val owner = internalName(host);
+        val type = field.getType();
+        val descriptor = ClassFileWriter.descriptor(type);
+        val isStatic = Modifier.isStatic(field.getModifiers());
+
+        val get = writer.method(ClassFileWriter.ACC_PUBLIC, "get", GET, 2, 2);
+        if (isStatic) {
+            get.fieldInsn(Code.GETSTATIC, owner, field.getName(), descriptor);
+        } else {
+            get.varInsn(Code.ALOAD, 1)
+                    .typeInsn(Code.CHECKCAST, owner)
+                    .fieldInsn(Code.GETFIELD, owner, field.getName(), descriptor);
+        }
+        get.box(type).insn(Code.ARETURN).end();
+
+        val set = writer.method(ClassFileWriter.ACC_PUBLIC, "set", SET, 3, 3);
+        if (Modifier.isFinal(field.getModifiers())) {
+            set.throwNew(UNSUPPORTED, String.format("Cannot set final field %s::%s!", host.getName(), field.getName()));
+        } else if (isStatic) {
+            set.varInsn(Code.ALOAD, 2)
+                    .unbox(type)
+                    .fieldInsn(Code.PUTSTATIC, owner, field.getName(), descriptor)
+                    .insn(Code.RETURN);
+        } else {
+            set.varInsn(Code.ALOAD, 1)
+                    .typeInsn(Code.CHECKCAST, owner)
+                    .varInsn(Code.ALOAD, 2)
+                    .unbox(type)
+                    .fieldInsn(Code.PUTFIELD, owner, field.getName(), descriptor)
+                    .insn(Code.RETURN);
+        }
+        set.end();
+
+        return define(lookup, writer);
+    }
+
+    /**
+     * Spins an accessor calling the getter and the setter, or throwing
+     * {@link UnsupportedOperationException} on writes if there is no setter. The class is defined
+     * next to the more specific declaring class.
+     */
+    @Nullable Accessor<?, ?> methods(
+            @NotNull final Method getter,
+            @Nullable final Method setter
+    ) {
+        var host = getter.getDeclaringClass();
+        if (setter != null && host.isAssignableFrom(setter.getDeclaringClass())) {
+            host = setter.getDeclaringClass();
+        }
+        val lookup = HiddenClasses.lookupIn(host, Accessor.class);
+        if (lookup == null
+                || !isAccessible(lookup, getter)
+                || (setter != null && (!isAccessible(lookup, setter) || !HiddenClasses.isAccessible(lookup, setter.getParameterTypes()[0])))) {
+            return null;
+        }
+
+        val writer = writer(host);
+
+        val get = writer.method(ClassFileWriter.ACC_PUBLIC, "get", GET, 2, 2);
+        invoke(get, getter, () -> {})
+                .box(getter.getReturnType())
+                .insn(Code.ARETURN)
+                .end();
+
+        val set = writer.method(ClassFileWriter.ACC_PUBLIC, "set", SET, 3, 3);
+        if (setter == null) {
+            set.throwNew(UNSUPPORTED, String.format("Property %s::%s has no setter!", host.getName(), getter.getName()));
+        } else {
+            invoke(set, setter, () -> set.varInsn(Code.ALOAD, 2).unbox(setter.getParameterTypes()[0]))
+                    .pop(setter.getReturnType())
+                    .insn(Code.RETURN);
+        }
+        set.end();
+
+        return define(lookup, writer);
+    }
+
+    private @NotNull Code invoke(
+            @NotNull final Code code,
+            @NotNull final Method method,
+            @NotNull final Runnable arguments
+    ) {
+        val owner = internalName(method.getDeclaringClass());
+        val isInterface = method.getDeclaringClass().isInterface();
+        val descriptor = MethodType.methodType(method.getReturnType(), method.getParameterTypes()).toMethodDescriptorString();
+        if (Modifier.isStatic(method.getModifiers())) {
+            arguments.run();
+            return code.methodInsn(Code.INVOKESTATIC, owner, method.getName(), descriptor, isInterface);
+        }
+
+        code.varInsn(Code.ALOAD, 1).typeInsn(Code.CHECKCAST, owner);
+        arguments.run();
+        return code.methodInsn(
+                isInterface ? Code.INVOKEINTERFACE : Code.INVOKEVIRTUAL,
+                owner, method.getName(), descriptor, isInterface
+        );
+    }
+
+    private @NotNull ClassFileWriter writer(@NotNull final Class<?> host) {
+        val writer = new ClassFileWriter(
+                ClassFileWriter.ACC_FINAL | ClassFileWriter.ACC_SUPER | ClassFileWriter.ACC_SYNTHETIC,
+                internalName(host) + "$$Accessor",
+                OBJECT,
+                ACCESSOR
+        );
+        writer.defaultConstructor(OBJECT);
+        return writer;
+    }
+
+    private @Nullable Accessor<?, ?> define(
+            @NotNull final MethodHandles.Lookup lookup,
+            @NotNull final ClassFileWriter writer
+    ) {
+        try {
+            val hidden = lookup.defineHiddenClass(writer.toByteArray(), true, MethodHandles.Lookup.ClassOption.NESTMATE);
+            return (Accessor<?, ?>) hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class)).invoke();
+        } catch (Throwable e) {
+            throw new RuntimeException(
+                    String.format("Failed to define accessor class in %s!", lookup.lookupClass()), e
+            );
+        }
+    }
+
+    /**
+     * Returns whether the hidden class, which is not a subclass of anything but {@link Object},
+     * may call the member.
+     */
+    private boolean isAccessible(
+            @NotNull final MethodHandles.Lookup lookup,
+            @NotNull final Member member
+    ) {
+        val host = lookup.lookupClass();
+        val declaring = member.getDeclaringClass();
+        if (!HiddenClasses.isAccessible(lookup, declaring)) {
+            return false;
+        }
+
+        val modifiers = member.getModifiers();
+        if (Modifier.isPublic(modifiers)) {
+            return true;
+        }
+        if (Modifier.isPrivate(modifiers)) {
+            return declaring.getNestHost() == host.getNestHost();
+        }
+        // Package access, protected members only through it as the hidden class is no subclass.
+        return declaring.getClassLoader() == host.getClassLoader()
+                && declaring.getPackageName().equals(host.getPackageName());
+    }
+
+}
@@ -0,0 +1,546 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect.bytecode;
+
+import lombok.val;
+import net.clydo.clytil.Validates;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A minimal class file writer for small generated classes, e.g. hidden classes defined through
+ * {@link java.lang.invoke.MethodHandles.Lookup#defineHiddenClass}.
+ * <p>
+ * Method bodies are straight-line code without branches or exception handlers, so no stack map
+ * frames are needed; the maximum stack size is given by the caller. Names are internal names,
+ * e.g. {@code java/lang/String}, or descriptors for array classes.
+ */
+public final class ClassFileWriter {
+
+    public static final int ACC_PUBLIC = 0x0001;
+    public static final int ACC_PRIVATE = 0x0002;
+    public static final int ACC_STATIC = 0x0008;
+    public static final int ACC_FINAL = 0x0010;
+    public static final int ACC_SUPER = 0x0020;
+    public static final int ACC_SYNTHETIC = 0x1000;
+
+    private static final int VERSION = 61;
+
+    private final ByteArrayOutputStream constantBytes = new ByteArrayOutputStream();
+    private final DataOutputStream constants = new DataOutputStream(this.constantBytes);
+    private final Map<String, Integer> constantIndexes = new HashMap<>();
+    private int constantCount = 1;
+
+    private final ByteArrayOutputStream fieldBytes = new ByteArrayOutputStream();
+    private final DataOutputStream fields = new DataOutputStream(this.fieldBytes);
+    private int fieldCount;
+
+    private final ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+    private final DataOutputStream methods = new DataOutputStream(this.methodBytes);
+    private int methodCount;
+
+    private final int access;
+    private final int thisClass;
+    private final int superClass;
+    private final int[] interfaces;
+
+    public ClassFileWriter(
+            final int access,
+            @NotNull final String name,
+            @NotNull final String superName,
+            @NotNull final String @NotNull ... interfaces
+    ) {
+        Validates.require(name, "name");
+        Validates.require(superName, "superName");
+        Validates.require(interfaces, "interfaces");
+
+        this.access = access;
+        this.thisClass = this.classConstant(name);
+        this.superClass = this.classConstant(superName);
+        this.interfaces = new int[interfaces.length];
+        for (int i = 0; i < interfaces.length; i++) {
+            this.interfaces[i] = this.classConstant(interfaces[i]);
+        }
+    }
+
+    /**
+     * Returns the name of the class as used in class files: the internal name of classes and
+     * interfaces, the descriptor of arrays.
+     */
+    public static @NotNull String internalName(@NotNull final Class<?> type) {
+        return type.isArray() ? descriptor(type) : type.getName().replace('.', '/');
+    }
+
+    public static @NotNull String descriptor(@NotNull final Class<?> type) {
+        return type.descriptorString();
+    }
+
+    /**
+     * Adds a field without attributes.
+     *
+     * @param access     the access flags
+     * @param name       the field name
+     * @param descriptor the field descriptor
+     */
+    public void field(
+            final int access,
+            @NotNull final String name,
+            @NotNull final String descriptor
+    ) {
+        Validates.require(name, "name");
+        Validates.require(descriptor, "descriptor");
+
+        try {
+            this.fields.writeShort(access);
+            this.fields.writeShort(this.utf8Constant(name));
+            this.fields.writeShort(this.utf8Constant(descriptor));
+            this.fields.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.fieldCount++;
+    }
+
+    /**
+     * Starts a method, which is added to the class once its code is {@link Code#end() ended}.
+     *
+     * @param access     the access flags
+     * @param name       the method name
+     * @param descriptor the method descriptor
+     * @param maxStack   the maximum operand stack size
+     * @param maxLocals  the number of local variable slots, including {@code this} and parameters
+     * @return the code writer
+     */
+    @Contract("_, _, _, _, _ -> new")
+    public @NotNull Code method(
+            final int access,
+            @NotNull final String name,
+            @NotNull final String descriptor,
+            final int maxStack,
+            final int maxLocals
+    ) {
+        Validates.require(name, "name");
+        Validates.require(descriptor, "descriptor");
+
+        return new Code(access, this.utf8Constant(name), this.utf8Constant(descriptor), maxStack, maxLocals);
+    }
+
+    /**
+     * Adds a public no-arg constructor calling the no-arg constructor of the superclass.
+     */
+    public void defaultConstructor(@NotNull final String superName) {
+        Validates.require(superName, "superName");
+
+        this.method(ACC_PUBLIC, "<init>", "()V", 1, 1)
+                .varInsn(Code.ALOAD, 0)
+                .methodInsn(Code.INVOKESPECIAL, superName, "<init>", "()V", false)
+                .insn(Code.RETURN)
+                .end();
+    }
+
+    public byte @NotNull [] toByteArray() {
+        val out = new ByteArrayOutputStream(this.constantBytes.size() + this.fieldBytes.size() + this.methodBytes.size() + 64);
+        val data = new DataOutputStream(out);
+        try {
+            data.writeInt(0xCAFEBABE);
+            data.writeShort(0);
+            data.writeShort(VERSION);
+            data.writeShort(this.constantCount);
+            this.constantBytes.writeTo(data);
+            data.writeShort(this.access);
+            data.writeShort(this.thisClass);
+            data.writeShort(this.superClass);
+            data.writeShort(this.interfaces.length);
+            for (val index : this.interfaces) {
+                data.writeShort(index);
+            }
+            data.writeShort(this.fieldCount);
+            this.fieldBytes.writeTo(data);
+            data.writeShort(this.methodCount);
+            this.methodBytes.writeTo(data);
+            data.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private int utf8Constant(@NotNull final String value) {
+        return this.constant("U" + value, 1, data -> data.writeUTF(value));
+    }
+
+    private int classConstant(@NotNull final String name) {
+        val nameIndex = this.utf8Constant(name);
+        return this.constant("C" + name, 7, data -> data.writeShort(nameIndex));
+    }
+
+    private int stringConstant(@NotNull final String value) {
+        val valueIndex = this.utf8Constant(value);
+        return this.constant("S" + value, 8, data -> data.writeShort(valueIndex));
+    }
+
+    private int memberConstant(
+            final int tag,
+            @NotNull final String owner,
+            @NotNull final String name,
+            @NotNull final String descriptor
+    ) {
+        val ownerIndex = this.classConstant(owner);
+        val nameIndex = this.utf8Constant(name);
+        val descriptorIndex = this.utf8Constant(descriptor);
+        val nameAndType = this.constant("N" + name + ' ' + descriptor, 12, data -> {
+            data.writeShort(nameIndex);
+            data.writeShort(descriptorIndex);
+        });
+        return this.constant(tag + owner + '.' + name + ' ' + descriptor, tag, data -> {
+            data.writeShort(ownerIndex);
+            data.writeShort(nameAndType);
+        });
+    }
+
+    private int constant(
+            @NotNull final String key,
+            final int tag,
+            @NotNull final ConstantBody body
+    ) {
+        val existing = this.constantIndexes.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            this.constants.writeByte(tag);
+            body.write(this.constants);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        val index = this.constantCount++;
+        this.constantIndexes.put(key, index);
+        return index;
+    }
+
+    @FunctionalInterface
+    private interface ConstantBody {
+
+        void write(@NotNull DataOutputStream data) throws IOException;
+
+    }
+
+    /**
+     * Writes the straight-line code of one method.
+     */
+    public final class Code {
+
+        public static final int ACONST_NULL = 0x01;
+        public static final int ICONST_0 = 0x03;
+        public static final int BIPUSH = 0x10;
+        public static final int SIPUSH = 0x11;
+        public static final int LDC_W = 0x13;
+        public static final int ILOAD = 0x15;
+        public static final int LLOAD = 0x16;
+        public static final int FLOAD = 0x17;
+        public static final int DLOAD = 0x18;
+        public static final int ALOAD = 0x19;
+        public static final int AALOAD = 0x32;
+        public static final int AASTORE = 0x53;
+        public static final int POP = 0x57;
+        public static final int POP2 = 0x58;
+        public static final int DUP = 0x59;
+        public static final int IRETURN = 0xAC;
+        public static final int LRETURN = 0xAD;
+        public static final int FRETURN = 0xAE;
+        public static final int DRETURN = 0xAF;
+        public static final int ARETURN = 0xB0;
+        public static final int RETURN = 0xB1;
+        public static final int GETSTATIC = 0xB2;
+        public static final int PUTSTATIC = 0xB3;
+        public static final int GETFIELD = 0xB4;
+        public static final int PUTFIELD = 0xB5;
+        public static final int INVOKEVIRTUAL = 0xB6;
+        public static final int INVOKESPECIAL = 0xB7;
+        public static final int INVOKESTATIC = 0xB8;
+        public static final int INVOKEINTERFACE = 0xB9;
+        public static final int NEW = 0xBB;
+        public static final int ANEWARRAY = 0xBD;
+        public static final int ATHROW = 0xBF;
+        public static final int CHECKCAST = 0xC0;
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream code = new DataOutputStream(this.bytes);
+        private final int access;
+        private final int name;
+        private final int descriptor;
+        private final int maxStack;
+        private final int maxLocals;
+
+        private Code(
+                final int access,
+                final int name,
+                final int descriptor,
+                final int maxStack,
+                final int maxLocals
+        ) {
+            this.access = access;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.maxStack = maxStack;
+            this.maxLocals = maxLocals;
+        }
+
+        @Contract("_ -> this")
+        public @NotNull Code insn(final int opcode) {
+            return this.write(opcode);
+        }
+
+        @Contract("_, _ -> this")
+        public @NotNull Code varInsn(final int opcode, final int index) {
+            if (index > 0xFF) {
+                throw new IllegalArgumentException(String.format("Local variable index %d out of range!", index));
+            }
+            return this.write(opcode, index);
+        }
+
+        @Contract("_, _ -> this")
+        public @NotNull Code typeInsn(final int opcode, @NotNull final String type) {
+            return this.write(opcode).u2(ClassFileWriter.this.classConstant(type));
+        }
+
+        @Contract("_, _, _, _ -> this")
+        public @NotNull Code fieldInsn(
+                final int opcode,
+                @NotNull final String owner,
+                @NotNull final String name,
+                @NotNull final String descriptor
+        ) {
+            return this.write(opcode).u2(ClassFileWriter.this.memberConstant(9, owner, name, descriptor));
+        }
+
+        @Contract("_, _, _, _, _ -> this")
+        public @NotNull Code methodInsn(
+                final int opcode,
+                @NotNull final String owner,
+                @NotNull final String name,
+                @NotNull final String descriptor,
+                final boolean isInterface
+        ) {
+            this.write(opcode).u2(ClassFileWriter.this.memberConstant(isInterface ? 11 : 10, owner, name, descriptor));
+            if (opcode == INVOKEINTERFACE) {
+                this.write(argumentSlots(descriptor) + 1, 0);
+            }
+            return this;
+        }
+
+        /**
+         * Pushes an {@code int} constant with the shortest instruction.
+         */
+        @Contract("_ -> this")
+        public @NotNull Code push(final int value) {
+            if (value >= -1 && value <= 5) {
+                return this.write(ICONST_0 + value);
+            }
+            if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                return this.write(BIPUSH, value & 0xFF);
+            }
+            if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                return this.write(SIPUSH).u2(value & 0xFFFF);
+            }
+            throw new IllegalArgumentException(String.format("Constant %d out of range!", value));
+        }
+
+        @Contract("_ -> this")
+        public @NotNull Code ldc(@NotNull final String value) {
+            return this.write(LDC_W).u2(ClassFileWriter.this.stringConstant(value));
+        }
+
+        /**
+         * Pushes a class constant; the type must not be primitive.
+         */
+        @Contract("_ -> this")
+        public @NotNull Code ldc(@NotNull final Class<?> type) {
+            return this.write(LDC_W).u2(ClassFileWriter.this.classConstant(internalName(type)));
+        }
+
+        /**
+         * Loads a local variable with the load instruction of its type.
+         */
+        @Contract("_, _ -> this")
+        public @NotNull Code load(@NotNull final Class<?> type, final int index) {
+            val opcode = type == long.class ? LLOAD
+                    : type == double.class ? DLOAD
+                    : type == float.class ? FLOAD
+                    : type.isPrimitive() ? ILOAD
+                    : ALOAD;
+            return this.varInsn(opcode, index);
+        }
+
+        /**
+         * Returns the top of the stack with the return instruction of its type.
+         */
+        @Contract("_ -> this")
+        public @NotNull Code returnValue(@NotNull final Class<?> type) {
+            return this.insn(
+                    type == void.class ? RETURN
+                            : type == long.class ? LRETURN
+                            : type == double.class ? DRETURN
+                            : type == float.class ? FRETURN
+                            : type.isPrimitive() ? IRETURN
+                            : ARETURN
+            );
+        }
+
+        /**
+         * Discards the top of the stack, if its type is not {@code void}.
+         */
+        @Contract("_ -> this")
+        public @NotNull Code pop(@NotNull final Class<?> type) {
+            if (type == void.class) {
+                return this;
+            }
+            return this.insn(type == long.class || type == double.class ? POP2 : POP);
+        }
+
+        /**
+         * Boxes a primitive on top of the stack; references are left as they are.
+         */
+        @Contract("_ -> this")
+        public @NotNull Code box(@NotNull final Class<?> type) {
+            if (!type.isPrimitive() || type == void.class) {
+                return this;
+            }
+            val wrapper = internalName(wrapper(type));
+            return this.methodInsn(INVOKESTATIC, wrapper, "valueOf", "(" + descriptor(type) + ")L" + wrapper + ";", false);
+        }
+
+        /**
+         * Casts the reference on top of the stack to the type, unboxing it if the type is primitive.
+         */
+        @Contract("_ -> this")
+        public @NotNull Code unbox(@NotNull final Class<?> type) {
+            if (!type.isPrimitive()) {
+                return type == Object.class ? this : this.typeInsn(CHECKCAST, internalName(type));
+            }
+            val wrapper = internalName(wrapper(type));
+            return this.typeInsn(CHECKCAST, wrapper)
+                    .methodInsn(INVOKEVIRTUAL, wrapper, type.getName() + "Value", "()" + descriptor(type), false);
+        }
+
+        /**
+         * Casts the reference on top of the stack to the type like {@link #unbox(Class)}, but
+         * unboxes primitives like reflection does, widening e.g. an {@link Integer} for a
+         * {@code long}, see {@link Unboxing}.
+         */
+        @Contract("_ -> this")
+        public @NotNull Code unboxWidening(@NotNull final Class<?> type) {
+            if (!type.isPrimitive()) {
+                return this.unbox(type);
+            }
+            val name = type.getName();
+            return this.methodInsn(
+                    INVOKESTATIC, internalName(Unboxing.class),
+                    "to" + Character.toUpperCase(name.charAt(0)) + name.substring(1),
+                    "(Ljava/lang/Object;)" + descriptor(type), false
+            );
+        }
+
+        /**
+         * Throws a new exception of the type with the message, the type needs a {@code String}
+         * constructor.
+         */
+        @Contract("_, _ -> this")
+        public @NotNull Code throwNew(@NotNull final String type, @NotNull final String message) {
+            return this.typeInsn(NEW, type)
+                    .insn(DUP)
+                    .ldc(message)
+                    .methodInsn(INVOKESPECIAL, type, "<init>", "(Ljava/lang/String;)V", false)
+                    .insn(ATHROW);
+        }
+
+        /**
+         * Adds the method to the class.
+         */
+        public void end() {
+            val writer = ClassFileWriter.this;
+            try {
+                val methods = writer.methods;
+                methods.writeShort(this.access);
+                methods.writeShort(this.name);
+                methods.writeShort(this.descriptor);
+                methods.writeShort(1);
+                methods.writeShort(writer.utf8Constant("Code"));
+                methods.writeInt(12 + this.bytes.size());
+                methods.writeShort(this.maxStack);
+                methods.writeShort(this.maxLocals);
+                methods.writeInt(this.bytes.size());
+                this.bytes.writeTo(methods);
+                methods.writeShort(0);
+                methods.writeShort(0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            writer.methodCount++;
+        }
+
+        private @NotNull Code write(final int... bytes) {
+            for (val value : bytes) {
+                this.bytes.write(value);
+            }
+            return this;
+        }
+
+        private @NotNull Code u2(final int value) {
+            return this.write(value >>> 8, value & 0xFF);
+        }
+
+    }
+
+    private static @NotNull Class<?> wrapper(@NotNull final Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
+    private static int argumentSlots(@NotNull final String descriptor) {
+        var slots = 0;
+        var i = 1;
+        while (descriptor.charAt(i) != ')') {
+            val c = descriptor.charAt(i);
+            if (c == 'J' || c == 'D') {
+                slots += 2;
+                i++;
+                continue;
+            }
+
+            slots++;
+            while (descriptor.charAt(i) == '[') {
+                i++;
+            }
+            i = descriptor.charAt(i) == 'L' ? descriptor.indexOf(';', i) + 1 : i + 1;
+        }
+        return slots;
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect.bytecode;
+
+import lombok.experimental.UtilityClass;
+import lombok.val;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+
+/**
+ * Checks shared by the classes spinning hidden classes next to a host class.
+ * <p>
+ * A hidden class is defined through a lookup with full privilege access to its host, so the
+ * host must be in the same module as this library or opened to it. The interfaces the hidden
+ * class implements are resolved by the host's loader and must be the same classes this library
+ * sees, and every class the hidden class names must be accessible to it.
+ */
+@UtilityClass
+public class HiddenClasses {
+
+    /**
+     * Returns a lookup with full privilege access to the host, or {@code null} if there is none
+     * or the host cannot have hidden classes implementing the interfaces.
+     *
+     * @param host       the class to define hidden classes next to
+     * @param interfaces the interfaces the hidden classes implement
+     * @return the lookup, or {@code null}
+     */
+    public @Nullable MethodHandles.Lookup lookupIn(
+            @NotNull final Class<?> host,
+            @NotNull final Class<?> @NotNull ... interfaces
+    ) {
+        if (host.isArray() || host.isPrimitive() || host.isHidden()) {
+            return null;
+        }
+        for (val anInterface : interfaces) {
+            if (!isVisible(anInterface, host.getClassLoader())) {
+                return null;
+            }
+        }
+
+        try {
+            val lookup = MethodHandles.privateLookupIn(host, MethodHandles.lookup());
+            return lookup.hasFullPrivilegeAccess() ? lookup : null;
+        } catch (IllegalAccessException | SecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether classes defined through the lookup may name the types, e.g. in a
+     * {@code checkcast}.
+     */
+    public boolean isAccessible(
+            @NotNull final MethodHandles.Lookup lookup,
+            @NotNull final Class<?> @NotNull ... types
+    ) {
+        try {
+            for (val type : types) {
+                lookup.accessClass(type);
+            }
+            return true;
+        } catch (IllegalAccessException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns whether the loader resolves the name of the type to the type itself.
+     *
+     * @param type   the type
+     * @param loader the loader, {@code null} for the bootstrap loader
+     */
+    public boolean isVisible(
+            @NotNull final Class<?> type,
+            @Nullable final ClassLoader loader
+    ) {
+        try {
+            return Class.forName(type.getName(), false, loader) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+}
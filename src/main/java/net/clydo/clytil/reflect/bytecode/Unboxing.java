@@ -0,0 +1,129 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect.bytecode;
+
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Unboxes arguments like reflection does, widening the primitive if needed, e.g. an
+ * {@link Integer} for a {@code long}. Generated classes call these through
+ * {@link ClassFileWriter.Code#unboxWidening(Class)}, so they must stay public.
+ * <p>
+ * A value that does not widen to the type fails with a {@link ClassCastException}, a
+ * {@code null} with a {@link NullPointerException}.
+ */
+@UtilityClass
+public class Unboxing {
+
+    public boolean toBoolean(@Nullable final Object value) {
+        if (value instanceof Boolean z) {
+            return z;
+        }
+        throw mismatch(value, boolean.class);
+    }
+
+    public byte toByte(@Nullable final Object value) {
+        if (value instanceof Byte b) {
+            return b;
+        }
+        throw mismatch(value, byte.class);
+    }
+
+    public char toChar(@Nullable final Object value) {
+        if (value instanceof Character c) {
+            return c;
+        }
+        throw mismatch(value, char.class);
+    }
+
+    public short toShort(@Nullable final Object value) {
+        if (value instanceof Short s) {
+            return s;
+        }
+        if (value instanceof Byte b) {
+            return b;
+        }
+        throw mismatch(value, short.class);
+    }
+
+    public int toInt(@Nullable final Object value) {
+        if (value instanceof Integer i) {
+            return i;
+        }
+        if (value instanceof Short || value instanceof Byte) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof Character c) {
+            return c;
+        }
+        throw mismatch(value, int.class);
+    }
+
+    public long toLong(@Nullable final Object value) {
+        if (value instanceof Long l) {
+            return l;
+        }
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Character c) {
+            return c;
+        }
+        throw mismatch(value, long.class);
+    }
+
+    public float toFloat(@Nullable final Object value) {
+        if (value instanceof Float f) {
+            return f;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).floatValue();
+        }
+        if (value instanceof Character c) {
+            return c;
+        }
+        throw mismatch(value, float.class);
+    }
+
+    public double toDouble(@Nullable final Object value) {
+        if (value instanceof Double d) {
+            return d;
+        }
+        if (value instanceof Float || value instanceof Long || value instanceof Integer
+                || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof Character c) {
+            return c;
+        }
+        throw mismatch(value, double.class);
+    }
+
+    private @NotNull RuntimeException mismatch(@Nullable final Object value, @NotNull final Class<?> type) {
+        if (value == null) {
+            return new NullPointerException(String.format("Cannot unbox null to %s!", type));
+        }
+        return new ClassCastException(String.format("Cannot convert %s to %s!", value.getClass().getName(), type));
+    }
+
+}
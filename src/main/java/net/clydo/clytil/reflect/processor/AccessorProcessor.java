@@ -0,0 +1,337 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect.processor;
+
+import lombok.val;
+import net.clydo.clytil.reflect.AccessorRegistry;
+import net.clydo.clytil.reflect.GenerateAccessors;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates the {@link net.clydo.clytil.reflect.GeneratedAccessors GeneratedAccessors} of
+ * classes annotated with {@link GenerateAccessors}.
+ * <p>
+ * The generated class lives in the package of the annotated class, so it reaches public,
+ * protected and package-private members with plain field accesses and {@code new}. Private
+ * members, members whose types it cannot name, final instance fields, which reflection can
+ * still set, and constructors of abstract, enum and inner classes are left to reflection. The
+ * field values are created once, in constants of the generated class.
+ */
+@SupportedAnnotationTypes("net.clydo.clytil.reflect.GenerateAccessors")
+public final class AccessorProcessor extends AbstractProcessor {
+
+    private static final String REFLECT = "net.clydo.clytil.reflect.";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(
+            @NotNull final java.util.Set<? extends TypeElement> annotations,
+            @NotNull final RoundEnvironment round
+    ) {
+        for (val element : round.getElementsAnnotatedWith(GenerateAccessors.class)) {
+            if (!(element instanceof TypeElement type)) {
+                continue;
+            }
+            if (!this.isAccessible(type, this.packageOf(type))) {
+                this.processingEnv.getMessager().printMessage(
+                        Diagnostic.Kind.ERROR,
+                        "@GenerateAccessors classes and their enclosing classes must not be private",
+                        type
+                );
+                continue;
+            }
+
+            try {
+                this.generate(type);
+            } catch (IOException e) {
+                this.processingEnv.getMessager().printMessage(
+                        Diagnostic.Kind.ERROR,
+                        "Failed to generate accessors: " + e.getMessage(),
+                        type
+                );
+            }
+        }
+        return true;
+    }
+
+    private void generate(@NotNull final TypeElement type) throws IOException {
+        val elements = this.processingEnv.getElementUtils();
+        val pkg = this.packageOf(type);
+        val binaryName = elements.getBinaryName(type).toString();
+        val simpleName = binaryName.substring(binaryName.lastIndexOf('.') + 1) + AccessorRegistry.SUFFIX;
+        val owner = type.getQualifiedName().toString();
+
+        val fields = new ArrayList<VariableElement>();
+        for (val field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            val modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)
+                    || (modifiers.contains(Modifier.FINAL) && !modifiers.contains(Modifier.STATIC))) {
+                continue;
+            }
+            if (this.isAccessible(field.asType(), pkg)) {
+                fields.add(field);
+            }
+        }
+
+        val constructors = new ArrayList<ExecutableElement>();
+        val instantiable = type.getKind() == ElementKind.CLASS || type.getKind() == ElementKind.RECORD;
+        if (instantiable && !type.getModifiers().contains(Modifier.ABSTRACT)
+                && (type.getNestingKind() == NestingKind.TOP_LEVEL || type.getModifiers().contains(Modifier.STATIC))) {
+            for (val constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+                if (!constructor.getModifiers().contains(Modifier.PRIVATE)
+                        && constructor.getParameters().stream().allMatch(parameter -> this.isAccessible(parameter.asType(), pkg))) {
+                    constructors.add(constructor);
+                }
+            }
+        }
+
+        val out = new StringBuilder();
+        if (!pkg.isUnnamed()) {
+            out.append("package ").append(pkg.getQualifiedName()).append(";\n\n");
+        }
+        out.append("// Generated by ").append(AccessorProcessor.class.getName()).append(", do not edit.\n")
+                .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("final class ").append(simpleName).append(" implements ").append(REFLECT).append("GeneratedAccessors {\n\n");
+        this.appendConstants(out, owner, fields, "FieldValue", REFLECT + "FieldValues", "FIELD$");
+        this.appendConstants(out, owner, fields, "accessor.Accessor", REFLECT + "accessor.Accessor", "ACCESSOR$");
+        out.append("    private static final ").append(simpleName).append(" INSTANCE = new ").append(simpleName).append("();\n\n")
+                .append("    static {\n")
+                .append("        ").append(REFLECT).append("AccessorRegistry.register(").append(owner).append(".class, INSTANCE);\n")
+                .append("    }\n\n")
+                .append("    private ").append(simpleName).append("() {\n")
+                .append("    }\n");
+
+        this.appendFields(out, fields, "FieldValue", "field", "FIELD$");
+        this.appendFields(out, fields, "accessor.Accessor", "accessor", "ACCESSOR$");
+        this.appendConstructors(out, owner, constructors);
+        out.append("\n}\n");
+
+        val file = this.processingEnv.getFiler().createSourceFile(
+                pkg.isUnnamed() ? simpleName : pkg.getQualifiedName() + "." + simpleName,
+                type
+        );
+        try (val writer = file.openWriter()) {
+            writer.write(out.toString());
+        }
+    }
+
+    /**
+     * Appends a constant per field, so lookups return the same instance every time.
+     */
+    private void appendConstants(
+            @NotNull final StringBuilder out,
+            @NotNull final String owner,
+            @NotNull final List<VariableElement> fields,
+            @NotNull final String resultType,
+            @NotNull final String factory,
+            @NotNull final String prefix
+    ) {
+        for (val field : fields) {
+            val name = field.getSimpleName().toString();
+            val modifiers = field.getModifiers();
+            val target = (modifiers.contains(Modifier.STATIC) ? owner : "owner") + "." + name;
+            val valueType = this.boxedName(field.asType());
+
+            out.append("    private static final ").append(REFLECT).append(resultType)
+                    .append('<').append(owner).append(", ").append(valueType).append("> ").append(prefix).append(name)
+                    .append(" = ").append(factory).append(".<").append(owner).append(", ").append(valueType).append(">fromLambda(\n");
+            if (modifiers.contains(Modifier.FINAL)) {
+                out.append("            (owner, value) -> {\n")
+                        .append("                throw new UnsupportedOperationException(\"Cannot set final field ")
+                        .append(owner).append("::").append(name).append("!\");\n")
+                        .append("            },\n");
+            } else {
+                out.append("            (owner, value) -> ").append(target).append(" = value,\n");
+            }
+            out.append("            owner -> ").append(target).append("\n")
+                    .append("    );\n\n");
+        }
+    }
+
+    private void appendFields(
+            @NotNull final StringBuilder out,
+            @NotNull final List<VariableElement> fields,
+            @NotNull final String resultType,
+            @NotNull final String method,
+            @NotNull final String prefix
+    ) {
+        out.append("\n    @Override\n")
+                .append("    public ").append(REFLECT).append(resultType).append("<?, ?> ").append(method).append("(final String name) {\n")
+                .append("        switch (name) {\n");
+        for (val field : fields) {
+            val name = field.getSimpleName().toString();
+            out.append("            case \"").append(name).append("\":\n")
+                    .append("                return ").append(prefix).append(name).append(";\n");
+        }
+        out.append("            default:\n")
+                .append("                return null;\n")
+                .append("        }\n")
+                .append("    }\n");
+    }
+
+    private void appendConstructors(
+            @NotNull final StringBuilder out,
+            @NotNull final String owner,
+            @NotNull final List<ExecutableElement> constructors
+    ) {
+        out.append("\n    @Override\n")
+                .append("    public ").append(REFLECT).append("Constructor<?> constructor(final Class<?>... parameterTypes) {\n");
+        for (val constructor : constructors) {
+            val parameters = constructor.getParameters();
+            val types = new StringBuilder();
+            val args = new StringBuilder();
+            for (int i = 0; i < parameters.size(); i++) {
+                val parameterType = parameters.get(i).asType();
+                if (i > 0) {
+                    types.append(", ");
+                    args.append(", ");
+                }
+                types.append(this.erasedName(parameterType)).append(".class");
+                if (parameterType instanceof PrimitiveType) {
+                    args.append('(').append(this.erasedName(parameterType)).append(") ");
+                }
+                args.append('(').append(this.boxedName(parameterType)).append(") args[").append(i).append(']');
+            }
+
+            out.append("        if (java.util.Arrays.equals(parameterTypes, new Class<?>[]{").append(types).append("})) {\n")
+                    .append("            return args -> {\n")
+                    .append("                if (args.length != ").append(parameters.size()).append(") {\n")
+                    .append("                    throw new IllegalArgumentException(\"Expected ").append(parameters.size())
+                    .append(" args but got \" + args.length + \"!\");\n")
+                    .append("                }\n");
+            val creation = "new " + owner + "(" + args + ")";
+            if (constructor.getThrownTypes().isEmpty()) {
+                out.append("                return ").append(creation).append(";\n");
+            } else {
+                out.append("                try {\n")
+                        .append("                    return ").append(creation).append(";\n")
+                        .append("                } catch (RuntimeException | Error e) {\n")
+                        .append("                    throw e;\n")
+                        .append("                } catch (Throwable e) {\n")
+                        .append("                    throw new RuntimeException(\"Failed to construct ").append(owner).append("!\", e);\n")
+                        .append("                }\n");
+            }
+            out.append("            };\n")
+                    .append("        }\n");
+        }
+        out.append("        return null;\n")
+                .append("    }\n");
+    }
+
+    /**
+     * Returns the source name of the erasure of the type, without type annotations.
+     */
+    private @NotNull String erasedName(@NotNull final TypeMirror type) {
+        if (type instanceof PrimitiveType) {
+            return type.getKind().name().toLowerCase(java.util.Locale.ROOT);
+        }
+        if (type instanceof ArrayType array) {
+            return this.erasedName(array.getComponentType()) + "[]";
+        }
+        if (type instanceof TypeVariable variable) {
+            return this.erasedName(variable.getUpperBound());
+        }
+        if (type instanceof DeclaredType declared) {
+            return ((TypeElement) declared.asElement()).getQualifiedName().toString();
+        }
+        return this.erasedName(this.processingEnv.getTypeUtils().erasure(type));
+    }
+
+    private @NotNull String boxedName(@NotNull final TypeMirror type) {
+        if (type instanceof PrimitiveType primitive) {
+            return this.processingEnv.getTypeUtils().boxedClass(primitive).getQualifiedName().toString();
+        }
+        return this.erasedName(type);
+    }
+
+    /**
+     * Returns whether code in the package can name the erasure of the type.
+     */
+    private boolean isAccessible(
+            @NotNull final TypeMirror type,
+            @NotNull final PackageElement pkg
+    ) {
+        if (type instanceof PrimitiveType) {
+            return true;
+        }
+        if (type instanceof ArrayType array) {
+            return this.isAccessible(array.getComponentType(), pkg);
+        }
+        if (type instanceof TypeVariable variable) {
+            return this.isAccessible(variable.getUpperBound(), pkg);
+        }
+        if (type instanceof DeclaredType declared) {
+            return this.isAccessible((TypeElement) declared.asElement(), pkg);
+        }
+        // Intersection bounds and the like.
+        return this.isAccessible(this.processingEnv.getTypeUtils().erasure(type), pkg);
+    }
+
+    private boolean isAccessible(
+            @NotNull final TypeElement type,
+            @NotNull final PackageElement pkg
+    ) {
+        Element element = type;
+        while (element instanceof TypeElement) {
+            val modifiers = element.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (!modifiers.contains(Modifier.PUBLIC) && !this.packageOf(element).equals(pkg)) {
+                return false;
+            }
+            element = element.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private @NotNull PackageElement packageOf(@NotNull final Element element) {
+        return this.processingEnv.getElementUtils().getPackageOf(element);
+    }
+
+}
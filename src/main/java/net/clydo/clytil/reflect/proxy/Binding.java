@@ -0,0 +1,76 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect.proxy;
+
+import net.clydo.clytil.data.Getter;
+import net.clydo.clytil.data.Setter;
+import net.clydo.clytil.reflect.MethodInvoker;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * The target one interface method is bound to.
+ *
+ * @param kind   how the method reaches the target
+ * @param target the target, e.g. the {@link Getter}
+ * @param owner  the owner passed to a {@link MethodInvoker}
+ */
+record Binding(
+        @NotNull Kind kind,
+        @Nullable Object target,
+        @Nullable Object owner
+) {
+
+    enum Kind {
+        /**
+         * Returns {@link Getter#get()}.
+         */
+        GETTER('G', Getter.class),
+        /**
+         * Passes the only argument to {@link Setter#set(Object)}.
+         */
+        SETTER('S', Setter.class),
+        /**
+         * Returns the constant.
+         */
+        CONSTANT('C', Object.class),
+        /**
+         * Passes the arguments to {@link MethodInvoker#invoke(Object, Object...)} with the owner.
+         */
+        INVOKER('I', MethodInvoker.class),
+        /**
+         * Calls {@link MethodHandle#invokeExact} on a handle of exactly the method type.
+         */
+        HANDLE('H', MethodHandle.class);
+
+        final char code;
+        final Class<?> type;
+
+        Kind(final char code, @NotNull final Class<?> type) {
+            this.code = code;
+            this.type = type;
+        }
+
+    }
+
+}
@@ -0,0 +1,261 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect.proxy;
+
+import lombok.val;
+import net.clydo.clytil.Validates;
+import net.clydo.clytil.data.Getter;
+import net.clydo.clytil.data.Setter;
+import net.clydo.clytil.data.Value;
+import net.clydo.clytil.reflect.MethodInvoker;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.function.BiFunction;
+
+/**
+ * Builds implementations of an interface whose methods are bound to targets by name.
+ * <p>
+ * Each method calls its target directly from a generated hidden class, see {@link ProxyClass},
+ * so a call costs about as much as calling the target itself and the JIT may inline through the
+ * proxy. Methods without parameters may be bound to a {@link Getter} or a constant, methods with
+ * one parameter returning {@code void} to a {@link Setter}, and any method to a
+ * {@link MethodInvoker} or a {@link MethodHandle}. A name binds all methods with the name, so a
+ * {@link Value} implements both {@code int port()} and {@code void port(int)}.
+ * <p>
+ * Unbound default methods keep their implementation, unbound abstract methods fail the build.
+ * {@code equals}, {@code hashCode} and {@code toString} are those of {@link Object}. A builder
+ * may build any number of proxies.
+ *
+ * @param <T> the interface
+ */
+public final class ProxyBuilder<T> {
+
+    private final Class<T> type;
+    private final ProxyClass proxyClass;
+    private final Binding[] bindings;
+
+    private ProxyBuilder(@NotNull final Class<T> type) {
+        this.type = type;
+        this.proxyClass = ProxyClass.of(type);
+        this.bindings = new Binding[this.proxyClass.methods().length];
+    }
+
+    @Contract("_ -> new")
+    public static <T> @NotNull ProxyBuilder<T> of(@NotNull final Class<T> type) {
+        Validates.require(type, "type");
+        if (!type.isInterface() || type.isAnnotation()) {
+            throw new IllegalArgumentException(String.format("%s is not an interface!", type.getName()));
+        }
+
+        return new ProxyBuilder<>(type);
+    }
+
+    /**
+     * Binds the methods without parameters to {@link Value#get()} and those with one parameter
+     * to {@link Value#set(Object)}.
+     */
+    @Contract("_, _ -> this")
+    public @NotNull ProxyBuilder<T> bind(
+            @NotNull final String name,
+            @NotNull final Value<?> value
+    ) {
+        Validates.require(name, "name");
+        Validates.require(value, "value");
+
+        return this.bind(name, "value", (method, type) -> {
+            if (isGetter(type)) {
+                return new Binding(Binding.Kind.GETTER, value, null);
+            }
+            return isSetter(type) ? new Binding(Binding.Kind.SETTER, value, null) : null;
+        });
+    }
+
+    @Contract("_, _ -> this")
+    public @NotNull ProxyBuilder<T> bind(
+            @NotNull final String name,
+            @NotNull final Getter<?> getter
+    ) {
+        Validates.require(name, "name");
+        Validates.require(getter, "getter");
+
+        return this.bind(name, "getter", (method, type) -> isGetter(type) ? new Binding(Binding.Kind.GETTER, getter, null) : null);
+    }
+
+    @Contract("_, _ -> this")
+    public @NotNull ProxyBuilder<T> bind(
+            @NotNull final String name,
+            @NotNull final Setter<?> setter
+    ) {
+        Validates.require(name, "name");
+        Validates.require(setter, "setter");
+
+        return this.bind(name, "setter", (method, type) -> isSetter(type) ? new Binding(Binding.Kind.SETTER, setter, null) : null);
+    }
+
+    /**
+     * Binds the methods without parameters to return the constant, which is converted to each
+     * return type once, e.g. an {@link Integer} to {@code long}.
+     */
+    @Contract("_, _ -> this")
+    public @NotNull ProxyBuilder<T> bindConstant(
+            @NotNull final String name,
+            @Nullable final Object constant
+    ) {
+        Validates.require(name, "name");
+
+        return this.bind(name, "constant", (method, type) -> {
+            if (!isGetter(type)) {
+                return null;
+            }
+            try {
+                val converted = (Object) MethodHandles.constant(Object.class, constant)
+                        .asType(type)
+                        .asType(type.generic())
+                        .invokeExact();
+                return new Binding(Binding.Kind.CONSTANT, converted, null);
+            } catch (ClassCastException | NullPointerException e) {
+                throw new IllegalArgumentException(
+                        String.format("Constant %s does not convert to %s of %s!", constant, type.returnType().getName(), method), e
+                );
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    /**
+     * Binds the methods to call the invoker on the owner with their arguments.
+     */
+    @Contract("_, _, _ -> this")
+    public @NotNull ProxyBuilder<T> bind(
+            @NotNull final String name,
+            @NotNull final MethodInvoker<?, ?> invoker,
+            @Nullable final Object owner
+    ) {
+        Validates.require(name, "name");
+        Validates.require(invoker, "invoker");
+
+        return this.bind(name, "invoker", (method, type) -> new Binding(Binding.Kind.INVOKER, invoker, owner));
+    }
+
+    /**
+     * Binds the methods taking as many parameters as the handle to call it, with the arguments
+     * and the result converted as by {@link MethodHandle#asType(MethodType)}.
+     * <p>
+     * The handle is a constant of the proxy class, so the JIT inlines it, but each proxy binding
+     * handles is an instance of a class of its own; build such proxies once and share them.
+     */
+    @Contract("_, _ -> this")
+    public @NotNull ProxyBuilder<T> bind(
+            @NotNull final String name,
+            @NotNull final MethodHandle handle
+    ) {
+        Validates.require(name, "name");
+        Validates.require(handle, "handle");
+
+        return this.bind(name, "handle", (method, type) -> {
+            if (type.parameterCount() != handle.type().parameterCount()) {
+                return null;
+            }
+            try {
+                return new Binding(Binding.Kind.HANDLE, handle.asType(type), null);
+            } catch (WrongMethodTypeException e) {
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Builds a proxy with the current bindings.
+     *
+     * @throws IllegalStateException if an abstract method is unbound
+     */
+    public @NotNull T build() {
+        val methods = this.proxyClass.methods();
+        val unbound = new ArrayList<String>();
+        for (int i = 0; i < methods.length; i++) {
+            if (this.bindings[i] == null && !methods[i].isDefault()) {
+                unbound.add(methods[i].getName());
+            }
+        }
+        if (!unbound.isEmpty()) {
+            throw new IllegalStateException(String.format("Unbound methods %s in %s!", unbound, this.type.getName()));
+        }
+
+        return this.type.cast(this.proxyClass.newInstance(this.bindings.clone()));
+    }
+
+    public @NotNull Class<T> type() {
+        return this.type;
+    }
+
+    /**
+     * Returns whether proxies are generated hidden classes rather than {@link java.lang.reflect.Proxy}
+     * instances, which is the case unless the interface is not accessible to this library.
+     */
+    public boolean isHidden() {
+        return this.proxyClass.isHidden();
+    }
+
+    private @NotNull ProxyBuilder<T> bind(
+            @NotNull final String name,
+            @NotNull final String target,
+            @NotNull final BiFunction<Method, MethodType, @Nullable Binding> binder
+    ) {
+        val methods = this.proxyClass.methods();
+        var found = false;
+        for (int i = 0; i < methods.length; i++) {
+            val method = methods[i];
+            if (!method.getName().equals(name)) {
+                continue;
+            }
+
+            found = true;
+            val binding = binder.apply(method, MethodType.methodType(method.getReturnType(), method.getParameterTypes()));
+            if (binding == null) {
+                throw new IllegalArgumentException(String.format("Cannot bind %s to a %s!", method, target));
+            }
+            this.bindings[i] = binding;
+        }
+
+        if (!found) {
+            throw new IllegalArgumentException(String.format("No method %s in %s!", name, this.type.getName()));
+        }
+        return this;
+    }
+
+    private static boolean isGetter(@NotNull final MethodType type) {
+        return type.parameterCount() == 0 && type.returnType() != void.class;
+    }
+
+    private static boolean isSetter(@NotNull final MethodType type) {
+        return type.parameterCount() == 1 && type.returnType() == void.class;
+    }
+
+}
@@ -0,0 +1,435 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.reflect.proxy;
+
+import lombok.val;
+import net.clydo.clytil.data.Getter;
+import net.clydo.clytil.data.Setter;
+import net.clydo.clytil.reflect.MethodInvoker;
+import net.clydo.clytil.reflect.bytecode.ClassFileWriter;
+import net.clydo.clytil.reflect.bytecode.ClassFileWriter.Code;
+import net.clydo.clytil.reflect.bytecode.HiddenClasses;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.clydo.clytil.reflect.bytecode.ClassFileWriter.internalName;
+
+/**
+ * The bindable methods of an interface and the proxy classes generated for it.
+ * <p>
+ * A proxy class is a hidden class in the package of the interface with one final field per bound
+ * method, holding its target with the static type of the {@link Binding.Kind}, and a constructor
+ * filling the fields from the dispatch table. Each method loads its field and calls the target
+ * directly, e.g. with {@code invokeinterface Getter.get()}, so there is no dispatch on the method
+ * at run time. Classes are shared by all proxies binding the same methods with the same kinds.
+ * <p>
+ * The JIT only inlines through a method handle that is a constant, so handle bindings are not
+ * instance fields but {@code static final} fields, filled from the class data of the hidden
+ * class. A proxy binding handles therefore gets a class of its own.
+ * <p>
+ * If the interface cannot be implemented by a hidden class, e.g. because its module is not
+ * opened to this library, proxies are {@link Proxy} instances calling the same targets through
+ * handles.
+ */
+final class ProxyClass {
+
+    private static final ClassValue<ProxyClass> CLASSES = new ClassValue<>() {
+        @Override
+        protected ProxyClass computeValue(@NotNull final Class<?> type) {
+            return new ProxyClass(type);
+        }
+    };
+
+    private static final String OBJECT = internalName(Object.class);
+    private static final String GETTER = internalName(Getter.class);
+    private static final String SETTER = internalName(Setter.class);
+    private static final String INVOKER = internalName(MethodInvoker.class);
+    private static final String HANDLE = internalName(MethodHandle.class);
+    private static final String LOOKUPS = internalName(MethodHandles.class);
+    private static final String OBJECT_DESCRIPTOR = ClassFileWriter.descriptor(Object.class);
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    private static final MethodHandle GETTER_GET;
+    private static final MethodHandle SETTER_SET;
+    private static final MethodHandle INVOKER_INVOKE;
+
+    static {
+        try {
+            val lookup = MethodHandles.publicLookup();
+            GETTER_GET = lookup.findVirtual(Getter.class, "get", MethodType.methodType(Object.class));
+            SETTER_SET = lookup.findVirtual(Setter.class, "set", MethodType.methodType(void.class, Object.class));
+            INVOKER_INVOKE = lookup.findVirtual(MethodInvoker.class, "invoke", MethodType.methodType(Object.class, Object.class, Object[].class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Class<?> type;
+    private final Method[] methods;
+    private final @Nullable MethodHandles.Lookup lookup;
+    private final Map<String, MethodHandle> factories = new ConcurrentHashMap<>();
+
+    private ProxyClass(@NotNull final Class<?> type) {
+        this.type = type;
+        this.methods = bindableMethods(type);
+        this.lookup = lookupFor(type, this.methods);
+    }
+
+    static @NotNull ProxyClass of(@NotNull final Class<?> type) {
+        return CLASSES.get(type);
+    }
+
+    /**
+     * Returns the bindable methods, sorted by name and descriptor; bindings are indexed alike.
+     */
+    @NotNull Method @NotNull [] methods() {
+        return this.methods;
+    }
+
+    /**
+     * Returns whether proxies are instances of generated hidden classes.
+     */
+    boolean isHidden() {
+        return this.lookup != null;
+    }
+
+    @NotNull Object newInstance(@Nullable final Binding @NotNull [] bindings) {
+        if (this.lookup == null) {
+            return this.newFallback(bindings);
+        }
+
+        val shape = new char[bindings.length];
+        var size = 0;
+        var handleCount = 0;
+        for (int i = 0; i < bindings.length; i++) {
+            val binding = bindings[i];
+            shape[i] = binding != null ? binding.kind().code : '-';
+            if (binding == null) {
+                continue;
+            }
+            switch (binding.kind()) {
+                case HANDLE -> handleCount++;
+                case INVOKER -> size += 2;
+                default -> size++;
+            }
+        }
+
+        val table = new Object[size];
+        val handles = new Object[handleCount];
+        var index = 0;
+        var handleIndex = 0;
+        for (val binding : bindings) {
+            if (binding == null) {
+                continue;
+            }
+            if (binding.kind() == Binding.Kind.HANDLE) {
+                handles[handleIndex++] = binding.target();
+                continue;
+            }
+            table[index++] = binding.target();
+            if (binding.kind() == Binding.Kind.INVOKER) {
+                table[index++] = binding.owner();
+            }
+        }
+
+        // Classes holding handles as constants cannot be shared.
+        val factory = handleCount > 0
+                ? this.generate(bindings, handles)
+                : this.factories.computeIfAbsent(new String(shape), key -> this.generate(bindings, null));
+
+        try {
+            return (Object) factory.invokeExact(table);
+        } catch (Throwable e) {
+            throw new RuntimeException(String.format("Failed to create proxy of %s!", this.type.getName()), e);
+        }
+    }
+
+    private @NotNull MethodHandle generate(
+            @Nullable final Binding @NotNull [] bindings,
+            @Nullable final Object @Nullable [] handles
+    ) {
+        val lookup = this.lookup;
+        assert lookup != null;
+
+        val writer = new ClassFileWriter(
+                ClassFileWriter.ACC_FINAL | ClassFileWriter.ACC_SUPER | ClassFileWriter.ACC_SYNTHETIC,
+                internalName(this.type) + "$$Proxy",
+                OBJECT,
+                internalName(this.type)
+        );
+        val owner = internalName(this.type) + "$$Proxy";
+
+        val constructor = writer.method(ClassFileWriter.ACC_PUBLIC, "<init>", "([Ljava/lang/Object;)V", 3, 2)
+                .varInsn(Code.ALOAD, 0)
+                .methodInsn(Code.INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+        // The static initializer keeps the class data array on the stack while filling the fields.
+        val initializer = handles == null ? null : writer.method(ClassFileWriter.ACC_STATIC, "<clinit>", "()V", 3, 0)
+                .methodInsn(Code.INVOKESTATIC, LOOKUPS, "lookup", "()Ljava/lang/invoke/MethodHandles$Lookup;", false)
+                .ldc("_")
+                .ldc(Object[].class)
+                .methodInsn(Code.INVOKESTATIC, LOOKUPS, "classData", "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;", false)
+                .typeInsn(Code.CHECKCAST, internalName(Object[].class));
+        var index = 0;
+        var handleIndex = 0;
+        for (int i = 0; i < bindings.length; i++) {
+            val binding = bindings[i];
+            if (binding == null) {
+                continue;
+            }
+
+            val kind = binding.kind();
+            val descriptor = ClassFileWriter.descriptor(kind.type);
+            if (kind == Binding.Kind.HANDLE) {
+                assert initializer != null;
+                writer.field(ClassFileWriter.ACC_PRIVATE | ClassFileWriter.ACC_STATIC | ClassFileWriter.ACC_FINAL, "b" + i, descriptor);
+                initializer.insn(Code.DUP)
+                        .push(handleIndex++)
+                        .insn(Code.AALOAD)
+                        .unbox(kind.type)
+                        .fieldInsn(Code.PUTSTATIC, owner, "b" + i, descriptor);
+                method(writer, owner, this.methods[i], i, kind);
+                continue;
+            }
+
+            writer.field(ClassFileWriter.ACC_PRIVATE | ClassFileWriter.ACC_FINAL, "b" + i, descriptor);
+            constructor.varInsn(Code.ALOAD, 0)
+                    .varInsn(Code.ALOAD, 1)
+                    .push(index++)
+                    .insn(Code.AALOAD)
+                    .unbox(kind.type)
+                    .fieldInsn(Code.PUTFIELD, owner, "b" + i, descriptor);
+            if (kind == Binding.Kind.INVOKER) {
+                writer.field(ClassFileWriter.ACC_PRIVATE | ClassFileWriter.ACC_FINAL, "o" + i, OBJECT_DESCRIPTOR);
+                constructor.varInsn(Code.ALOAD, 0)
+                        .varInsn(Code.ALOAD, 1)
+                        .push(index++)
+                        .insn(Code.AALOAD)
+                        .fieldInsn(Code.PUTFIELD, owner, "o" + i, OBJECT_DESCRIPTOR);
+            }
+
+            method(writer, owner, this.methods[i], i, kind);
+        }
+        constructor.insn(Code.RETURN).end();
+        if (initializer != null) {
+            initializer.insn(Code.POP)
+                    .insn(Code.RETURN)
+                    .end();
+        }
+
+        try {
+            val hidden = handles == null
+                    ? lookup.defineHiddenClass(writer.toByteArray(), true)
+                    : lookup.defineHiddenClassWithClassData(writer.toByteArray(), handles, true);
+            return hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class, Object[].class))
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException | NoSuchMethodException | LinkageError e) {
+            throw new RuntimeException(String.format("Failed to define proxy class of %s!", this.type.getName()), e);
+        }
+    }
+
+    private static void method(
+            @NotNull final ClassFileWriter writer,
+            @NotNull final String owner,
+            @NotNull final Method method,
+            final int index,
+            @NotNull final Binding.Kind kind
+    ) {
+        val parameters = method.getParameterTypes();
+        val returnType = method.getReturnType();
+        val descriptor = MethodType.methodType(returnType, parameters).toMethodDescriptorString();
+        var slots = 1;
+        for (val parameter : parameters) {
+            slots += parameter == long.class || parameter == double.class ? 2 : 1;
+        }
+
+        // The invoker boxes into an array: target, owner, array, array, index and a wide value.
+        val code = writer.method(ClassFileWriter.ACC_PUBLIC, method.getName(), descriptor, Math.max(7, slots + 1), slots);
+        if (kind == Binding.Kind.HANDLE) {
+            code.fieldInsn(Code.GETSTATIC, owner, "b" + index, ClassFileWriter.descriptor(kind.type));
+        } else {
+            code.varInsn(Code.ALOAD, 0)
+                    .fieldInsn(Code.GETFIELD, owner, "b" + index, ClassFileWriter.descriptor(kind.type));
+        }
+        switch (kind) {
+            case GETTER -> code.methodInsn(Code.INVOKEINTERFACE, GETTER, "get", "()Ljava/lang/Object;", true)
+                    .unbox(returnType);
+            case SETTER -> code.load(parameters[0], 1)
+                    .box(parameters[0])
+                    .methodInsn(Code.INVOKEINTERFACE, SETTER, "set", "(Ljava/lang/Object;)V", true);
+            case CONSTANT -> code.unbox(returnType);
+            case INVOKER -> {
+                code.varInsn(Code.ALOAD, 0)
+                        .fieldInsn(Code.GETFIELD, owner, "o" + index, OBJECT_DESCRIPTOR)
+                        .push(parameters.length)
+                        .typeInsn(Code.ANEWARRAY, OBJECT);
+                var slot = 1;
+                for (int i = 0; i < parameters.length; i++) {
+                    code.insn(Code.DUP)
+                            .push(i)
+                            .load(parameters[i], slot)
+                            .box(parameters[i])
+                            .insn(Code.AASTORE);
+                    slot += parameters[i] == long.class || parameters[i] == double.class ? 2 : 1;
+                }
+                code.methodInsn(Code.INVOKEINTERFACE, INVOKER, "invoke", "(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;", true);
+                if (returnType == void.class) {
+                    code.insn(Code.POP);
+                } else {
+                    code.unbox(returnType);
+                }
+            }
+            case HANDLE -> {
+                var slot = 1;
+                for (val parameter : parameters) {
+                    code.load(parameter, slot);
+                    slot += parameter == long.class || parameter == double.class ? 2 : 1;
+                }
+                code.methodInsn(Code.INVOKEVIRTUAL, HANDLE, "invokeExact", descriptor, false);
+            }
+        }
+        code.returnValue(returnType).end();
+    }
+
+    private @NotNull Object newFallback(@Nullable final Binding @NotNull [] bindings) {
+        val handles = new HashMap<String, MethodHandle>();
+        for (int i = 0; i < bindings.length; i++) {
+            val binding = bindings[i];
+            if (binding != null) {
+                val method = this.methods[i];
+                handles.put(signature(method), handle(binding, method)
+                        .asSpreader(Object[].class, method.getParameterCount())
+                        .asType(MethodType.methodType(Object.class, Object[].class)));
+            }
+        }
+        return Proxy.newProxyInstance(this.type.getClassLoader(), new Class<?>[]{this.type}, new Handler(this.type, handles));
+    }
+
+    /**
+     * Returns a handle of exactly the method type calling the target.
+     */
+    static @NotNull MethodHandle handle(
+            @NotNull final Binding binding,
+            @NotNull final Method method
+    ) {
+        val type = MethodType.methodType(method.getReturnType(), method.getParameterTypes());
+        val handle = switch (binding.kind()) {
+            case GETTER -> GETTER_GET.bindTo(binding.target());
+            case SETTER -> SETTER_SET.bindTo(binding.target());
+            case CONSTANT -> MethodHandles.constant(Object.class, binding.target());
+            case INVOKER -> MethodHandles.insertArguments(INVOKER_INVOKE, 0, binding.target(), binding.owner())
+                    .asCollector(Object[].class, method.getParameterCount());
+            case HANDLE -> (MethodHandle) binding.target();
+        };
+        return handle.asType(type);
+    }
+
+    /**
+     * Returns the name and descriptor of the method, which identify it in the proxy class.
+     */
+    static @NotNull String signature(@NotNull final Method method) {
+        return method.getName() + MethodType.methodType(method.getReturnType(), method.getParameterTypes()).toMethodDescriptorString();
+    }
+
+    private static @NotNull Method @NotNull [] bindableMethods(@NotNull final Class<?> type) {
+        // The same signature may be inherited from several superinterfaces, the abstract one wins.
+        val methods = new LinkedHashMap<String, Method>();
+        for (val method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.isBridge() || method.isSynthetic() || isObjectMethod(method)) {
+                continue;
+            }
+            methods.merge(signature(method), method, (first, second) -> first.isDefault() ? second : first);
+        }
+
+        val sorted = new ArrayList<>(methods.values());
+        sorted.sort(Comparator.comparing(ProxyClass::signature));
+        return sorted.toArray(new Method[0]);
+    }
+
+    private static boolean isObjectMethod(@NotNull final Method method) {
+        try {
+            return Modifier.isPublic(Object.class.getMethod(method.getName(), method.getParameterTypes()).getModifiers());
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static @Nullable MethodHandles.Lookup lookupFor(
+            @NotNull final Class<?> type,
+            @NotNull final Method @NotNull [] methods
+    ) {
+        val lookup = HiddenClasses.lookupIn(type, Getter.class, MethodInvoker.class);
+        if (lookup == null) {
+            return null;
+        }
+
+        // Return types are cast to, parameter types only appear in descriptors.
+        for (val method : methods) {
+            if (!HiddenClasses.isAccessible(lookup, method.getReturnType())
+                    || !HiddenClasses.isAccessible(lookup, method.getParameterTypes())) {
+                return null;
+            }
+        }
+        return lookup;
+    }
+
+    private record Handler(
+            @NotNull Class<?> type,
+            @NotNull Map<String, MethodHandle> handles
+    ) implements InvocationHandler {
+
+        @Override
+        public Object invoke(
+                final Object proxy,
+                final Method method,
+                final Object[] args
+        ) throws Throwable {
+            val handle = this.handles.get(signature(method));
+            if (handle != null) {
+                return (Object) handle.invokeExact(args != null ? args : NO_ARGUMENTS);
+            }
+            if (method.isDefault()) {
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> this.type.getName() + "$$Proxy@" + Integer.toHexString(System.identityHashCode(proxy));
+                default -> throw new AbstractMethodError(method.toString());
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.stats;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Tracks the largest recorded time together with what it was recorded for. Recording only locks when
+ * the time is a new maximum; synchronize on the tracker to read {@link #nanos()} and {@link #subject()}
+ * as one pair.
+ *
+ * @param <T> the type of the recorded subject
+ */
+public final class MaxNanos<T> {
+
+    private volatile long nanos;
+    private T subject;
+
+    public void record(final long nanos, @Nullable final T subject) {
+        if (nanos > this.nanos) {
+            synchronized (this) {
+                if (nanos > this.nanos) {
+                    this.nanos = nanos;
+                    this.subject = subject;
+                }
+            }
+        }
+    }
+
+    public long nanos() {
+        return this.nanos;
+    }
+
+    public synchronized @Nullable T subject() {
+        return this.subject;
+    }
+
+    public synchronized void reset() {
+        this.nanos = 0L;
+        this.subject = null;
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * This file is part of Clytil.
+ *
+ * Clytil is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by the
+ * Free Software Foundation, either version 3 of the License, or (at your
+ * option) any later version.
+ *
+ * Clytil is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with Clytil. If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ * Copyright (C) 2026 ClydoNetwork
+ */
+
+package net.clydo.clytil.stats;
+
+import lombok.val;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Striped counters of elapsed times bucketed by powers of two: bucket {@code i} counts times of fewer
+ * than {@code 2^i} nanoseconds but at least {@code 2^(i-1)}, the last bucket also counts everything slower.
+ */
+public final class NanosHistogram {
+
+    public static final int BUCKETS = 40;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    public NanosHistogram() {
+        for (int i = 0; i < this.buckets.length; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(final long nanos) {
+        this.buckets[bucketOf(nanos)].increment();
+    }
+
+    /**
+     * Returns the current bucket counts.
+     */
+    public long @NotNull [] snapshot() {
+        val histogram = new long[BUCKETS];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = this.buckets[i].sum();
+        }
+        return histogram;
+    }
+
+    public void reset() {
+        for (val bucket : this.buckets) {
+            bucket.reset();
+        }
+    }
+
+    /**
+     * Returns the bucket counting the given time.
+     *
+     * @param nanos the time in nanoseconds
+     * @return the bucket index
+     */
+    public static int bucketOf(final long nanos) {
+        return Math.min(64 - Long.numberOfLeadingZeros(Math.max(nanos, 0L)), BUCKETS - 1);
+    }
+
+    @Contract(pure = true)
+    public static long count(final long @NotNull [] histogram) {
+        var count = 0L;
+        for (val bucket : histogram) {
+            count += bucket;
+        }
+        return count;
+    }
+
+    /**
+     * Returns an upper bound of the time below which the given fraction of the counted times fall,
+     * as read from a histogram snapshot.
+     *
+     * @param histogram the bucket counts
+     * @param maxNanos  the largest recorded time, returned for the last bucket
+     * @param quantile  the fraction, between {@code 0} and {@code 1}
+     * @return the time in nanoseconds
+     */
+    @Contract(pure = true)
+    public static long quantileNanos(
+            final long @NotNull [] histogram,
+            final long maxNanos,
+            final double quantile
+    ) {
+        val threshold = (long) Math.ceil(count(histogram) * quantile);
+        var seen = 0L;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= threshold && seen > 0L) {
+                return i == BUCKETS - 1 ? maxNanos : 1L << i;
+            }
+        }
+        return 0L;
+    }
+
+}